@@ -39,6 +39,9 @@ public class PageResponse<T> {
     @SerializedName("empty")
     private boolean empty;
 
+    @SerializedName("nextCursor")
+    private String nextCursor;
+
     public PageResponse() {
     }
 
@@ -107,4 +110,12 @@ public class PageResponse<T> {
     public void setEmpty(boolean empty) {
         this.empty = empty;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 } 
\ No newline at end of file
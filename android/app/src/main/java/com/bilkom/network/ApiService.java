@@ -108,6 +108,12 @@ public interface ApiService {
     @GET("/api/events")
     Call<List<Event>> listEvents();
 
+    @GET("/api/events/feed")
+    Call<PageResponse<Event>> getEventFeed(@Query("cursor") String cursor, @Query("size") int size,
+                                           @Query("excludeClubEvents") boolean excludeClubEvents,
+                                           @Query("excludeJoined") boolean excludeJoined,
+                                           @Header("Authorization") String token);
+
     @POST("/api/events")
     Call<Event> createEvent(@Body EventRequest body, @Header("Authorization") String token);
 
@@ -208,8 +214,8 @@ public interface ApiService {
     @GET("/api/events/joined")
     Call<List<Event>> getJoinedEvents(@Header("Authorization") String token);
 
-    @POST("/api/events/filter/tags")
-    Call<List<Event>> filterEventsByTags(@Body List<String> tags, @Header("Authorization") String token);
-    // here, the /events/filter already filters by tags in the backend, but probably takes tags as a parameter. 
-    // so i believe this should work, check again
+    // Tag expression search: every tag in all, at least one tag in any, no tag in none
+    @GET("/api/events/tags/search")
+    Call<List<Event>> searchEventsByTags(@Query("all") List<String> allOf, @Query("any") List<String> anyOf,
+                                         @Query("none") List<String> noneOf, @Header("Authorization") String token);
 }
\ No newline at end of file
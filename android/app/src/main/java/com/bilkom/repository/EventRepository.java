@@ -49,27 +49,27 @@ public class EventRepository {
     }
     
     /**
-     * Get all events with pagination
+     * Get all events with cursor pagination
      * 
      * @param context Activity context
-     * @param page Page number (0-based)
+     * @param cursor Continuation token from the previous page, null for the first page
      * @param pageSize Number of items per page
      * @param onSuccess Success callback
      * @param onError Error callback
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      * @since 2025-05-09
      */
     public void getEvents(
             Context context, 
-            int page, 
+            String cursor, 
             int pageSize, 
             ApiErrorHandler.OnSuccess<PageResponse<Event>> onSuccess,
             ApiErrorHandler.OnError onError) {
         
         // Try to get from cache first
-        String cacheKey = CACHE_KEY_EVENTS_PAGE + page + "_" + pageSize;
+        String cacheKey = CACHE_KEY_EVENTS_PAGE + (cursor == null ? "first" : cursor) + "_" + pageSize;
         PageResponse<Event> cachedEvents = cacheManager.get(cacheKey, PageResponse.class);
         
         if (cachedEvents != null) {
@@ -78,8 +78,8 @@ public class EventRepository {
         }
         
         // Make API call (whether we returned cached data or not, to refresh cache)
-        Call<PageResponse<Event>> call = apiService.filterEvents(
-                new EventRequest() // Empty request for all events
+        Call<PageResponse<Event>> call = apiService.getEventFeed(
+                cursor, pageSize, sessionManager.getAuthToken()
         );
         
         call.enqueue(new ApiErrorHandler.ApiCallback<>(
@@ -97,6 +97,23 @@ public class EventRepository {
                 "Failed to load events"
         ));
     }
+
+    /**
+     * Get the first page of events with the default page size
+     * 
+     * @param context Activity context
+     * @param onSuccess Success callback
+     * @param onError Error callback
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public void getFirstEventsPage(
+            Context context,
+            ApiErrorHandler.OnSuccess<PageResponse<Event>> onSuccess,
+            ApiErrorHandler.OnError onError) {
+        getEvents(context, null, DEFAULT_PAGE_SIZE, onSuccess, onError);
+    }
     
     /**
      * Get all events (simplified version without pagination)
@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bilkom.R;
 import com.bilkom.adapter.EventAdapter;
 import com.bilkom.model.Event;
+import com.bilkom.model.PageResponse;
 import com.bilkom.network.ApiService;
 import com.bilkom.network.RetrofitClient;
 import com.bilkom.utils.SecureStorage;
@@ -26,7 +27,6 @@ import retrofit2.Response;
 import java.util.stream.Collectors;
 import android.util.Log;
 import androidx.appcompat.widget.Toolbar;
-import com.google.gson.Gson;
 
 public class EventActivity extends BaseActivity {
     private RecyclerView recyclerView;
@@ -40,6 +40,10 @@ public class EventActivity extends BaseActivity {
     private boolean isTagSpinnerInitialized = false;
     private String selectedTag = null;
     private Toolbar toolbar;
+    private static final int PAGE_SIZE = 20;
+    private String nextCursor = null;
+    private boolean isLoadingPage = false;
+    private Set<Long> joinedEventIds = new HashSet<>();
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -67,7 +71,18 @@ public class EventActivity extends BaseActivity {
             navigateToMainActivity();
         });
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView rv, int dx, int dy) {
+                // Load the next feed page when the user gets close to the end of the list
+                if (dy <= 0 || selectedTag != null || nextCursor == null || isLoadingPage) return;
+                if (layoutManager.findLastVisibleItemPosition() >= layoutManager.getItemCount() - 5) {
+                    loadNextFeedPage();
+                }
+            }
+        });
         eventList = new ArrayList<>();
         adapter = new EventAdapter(this, new ArrayList<>(), event -> {
             // Show loading toast
@@ -90,7 +105,7 @@ public class EventActivity extends BaseActivity {
                         
                         // Remove the event from the list since it's now joined
                         eventList.remove(event);
-                        adapter.setEventList(eventList);
+                        adapter.setEventList(new ArrayList<>(eventList));
                         
                         // Optionally refresh the list to ensure consistency
                         fetchEvents();
@@ -211,72 +226,86 @@ public class EventActivity extends BaseActivity {
         ApiService apiService = RetrofitClient.getInstance().getApiService();
         
         Log.d("EventActivity", "Fetching events...");
-        
-        apiService.getEvents("Bearer " + token).enqueue(new Callback<List<Event>>() {
+
+        // Reset the feed and fetch the joined events, which the tag search still filters out on the client
+        eventList.clear();
+        nextCursor = null;
+        apiService.getJoinedEvents("Bearer " + token).enqueue(new Callback<List<Event>>() {
             @Override
             public void onResponse(Call<List<Event>> call, Response<List<Event>> response) {
+                joinedEventIds = new HashSet<>();
                 if (response.isSuccessful() && response.body() != null) {
-                    // Log the raw response as JSON
-                    Log.d("EventActivity", "Raw response: " + new Gson().toJson(response.body()));
-                    Log.d("EventActivity", "Received events: " + response.body().size());
-                    List<Event> allEvents = response.body().stream()
-                            .filter(event -> !event.isClubEvent())
-                            .collect(Collectors.toList());
-                    
-                    Log.d("EventActivity", "Received " + allEvents.size() + " events");
-                    
-                    // Fetch joined events
-                    apiService.getJoinedEvents("Bearer " + token).enqueue(new Callback<List<Event>>() {
-                        @Override
-                        public void onResponse(Call<List<Event>> call, Response<List<Event>> response) {
-                            if (response.isSuccessful() && response.body() != null) {
-                                List<Event> joinedEvents = response.body();
-                                Log.d("EventActivity", "Received " + joinedEvents.size() + " joined events");
-                                
-                                // Filter out joined events
-                                List<Event> filteredEvents = allEvents.stream()
-                                        .filter(event -> !joinedEvents.stream()
-                                                .anyMatch(joined -> joined.getEventId().equals(event.getEventId())))
-                                        .collect(Collectors.toList());
-                                
-                                Log.d("EventActivity", "Filtered to " + filteredEvents.size() + " events");
-                                
-                                // Update UI on main thread
-                                runOnUiThread(() -> {
-                                    adapter.setEventList(filteredEvents);
-                                    Log.d("EventActivity", "Updated adapter with " + filteredEvents.size() + " events");
-                                });
-                            }
-                            loadingToast.cancel();
-                        }
+                    for (Event joinedEvent : response.body()) {
+                        joinedEventIds.add(joinedEvent.getEventId());
+                    }
+                    Log.d("EventActivity", "Received " + joinedEventIds.size() + " joined events");
+                }
+                loadingToast.cancel();
+                loadFeedPage(null);
+            }
+
+            @Override
+            public void onFailure(Call<List<Event>> call, Throwable t) {
+                Log.e("EventActivity", "Error loading joined events", t);
+                loadingToast.cancel();
+                Toast.makeText(EventActivity.this, 
+                    "Error loading joined events: " + t.getMessage(), 
+                    Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void loadNextFeedPage() {
+        loadFeedPage(nextCursor);
+    }
+
+    private void loadFeedPage(String cursor) {
+        isLoadingPage = true;
+        String token = secureStorage.getAuthToken();
+        ApiService apiService = RetrofitClient.getInstance().getApiService();
+
+        // The backend leaves out club events and the events the user already joined, so pages arrive full
+        apiService.getEventFeed(cursor, PAGE_SIZE, true, true, "Bearer " + token).enqueue(new Callback<PageResponse<Event>>() {
+            @Override
+            public void onResponse(Call<PageResponse<Event>> call, Response<PageResponse<Event>> response) {
+                isLoadingPage = false;
+                if (response.isSuccessful() && response.body() != null) {
+                    PageResponse<Event> page = response.body();
+                    List<Event> pageEvents = page.getContent() != null ? page.getContent() : new ArrayList<>();
+                    Log.d("EventActivity", "Received " + pageEvents.size() + " events");
+
+                    nextCursor = page.getNextCursor();
+                    eventList.addAll(pageEvents);
+                    Log.d("EventActivity", "Showing " + eventList.size() + " events");
 
-                        @Override
-                        public void onFailure(Call<List<Event>> call, Throwable t) {
-                            Log.e("EventActivity", "Error loading joined events", t);
-                            loadingToast.cancel();
-                            Toast.makeText(EventActivity.this, 
-                                "Error loading joined events: " + t.getMessage(), 
-                                Toast.LENGTH_SHORT).show();
-                        }
+                    runOnUiThread(() -> {
+                        adapter.setEventList(new ArrayList<>(eventList));
+                        recyclerView.post(() -> fillScreen());
                     });
                 } else {
                     Log.e("EventActivity", "Failed to load events: " + response.code());
-                    loadingToast.cancel();
                     Toast.makeText(EventActivity.this, 
                         "Failed to load events", Toast.LENGTH_SHORT).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<List<Event>> call, Throwable t) {
+            public void onFailure(Call<PageResponse<Event>> call, Throwable t) {
+                isLoadingPage = false;
                 Log.e("EventActivity", "Error loading events", t);
-                loadingToast.cancel();
                 Toast.makeText(EventActivity.this, 
                     "Error loading events: " + t.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
     }
 
+    // New pages are loaded on scroll, which never happens while the list is shorter than the screen
+    private void fillScreen() {
+        if (selectedTag == null && nextCursor != null && !isLoadingPage && !recyclerView.canScrollVertically(1)) {
+            loadNextFeedPage();
+        }
+    }
+
     private void fetchEventsByTag(String tag) {
         Toast loadingToast = Toast.makeText(this, "Loading events by tag...", Toast.LENGTH_SHORT);
         loadingToast.show();
@@ -284,40 +313,18 @@ public class EventActivity extends BaseActivity {
         ApiService apiService = RetrofitClient.getInstance().getApiService();
         List<String> tagList = new ArrayList<>();
         tagList.add(tag);
-        apiService.filterEventsByTags(tagList, "Bearer " + token).enqueue(new Callback<List<Event>>() {
+        // The backend resolves the tag through its index, and joined events were already loaded with the feed
+        apiService.searchEventsByTags(null, tagList, null, "Bearer " + token).enqueue(new Callback<List<Event>>() {
             @Override
             public void onResponse(Call<List<Event>> call, Response<List<Event>> response) {
+                loadingToast.cancel();
                 if (response.isSuccessful() && response.body() != null) {
-                    List<Event> filteredEvents = response.body().stream()
+                    List<Event> notJoined = response.body().stream()
                             .filter(event -> !event.isClubEvent())
+                            .filter(event -> !joinedEventIds.contains(event.getEventId()))
                             .collect(Collectors.toList());
-                    // Fetch joined events
-                    apiService.getJoinedEvents("Bearer " + token).enqueue(new Callback<List<Event>>() {
-                        @Override
-                        public void onResponse(Call<List<Event>> call2, Response<List<Event>> response2) {
-                            loadingToast.cancel();
-                            Set<Long> joinedIds = new HashSet<>();
-                            if (response2.isSuccessful() && response2.body() != null) {
-                                for (Event joinedEvent : response2.body()) {
-                                    joinedIds.add(joinedEvent.getEventId());
-                                }
-                            }
-                            List<Event> notJoined = new ArrayList<>();
-                            for (Event event : filteredEvents) {
-                                if (!joinedIds.contains(event.getEventId())) {
-                                    notJoined.add(event);
-                                }
-                            }
-                            adapter.setEventList(notJoined);
-                        }
-                        @Override
-                        public void onFailure(Call<List<Event>> call2, Throwable t2) {
-                            loadingToast.cancel();
-                            Toast.makeText(EventActivity.this, "Network error: " + t2.getMessage(), Toast.LENGTH_SHORT).show();
-                        }
-                    });
+                    adapter.setEventList(notJoined);
                 } else {
-                    loadingToast.cancel();
                     Toast.makeText(EventActivity.this, "Failed to load filtered events", Toast.LENGTH_SHORT).show();
                 }
             }
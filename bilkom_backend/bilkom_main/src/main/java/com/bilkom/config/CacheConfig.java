@@ -1,41 +1,149 @@
 package com.bilkom.config;
 
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ObjectUtils;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Configures caching for the application
- * 
+ * The caches are Ehcache caches behind the JCache API. Every cache has its own time to live
+ * and entry limit on the heap, and can get an off-heap tier; all of them collect statistics.
+ *
+ * The same manager holds the regions of the Hibernate second-level and query caches.
+ *
+ * Each cache is tuned with bilkom.cache.&lt;name&gt;.ttl-seconds, .max-entries and .offheap-mb,
+ * where name is the cache name without the "Cache" suffix (e.g. bilkom.cache.events.ttl-seconds),
+ * or hibernate.&lt;region&gt; for a Hibernate region (e.g. bilkom.cache.hibernate.clubs.max-entries).
+ * Off-heap entries are stored serialized, so only give an off-heap tier to caches whose
+ * values are Serializable, such as the Hibernate regions.
+ *
  * @author Mert Uzun
- * @version 1.0
+ * @version 1.4
  * @since 2025-05-09
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final String EVENTS_CACHE = "eventsCache";
+    private static final String CLUB_CACHE = "clubCache";
+    private static final String USER_CACHE = "userCache";
+
+    // Hibernate second-level cache regions, named in the @Cache annotations of the entities.
+    // Every instance has its own copy, so the time to live bounds how long a change made on another instance goes unseen.
+    private static final String USER_REGION = "users";
+    private static final String CLUB_REGION = "clubs";
+    private static final String CLUB_EXECUTIVES_REGION = "clubs.executives";
+    private static final String CLUB_MEMBER_REGION = "club_members";
+    private static final String CLUB_EXECUTIVE_REGION = "club_executives";
+    private static final String TAG_REGION = "tags";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // Property name, default time to live in seconds (0 for none) and heap entry limit of each cache
+    private static final Map<String, CacheLimits> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put(EVENTS_CACHE, new CacheLimits("events", 30, 1000));
+        DEFAULTS.put(CLUB_CACHE, new CacheLimits("club", 300, 1000));
+        DEFAULTS.put(USER_CACHE, new CacheLimits("user", 60, 10));
+
+        DEFAULTS.put(USER_REGION, new CacheLimits("hibernate.users", 300, 10000));
+        DEFAULTS.put(CLUB_REGION, new CacheLimits("hibernate.clubs", 300, 1000));
+        DEFAULTS.put(CLUB_EXECUTIVES_REGION, new CacheLimits("hibernate.clubs-executives", 300, 1000));
+        DEFAULTS.put(CLUB_MEMBER_REGION, new CacheLimits("hibernate.club-members", 300, 20000));
+        DEFAULTS.put(CLUB_EXECUTIVE_REGION, new CacheLimits("hibernate.club-executives", 300, 5000));
+        DEFAULTS.put(TAG_REGION, new CacheLimits("hibernate.tags", 600, 20000));
+        DEFAULTS.put(QUERY_RESULTS_REGION, new CacheLimits("hibernate.query-results", 300, 1000));
+        // Must outlive every cached query result, so it never expires
+        DEFAULTS.put(UPDATE_TIMESTAMPS_REGION, new CacheLimits("hibernate.update-timestamps", 0, 10000));
+    }
+
+    @Autowired
+    private Environment environment;
+
     /**
-     * Configures a simple cache manager for the application
-     * Creates separate caches for different types of data
-     * 
-     * @return CacheManager instance
-     * 
+     * Creates the JCache cache manager holding the application caches.
+     *
+     * @return javax.cache.CacheManager instance
+     *
      * @author Mert Uzun
      * @version 1.0
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheManager() {
+        Map<String, org.ehcache.config.CacheConfiguration<?, ?>> caches = new LinkedHashMap<>();
+        DEFAULTS.forEach((name, limits) -> caches.put(name, cacheConfiguration(limits)));
+
+        // Own provider and URI per application context, so test contexts do not share caches or MBeans
+        URI uri = URI.create("urn:bilkom:cache-manager:" + ObjectUtils.getIdentityHexString(this));
+        javax.cache.CacheManager cacheManager = new EhcacheCachingProvider().getCacheManager(uri,
+                new DefaultConfiguration(caches, getClass().getClassLoader()));
+        for (String name : caches.keySet()) {
+            cacheManager.enableStatistics(name, true);
+            cacheManager.enableManagement(name, true);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Configures the cache manager used by the caching annotations
+     * Puts and evictions made inside a transaction are applied only after it commits,
+     * so a reader can not cache data of a transaction that is later rolled back.
+     *
+     * @param jCacheManager The JCache cache manager holding the caches
+     * @return CacheManager instance
+     *
+     * @author Mert Uzun
+     * @version 1.1
      * @since 2025-05-09
      */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
-            "weatherCache",
-            "eventsCache",
-            "clubCache",
-            "userCache",
-            "newsCache"
-        );
+    public CacheManager cacheManager(javax.cache.CacheManager jCacheManager) {
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jCacheManager);
+        cacheManager.setTransactionAware(true);
         return cacheManager;
     }
-} 
\ No newline at end of file
+
+    private org.ehcache.config.CacheConfiguration<?, ?> cacheConfiguration(CacheLimits limits) {
+        String prefix = "bilkom.cache." + limits.property() + ".";
+        long ttlSeconds = environment.getProperty(prefix + "ttl-seconds", Long.class, limits.ttlSeconds());
+        long maxEntries = environment.getProperty(prefix + "max-entries", Long.class, limits.maxEntries());
+        long offHeapMb = environment.getProperty(prefix + "offheap-mb", Long.class, 0L);
+
+        ExpiryPolicy<Object, Object> expiry = ttlSeconds > 0
+                ? ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds))
+                : ExpiryPolicyBuilder.noExpiration();
+        ResourcePoolsBuilder resources = ResourcePoolsBuilder.heap(maxEntries);
+        if (offHeapMb <= 0) {
+            return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resources)
+                    .withExpiry(expiry)
+                    .build();
+        }
+        // Ehcache only has serializers for Serializable keys and values
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Serializable.class, Serializable.class,
+                        resources.offheap(offHeapMb, MemoryUnit.MB))
+                .withExpiry(expiry)
+                .build();
+    }
+
+    private record CacheLimits(String property, long ttlSeconds, long maxEntries) {}
+}
@@ -54,18 +54,26 @@ public class JpaConfig {
     
     /**
      * Customizes Hibernate properties for optimal performance.
+     * The second-level and query caches use the regions defined in CacheConfig, so they share
+     * the limits and statistics of the application caches.
      * 
+     * @param jCacheManager The JCache cache manager holding the cache regions
      * @return HibernatePropertiesCustomizer that sets performance-related properties
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer() {
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager jCacheManager) {
         return hibernateProperties -> {
             // Enable second-level cache
             hibernateProperties.put("hibernate.cache.use_second_level_cache", "true");
             hibernateProperties.put("hibernate.cache.region.factory_class", "org.hibernate.cache.jcache.JCacheRegionFactory");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", jCacheManager);
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            hibernateProperties.put("hibernate.cache.use_query_cache", "true");
+            // Executives are saved through their own side, which would otherwise leave the cached club collection stale
+            hibernateProperties.put("hibernate.cache.auto_evict_collection_cache", "true");
             
             // Batch size for more efficient queries
             hibernateProperties.put("hibernate.jdbc.batch_size", "50");
@@ -0,0 +1,32 @@
+package com.bilkom.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the application metrics, which Actuator exports at /actuator/prometheus.
+ * Request timings, the Hikari pool and the caches are measured by Spring Boot; the services
+ * add their own meters under the bilkom prefix.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Lets service methods be timed with the @Timed annotation.
+     *
+     * @param meterRegistry The registry the timings are recorded in
+     * @return TimedAspect instance
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
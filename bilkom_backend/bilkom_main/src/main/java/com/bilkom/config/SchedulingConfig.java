@@ -0,0 +1,69 @@
+package com.bilkom.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Configures the threads that run the scheduled jobs.
+ * Jobs run on the taskScheduler pool unless they name another scheduler. The outbox dispatcher
+ * waits for emails and push notifications to be sent, so it has a scheduler of its own and a
+ * slow send never delays the other jobs. Jobs that fetch from external sites share the
+ * refreshScheduler for the same reason.
+ *
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${bilkom.scheduling.pool-size:4}")
+    private int poolSize = 4;
+
+    /**
+     * The scheduler shared by the scheduled jobs.
+     *
+     * @return ThreadPoolTaskScheduler instance
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler("scheduling-", poolSize);
+    }
+
+    /**
+     * The scheduler of the outbox dispatcher.
+     *
+     * @return ThreadPoolTaskScheduler instance
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Bean
+    public ThreadPoolTaskScheduler outboxScheduler() {
+        return scheduler("outbox-", 1);
+    }
+
+    /**
+     * The scheduler of the jobs that fetch from external sites.
+     *
+     * @return ThreadPoolTaskScheduler instance
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Bean
+    public ThreadPoolTaskScheduler refreshScheduler() {
+        return scheduler("refresh-", 2);
+    }
+
+    private ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
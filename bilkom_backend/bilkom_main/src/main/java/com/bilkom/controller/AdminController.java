@@ -1,14 +1,19 @@
 package com.bilkom.controller;
 
+import com.bilkom.dto.CacheStats;
 import com.bilkom.dto.ClubDTO;
+import com.bilkom.dto.MailQueueStats;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.service.AdminVerificationService;
+import com.bilkom.service.CacheStatisticsService;
+import com.bilkom.service.MailQueue;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +28,12 @@ public class AdminController {
 
     @Autowired
     private AdminVerificationService adminVerificationService;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
     
     /**
      * Approves a club registration.
@@ -95,4 +106,32 @@ public class AdminController {
         ClubDTO rejectedClub = adminVerificationService.rejectClub(id, token, reason);
         return ResponseEntity.ok(rejectedClub);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Gets the depth and send latency of the outgoing mail queue.
+     * 
+     * @return The mail queue statistics
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @GetMapping("/mail/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MailQueueStats> getMailQueueStats() {
+        return ResponseEntity.ok(mailQueue.getStats());
+    }
+
+    /**
+     * Gets the hit, miss and eviction counts of the application caches.
+     * 
+     * @return The statistics of each cache
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStats());
+    }
+}
@@ -1,6 +1,7 @@
 package com.bilkom.controller;
 
 import com.bilkom.dto.ClubDTO;
+import com.bilkom.dto.ClubSummary;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.service.ClubService;
 import com.bilkom.service.UserService;
@@ -41,8 +42,8 @@ public class ClubController {
      * @version 1.0
      */
     @GetMapping
-    public ResponseEntity<List<ClubDTO>> getAllClubs() {
-        return ResponseEntity.ok(clubService.getApprovedClubs());
+    public ResponseEntity<List<ClubSummary>> getAllClubs() {
+        return ResponseEntity.ok(clubService.getApprovedClubSummaries());
     }
     
     /**
@@ -55,8 +56,8 @@ public class ClubController {
      */
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ClubDTO>> getAllClubsAdmin() {
-        return ResponseEntity.ok(clubService.getAllClubs());
+    public ResponseEntity<List<ClubSummary>> getAllClubsAdmin() {
+        return ResponseEntity.ok(clubService.getAllClubSummaries());
     }
     
     /**
@@ -83,8 +84,8 @@ public class ClubController {
      * @version 1.0
      */
     @GetMapping("/headed-by/{userId}")
-    public ResponseEntity<List<ClubDTO>> getClubsByHeadId(@PathVariable("userId") Long userId) {
-        return ResponseEntity.ok(clubService.getClubsByHeadId(userId));
+    public ResponseEntity<List<ClubSummary>> getClubsByHeadId(@PathVariable("userId") Long userId) {
+        return ResponseEntity.ok(clubService.getClubSummariesByHeadId(userId));
     }
     
     /**
@@ -97,8 +98,8 @@ public class ClubController {
      * @version 1.0
      */
     @GetMapping("/executive-in/{userId}")
-    public ResponseEntity<List<ClubDTO>> getClubsByExecutiveId(@PathVariable("userId") Long userId) {
-        return ResponseEntity.ok(clubService.getClubsByExecutiveId(userId));
+    public ResponseEntity<List<ClubSummary>> getClubsByExecutiveId(@PathVariable("userId") Long userId) {
+        return ResponseEntity.ok(clubService.getClubSummariesByExecutiveId(userId));
     }
     
     /**
@@ -111,8 +112,8 @@ public class ClubController {
      * @version 1.0
      */
     @GetMapping("/member-in/{userId}")
-    public ResponseEntity<List<ClubDTO>> getClubsByMemberId(@PathVariable("userId") Long userId) {
-        return ResponseEntity.ok(clubService.getClubsByMemberId(userId));
+    public ResponseEntity<List<ClubSummary>> getClubsByMemberId(@PathVariable("userId") Long userId) {
+        return ResponseEntity.ok(clubService.getClubSummariesByMemberId(userId));
     }
     
     /**
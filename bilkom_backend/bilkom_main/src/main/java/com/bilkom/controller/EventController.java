@@ -1,10 +1,14 @@
 package com.bilkom.controller;
 
+import com.bilkom.dto.CursorPage;
 import com.bilkom.dto.EventDto;
+import com.bilkom.dto.EventSummary;
+import com.bilkom.dto.UserCard;
 import com.bilkom.entity.Event;
 import com.bilkom.entity.User;
 import com.bilkom.enums.UserRole;
 import com.bilkom.exception.BadRequestException;
+import com.bilkom.security.AuthenticatedUser;
 import com.bilkom.service.EventService;
 import com.bilkom.service.UserService;
 import com.bilkom.service.ClubSecurityService;
@@ -81,6 +85,48 @@ public class EventController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Puts the user on the waitlist of a full event.
+     * The user is moved into the event automatically when a seat opens up.
+     * @param eventId The ID of the event
+     * @param principal The authenticated user
+     * @return ResponseEntity containing the position of the user in the waitlist.
+     * 
+     * @author Elif Bozkurt
+     */
+    @PostMapping("/{eventId}/waitlist")
+    public ResponseEntity<Map<String, Long>> joinWaitlist(@PathVariable Long eventId, Principal principal) {
+        long position = eventService.joinWaitlist(eventId, principal.getName());
+        return ResponseEntity.ok(Map.of("position", position));
+    }
+
+    /**
+     * Removes the user from the waitlist of an event.
+     * @param eventId The ID of the event
+     * @param principal The authenticated user
+     * @return ResponseEntity indicating success or failure.
+     * 
+     * @author Elif Bozkurt
+     */
+    @DeleteMapping("/{eventId}/waitlist")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long eventId, Principal principal) {
+        eventService.leaveWaitlist(eventId, principal.getName());
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Returns the position of the user in the waitlist of an event.
+     * @param eventId The ID of the event
+     * @param principal The authenticated user
+     * @return ResponseEntity containing the position of the user in the waitlist.
+     * 
+     * @author Elif Bozkurt
+     */
+    @GetMapping("/{eventId}/waitlist/position")
+    public ResponseEntity<Map<String, Long>> getWaitlistPosition(@PathVariable Long eventId, Principal principal) {
+        return ResponseEntity.ok(Map.of("position", eventService.getWaitlistPosition(eventId, principal.getName())));
+    }
+
     /**
      * Lists all events.
      * @return ResponseEntity containing the list of events.
@@ -88,11 +134,33 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping
-    public ResponseEntity<List<Event>> listAllEvents() {
-        List<Event> events = eventService.listAllEvents(); 
+    public ResponseEntity<List<EventSummary>> listAllEvents() {
+        List<EventSummary> events = eventService.listActiveEventSummaries(); 
         return ResponseEntity.ok(events);
     }
 
+    /**
+     * Returns one slice of the active event feed, ordered by event date and ID.
+     * Pass the nextCursor of the previous response to get the following slice.
+     * @param cursor Continuation token, omitted for the first slice
+     * @param size Number of events per slice
+     * @param excludeClubEvents Whether to leave out club events
+     * @param excludeJoined Whether to leave out the events the user joined
+     * @param principal The logged in user, if any
+     * @return ResponseEntity containing the slice and the next cursor.
+     * 
+     * @author Mert Uzun
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<EventSummary>> getEventFeed(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "" + EventService.DEFAULT_FEED_PAGE_SIZE) int size,
+                                                          @RequestParam(defaultValue = "false") boolean excludeClubEvents,
+                                                          @RequestParam(defaultValue = "false") boolean excludeJoined,
+                                                          Principal principal) {
+        String userEmail = principal != null ? principal.getName() : null;
+        return ResponseEntity.ok(eventService.getEventFeed(cursor, size, excludeClubEvents, excludeJoined, userEmail));
+    }
+
     /**
      * Lists all active events.
      * @return ResponseEntity containing the list of active events.
@@ -100,11 +168,28 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @PostMapping("/filter")
-    public ResponseEntity<List<Event>> filterEventsByTags(@RequestBody List<String> tagNames) {
-        List<Event> events = eventService.filterEventsByTags(tagNames); 
+    public ResponseEntity<List<EventSummary>> filterEventsByTags(@RequestBody List<String> tagNames) {
+        List<EventSummary> events = eventService.filterEventSummariesByTags(tagNames); 
         return ResponseEntity.ok(events);
     }
 
+    /**
+     * Searches active events with a tag expression.
+     * An event matches if it has every tag in all, at least one tag in any, and no tag in none.
+     * @param all Tags that must all be present
+     * @param any Tags of which at least one must be present
+     * @param none Tags that must not be present
+     * @return ResponseEntity containing the matching events.
+     * 
+     * @author Elif Bozkurt
+     */
+    @GetMapping("/tags/search")
+    public ResponseEntity<List<EventSummary>> searchEventsByTags(@RequestParam(required = false) List<String> all,
+                                                                 @RequestParam(required = false) List<String> any,
+                                                                 @RequestParam(required = false) List<String> none) {
+        return ResponseEntity.ok(eventService.searchEventSummariesByTags(all, any, none));
+    }
+
     /**
      * Gets a specific event by its ID.
      * @param eventId The ID of the event
@@ -157,8 +242,8 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping("/created")
-    public ResponseEntity<List<Event>> getEventsCreatedByUser(Principal principal) {
-        List<Event> events = eventService.getEventsCreatedByUser(principal.getName());
+    public ResponseEntity<List<EventSummary>> getEventsCreatedByUser(Principal principal) {
+        List<EventSummary> events = eventService.getEventSummariesCreatedByUser(principal.getName());
         return ResponseEntity.ok(events);
     }
 
@@ -170,8 +255,8 @@ public class EventController {
      * @author Elif Bozkurt
      */ 
     @GetMapping("/joined")
-    public ResponseEntity<List<Event>> getEventsUserJoined(Principal principal) {
-        List<Event> events = eventService.getEventsUserJoined(principal.getName());
+    public ResponseEntity<List<EventSummary>> getEventsUserJoined(Principal principal) {
+        List<EventSummary> events = eventService.getEventSummariesUserJoined(principal.getName());
         return ResponseEntity.ok(events);
     }
 
@@ -183,8 +268,8 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping("/{eventId}/participants")
-    public ResponseEntity<List<User>> getParticipants(@PathVariable Long eventId, Principal principal) {
-        List<User> users = eventService.getParticipantsForEvent(eventId, principal.getName());
+    public ResponseEntity<List<UserCard>> getParticipants(@PathVariable Long eventId, Principal principal) {
+        List<UserCard> users = eventService.getParticipantsForEvent(eventId, principal.getName());
         return ResponseEntity.ok(users);
     }
 
@@ -195,8 +280,8 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping("/past")
-    public ResponseEntity<List<Event>> listPastEvents() {
-        List<Event> pastEvents = eventService.listPastEvents();
+    public ResponseEntity<List<EventSummary>> listPastEvents() {
+        List<EventSummary> pastEvents = eventService.listPastEventSummaries();
         return ResponseEntity.ok(pastEvents);
     }
 
@@ -208,8 +293,8 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping("/created/past")
-    public ResponseEntity<List<Event>> getPastEventsCreatedByUser(Principal principal) {
-        List<Event> events = eventService.getPastEventsCreatedByUser(principal.getName());
+    public ResponseEntity<List<EventSummary>> getPastEventsCreatedByUser(Principal principal) {
+        List<EventSummary> events = eventService.getPastEventSummariesCreatedByUser(principal.getName());
         return ResponseEntity.ok(events);
     }
 
@@ -221,8 +306,8 @@ public class EventController {
      * @author Elif Bozkurt
      */
     @GetMapping("/joined/past")
-    public ResponseEntity<List<Event>> getPastEventsUserJoined(Principal principal) {
-        List<Event> events = eventService.getPastEventsUserJoined(principal.getName());
+    public ResponseEntity<List<EventSummary>> getPastEventsUserJoined(Principal principal) {
+        List<EventSummary> events = eventService.getPastEventSummariesUserJoined(principal.getName());
         return ResponseEntity.ok(events);
     }
 
@@ -294,8 +379,8 @@ public class EventController {
      */
     @GetMapping("/clubs/{clubId}/events")
     @PreAuthorize("hasRole('ADMIN') or @clubSecurityService.isUserClubExecutiveOrHead(authentication.principal.userId, #clubId)")
-    public ResponseEntity<List<Event>> getClubEvents(@PathVariable Long clubId) {
-        return ResponseEntity.ok(eventService.getClubEvents(clubId));
+    public ResponseEntity<List<EventSummary>> getClubEvents(@PathVariable Long clubId) {
+        return ResponseEntity.ok(eventService.getClubEventSummaries(clubId));
     }
     
     /**
@@ -309,8 +394,8 @@ public class EventController {
      */
     @GetMapping("/clubs/{clubId}/events/current")
     @PreAuthorize("hasRole('ADMIN') or @clubSecurityService.isUserClubExecutiveOrHead(authentication.principal.userId, #clubId)")
-    public ResponseEntity<List<Event>> getCurrentClubEvents(@PathVariable Long clubId) {
-        return ResponseEntity.ok(eventService.getCurrentClubEvents(clubId));
+    public ResponseEntity<List<EventSummary>> getCurrentClubEvents(@PathVariable Long clubId) {
+        return ResponseEntity.ok(eventService.getCurrentClubEventSummaries(clubId));
     }
     
     /**
@@ -324,8 +409,8 @@ public class EventController {
      */
     @GetMapping("/clubs/{clubId}/events/past")
     @PreAuthorize("hasRole('ADMIN') or @clubSecurityService.isUserClubExecutiveOrHead(authentication.principal.userId, #clubId)")
-    public ResponseEntity<List<Event>> getPastClubEvents(@PathVariable Long clubId) {
-        return ResponseEntity.ok(eventService.getPastClubEvents(clubId));
+    public ResponseEntity<List<EventSummary>> getPastClubEvents(@PathVariable Long clubId) {
+        return ResponseEntity.ok(eventService.getPastClubEventSummaries(clubId));
     }
     
     /**
@@ -339,7 +424,7 @@ public class EventController {
     @GetMapping("/my-club-events")
     @PreAuthorize("hasAnyRole('CLUB_HEAD', 'CLUB_EXECUTIVE')")
     public ResponseEntity<Map<Long, List<Event>>> getMyClubEvents() {
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return ResponseEntity.ok(eventService.getAllEventsForClubExecutive(currentUser.getUserId()));
     }
     
@@ -354,7 +439,7 @@ public class EventController {
     @GetMapping("/my-club-events/current")
     @PreAuthorize("hasAnyRole('CLUB_HEAD', 'CLUB_EXECUTIVE')")
     public ResponseEntity<Map<Long, List<Event>>> getMyCurrentClubEvents() {
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return ResponseEntity.ok(eventService.getCurrentEventsForClubExecutive(currentUser.getUserId()));
     }
     
@@ -369,7 +454,7 @@ public class EventController {
     @GetMapping("/my-club-events/past")
     @PreAuthorize("hasAnyRole('CLUB_HEAD', 'CLUB_EXECUTIVE')")
     public ResponseEntity<Map<Long, List<Event>>> getMyPastClubEvents() {
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return ResponseEntity.ok(eventService.getPastEventsForClubExecutive(currentUser.getUserId()));
     }
 }
\ No newline at end of file
@@ -33,6 +33,6 @@ public class NewsController {
      */
     @GetMapping
     public List<NewsDto> getBilkentNews() {
-        return newsService.fetchFromBilkentNews();
+        return newsService.getNews();
     }
 }
@@ -0,0 +1,53 @@
+package com.bilkom.controller;
+
+import com.bilkom.dto.SearchResult;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.service.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+/**
+ * SearchController handles full-text search over events and clubs.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    /**
+     * Searches event names, descriptions, locations and tags, and club names and descriptions.
+     * 
+     * @param q The search text
+     * @param type Optional kind of results, "event" or "club"
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return ResponseEntity containing one page of results, best match first
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @GetMapping
+    public ResponseEntity<Page<SearchResult>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) String type,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "" + SearchIndex.DEFAULT_PAGE_SIZE) int size) {
+        SearchIndex.DocumentType documentType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                documentType = SearchIndex.DocumentType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown search type: " + type);
+            }
+        }
+        return ResponseEntity.ok(searchIndex.search(q, documentType, page, size));
+    }
+}
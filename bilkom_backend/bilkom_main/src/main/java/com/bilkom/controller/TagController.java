@@ -0,0 +1,49 @@
+package com.bilkom.controller;
+
+import com.bilkom.entity.TagDefinition;
+import com.bilkom.service.TagService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * TagController serves the tag dictionary.
+ * It provides the list of available tags and the most popular ones.
+ *
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/tags")
+public class TagController {
+
+    @Autowired
+    private TagService tagService;
+
+    /**
+     * Lists the names of all tags in use.
+     * 
+     * @return ResponseEntity containing the tag names in alphabetical order.
+     * 
+     * @author Elif Bozkurt
+     */
+    @GetMapping
+    public ResponseEntity<List<String>> getAllTags() {
+        return ResponseEntity.ok(tagService.getAllTagNames());
+    }
+
+    /**
+     * Lists the most used tags with the number of events carrying each.
+     * 
+     * @param limit Maximum number of tags to return
+     * @return ResponseEntity containing the popular tags, most used first.
+     * 
+     * @author Elif Bozkurt
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<List<TagDefinition>> getPopularTags(@RequestParam(defaultValue = "" + TagService.DEFAULT_POPULAR_TAG_LIMIT) int limit) {
+        return ResponseEntity.ok(tagService.getPopularTags(limit));
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Map;
 import com.bilkom.dto.ClubDTO;
+import com.bilkom.dto.UserCard;
 import com.bilkom.service.ClubMemberService;
 import com.bilkom.service.ClubService;
 
@@ -31,9 +32,9 @@ public class UserController {
 
     // GET all users
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserCard>> getAllUsers() {
         try {
-            return ResponseEntity.ok(userService.getAllUsers());
+            return ResponseEntity.ok(userService.getAllUserCards());
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error retrieving users", e);
         }
@@ -5,13 +5,15 @@ import com.bilkom.service.WeatherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * WeatherController is responsible for handling HTTP requests related to
  * weather information.
- * It provides an endpoint for fetching the current weather data.
+ * It provides endpoints for fetching the current weather data and the recent observations.
  *
  * @author Elif Bozkurt
- * @version 1.0
+ * @version 1.1
  */
 @RestController
 @RequestMapping("/weather")
@@ -32,4 +34,19 @@ public class WeatherController {
     public WeatherDto getWeather() {
         return weatherService.getWeather();
     }
+
+    /**
+     * Fetches the weather observations of the last hours, oldest first.
+     * Served from the database, without calling OpenWeatherMap.
+     * 
+     * @param hours How many hours back to go, 24 by default
+     * @return List of WeatherDto objects, one per observation
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @GetMapping("/history")
+    public List<WeatherDto> getWeatherHistory(@RequestParam(defaultValue = "24") int hours) {
+        return weatherService.getHistory(hours);
+    }
 }
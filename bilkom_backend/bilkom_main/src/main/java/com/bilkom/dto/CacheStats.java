@@ -0,0 +1,41 @@
+package com.bilkom.dto;
+
+/**
+ * CacheStats is a Data Transfer Object with the statistics of one cache since the application started.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class CacheStats {
+    private String cacheName;
+    private long hits;
+    private long misses;
+    private float hitPercentage;
+    private long puts;
+    private long removals;
+    private long evictions;
+    private float averageGetTimeMicros;
+
+    public CacheStats() {}
+
+    public CacheStats(String cacheName, long hits, long misses, float hitPercentage, long puts, long removals,
+                      long evictions, float averageGetTimeMicros) {
+        this.cacheName = cacheName;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitPercentage = hitPercentage;
+        this.puts = puts;
+        this.removals = removals;
+        this.evictions = evictions;
+        this.averageGetTimeMicros = averageGetTimeMicros;
+    }
+
+    public String getCacheName() { return cacheName; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public float getHitPercentage() { return hitPercentage; }
+    public long getPuts() { return puts; }
+    public long getRemovals() { return removals; }
+    public long getEvictions() { return evictions; }
+    public float getAverageGetTimeMicros() { return averageGetTimeMicros; }
+}
@@ -0,0 +1,79 @@
+package com.bilkom.dto;
+
+import java.sql.Timestamp;
+
+import com.bilkom.enums.ClubRegistrationStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Read-only projection of a club for list endpoints.
+ * Unlike ClubDTO it does not embed the club head entity or the member and executive lists,
+ * only the head's name and the number of active members.
+ * Built by a JPQL constructor expression in ClubRepository.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class ClubSummary {
+    private Long clubId;
+    private String clubName;
+    private String clubDescription;
+    private ClubRegistrationStatus status;
+    private boolean isActive;
+    private Timestamp createdAt;
+    private Long clubHeadId;
+    private String clubHeadName;
+    private long memberCount;
+
+    public ClubSummary(Long clubId, String clubName, String clubDescription, ClubRegistrationStatus status,
+                       boolean isActive, Timestamp createdAt, Long clubHeadId,
+                       String clubHeadFirstName, String clubHeadLastName, long memberCount) {
+        this.clubId = clubId;
+        this.clubName = clubName;
+        this.clubDescription = clubDescription;
+        this.status = status;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.clubHeadId = clubHeadId;
+        this.clubHeadName = clubHeadFirstName + " " + clubHeadLastName;
+        this.memberCount = memberCount;
+    }
+
+    //GETTERS
+    public Long getClubId() {
+        return clubId;
+    }
+
+    public String getClubName() {
+        return clubName;
+    }
+
+    public String getClubDescription() {
+        return clubDescription;
+    }
+
+    public ClubRegistrationStatus getStatus() {
+        return status;
+    }
+
+    @JsonProperty("isActive")
+    public boolean isActive() {
+        return isActive;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getClubHeadId() {
+        return clubHeadId;
+    }
+
+    public String getClubHeadName() {
+        return clubHeadName;
+    }
+
+    public long getMemberCount() {
+        return memberCount;
+    }
+}
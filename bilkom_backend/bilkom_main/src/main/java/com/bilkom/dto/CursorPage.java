@@ -0,0 +1,45 @@
+package com.bilkom.dto;
+
+import java.util.List;
+
+/**
+ * CursorPage is a Data Transfer Object for keyset-paginated responses.
+ * Instead of a page number it carries an opaque continuation token which the client
+ * sends back to get the next slice. The field names follow the ones the Android
+ * PageResponse model already understands (content, size, last, empty).
+ * 
+ * @param <T> Type of the paginated content
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private int size;
+    private boolean last;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, String nextCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.size = size;
+        this.last = nextCursor == null;
+    }
+
+    // GETTERS AND SETTERS
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isLast() { return last; }
+    public void setLast(boolean last) { this.last = last; }
+
+    public boolean isEmpty() { return content == null || content.isEmpty(); }
+}
@@ -0,0 +1,72 @@
+package com.bilkom.dto;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * EventSummary is a read-only projection of an event for list endpoints.
+ * It is built by a JPQL constructor expression in EventRepository, so listing events
+ * never materializes Event entities, their creator User or their lazy collections.
+ * Tag names are attached afterwards with one batched query for the whole list.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+public class EventSummary {
+    private Long eventId;
+    private String eventName;
+    private String eventDescription;
+    private String eventLocation;
+    private Date eventDate;
+    private int maxParticipants;
+    private int currentParticipantsNumber;
+    private boolean isActive;
+    private boolean isClubEvent;
+    private Long clubId;
+    private Long creatorId;
+    private String creatorName;
+    private List<String> tags = new ArrayList<>();
+
+    public EventSummary(Long eventId, String eventName, String eventDescription, String eventLocation,
+                        Date eventDate, int maxParticipants, int currentParticipantsNumber,
+                        boolean isActive, boolean isClubEvent, Long clubId,
+                        Long creatorId, String creatorFirstName, String creatorLastName) {
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.eventDescription = eventDescription;
+        this.eventLocation = eventLocation;
+        this.eventDate = eventDate;
+        this.maxParticipants = maxParticipants;
+        this.currentParticipantsNumber = currentParticipantsNumber;
+        this.isActive = isActive;
+        this.isClubEvent = isClubEvent;
+        this.clubId = clubId;
+        this.creatorId = creatorId;
+        this.creatorName = creatorFirstName + " " + creatorLastName;
+    }
+
+    // GETTERS AND SETTERS
+    public Long getEventId() { return eventId; }
+    public String getEventName() { return eventName; }
+    public String getEventDescription() { return eventDescription; }
+    public String getEventLocation() { return eventLocation; }
+    public Date getEventDate() { return eventDate; }
+    public int getMaxParticipants() { return maxParticipants; }
+    public int getCurrentParticipantsNumber() { return currentParticipantsNumber; }
+
+    @JsonProperty("isActive")
+    public boolean isActive() { return isActive; }
+
+    @JsonProperty("isClubEvent")
+    public boolean isClubEvent() { return isClubEvent; }
+
+    public Long getClubId() { return clubId; }
+    public Long getCreatorId() { return creatorId; }
+    public String getCreatorName() { return creatorName; }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+}
@@ -0,0 +1,39 @@
+package com.bilkom.dto;
+
+/**
+ * MailQueueStats is a Data Transfer Object with the counters of the outgoing mail queue.
+ * Latencies are measured from the moment a message is queued until the SMTP server accepts it.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class MailQueueStats {
+    private int queueDepth;
+    private int queueCapacity;
+    private long sent;
+    private long failed;
+    private long retried;
+    private long averageLatencyMillis;
+    private long maxLatencyMillis;
+
+    public MailQueueStats() {}
+
+    public MailQueueStats(int queueDepth, int queueCapacity, long sent, long failed, long retried,
+                          long averageLatencyMillis, long maxLatencyMillis) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.sent = sent;
+        this.failed = failed;
+        this.retried = retried;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public int getQueueDepth() { return queueDepth; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public long getSent() { return sent; }
+    public long getFailed() { return failed; }
+    public long getRetried() { return retried; }
+    public long getAverageLatencyMillis() { return averageLatencyMillis; }
+    public long getMaxLatencyMillis() { return maxLatencyMillis; }
+}
@@ -1,5 +1,7 @@
 package com.bilkom.dto;
 
+import java.io.Serializable;
+
 /**
  * NewsDto is a Data Transfer Object (DTO) that represents news information.
  * It contains the title and link of the news article.
@@ -7,7 +9,9 @@ package com.bilkom.dto;
  * @author Elif Bozkurt
  * @version 1.0
  */
-public class NewsDto {
+public class NewsDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String title;
     private String link;
 
@@ -0,0 +1,52 @@
+package com.bilkom.dto;
+
+import java.util.List;
+
+/**
+ * NotificationReport is a Data Transfer Object summarizing one notification fan-out.
+ * Every requested user ends up in exactly one of the counts. The users whose message failed
+ * are also listed by ID, so the notification can be retried for them alone.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.1
+ */
+public class NotificationReport {
+    private int requested;
+    private int sent;
+    private int failed;
+    private int invalidTokens;
+    private int skipped;
+    private long elapsedMillis;
+    private List<Long> failedUserIds = List.of();
+
+    public NotificationReport() {}
+
+    public NotificationReport(int requested, int sent, int failed, int invalidTokens, int skipped, long elapsedMillis) {
+        this.requested = requested;
+        this.sent = sent;
+        this.failed = failed;
+        this.invalidTokens = invalidTokens;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public NotificationReport(int requested, int sent, int failed, int invalidTokens, int skipped, long elapsedMillis,
+                              List<Long> failedUserIds) {
+        this(requested, sent, failed, invalidTokens, skipped, elapsedMillis);
+        this.failedUserIds = List.copyOf(failedUserIds);
+    }
+
+    public int getRequested() { return requested; }
+    public int getSent() { return sent; }
+    public int getFailed() { return failed; }
+    public int getInvalidTokens() { return invalidTokens; }
+    public int getSkipped() { return skipped; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<Long> getFailedUserIds() { return failedUserIds; }
+
+    @Override
+    public String toString() {
+        return "requested=" + requested + ", sent=" + sent + ", failed=" + failed
+                + ", invalidTokens=" + invalidTokens + ", skipped=" + skipped + ", elapsedMillis=" + elapsedMillis;
+    }
+}
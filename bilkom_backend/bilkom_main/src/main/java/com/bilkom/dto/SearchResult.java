@@ -0,0 +1,40 @@
+package com.bilkom.dto;
+
+import java.sql.Date;
+
+/**
+ * SearchResult is a Data Transfer Object for one hit of the full-text search.
+ * A hit is either an event or a club; fields that only apply to events are null for clubs.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class SearchResult {
+    private String type;
+    private Long id;
+    private String title;
+    private String snippet;
+    private String location;
+    private Date eventDate;
+    private float score;
+
+    public SearchResult() {}
+
+    public SearchResult(String type, Long id, String title, String snippet, String location, Date eventDate, float score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.location = location;
+        this.eventDate = eventDate;
+        this.score = score;
+    }
+
+    public String getType() { return type; }
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getSnippet() { return snippet; }
+    public String getLocation() { return location; }
+    public Date getEventDate() { return eventDate; }
+    public float getScore() { return score; }
+}
@@ -0,0 +1,56 @@
+package com.bilkom.dto;
+
+import com.bilkom.enums.AvatarRelativePaths;
+import com.bilkom.enums.UserRole;
+
+/**
+ * Read-only projection of a user for list endpoints.
+ * Carries only what a list row shows, never credentials, tokens or lazy collections.
+ * Built by a JPQL constructor expression in UserRepository and EventParticipantRepository.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class UserCard {
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private UserRole role;
+    private AvatarRelativePaths avatarPath;
+
+    public UserCard(Long userId, String firstName, String lastName, String email,
+                    UserRole role, AvatarRelativePaths avatarPath) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.role = role;
+        this.avatarPath = avatarPath;
+    }
+
+    //GETTERS
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public AvatarRelativePaths getAvatarPath() {
+        return avatarPath;
+    }
+}
@@ -1,5 +1,7 @@
 package com.bilkom.dto;
 
+import java.io.Serializable;
+
 /**
  * WeatherDto is a Data Transfer Object (DTO) that represents weather information.
  * Contains current weather data for Bilkent/Ankara.
@@ -8,7 +10,9 @@ package com.bilkom.dto;
  * @version 2.0
  * @since 2025-05-09
  */
-public class WeatherDto {
+public class WeatherDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String description;
     private double temperature;
     private double feelsLike;
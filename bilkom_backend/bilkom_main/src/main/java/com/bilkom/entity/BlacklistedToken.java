@@ -0,0 +1,41 @@
+package com.bilkom.entity;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * BlacklistedToken is an entity class representing a JWT token that was revoked before its expiry,
+ * for example on logout. Tokens are stored by the SHA-256 hash of their text, never in full,
+ * and a row is only kept until the token would have expired anyway.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Entity
+@Table(name = "token_blacklist", indexes = {
+    @Index(name = "idx_token_blacklist_expires_at", columnList = "expires_at")
+})
+public class BlacklistedToken {
+    // FIELDS
+    @Id
+    @Column(name = "token_hash", nullable = false, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+
+    // CONSTRUCTORS
+    public BlacklistedToken() {}
+
+    public BlacklistedToken(String tokenHash, Timestamp expiresAt) {
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+    }
+
+    // GETTERS AND SETTERS
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+    public Timestamp getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Timestamp expiresAt) { this.expiresAt = expiresAt; }
+}
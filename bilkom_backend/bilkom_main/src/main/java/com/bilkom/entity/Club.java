@@ -18,11 +18,14 @@ import java.util.List;
 import jakarta.persistence.CascadeType;
 import com.bilkom.enums.ClubRegistrationStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
 @Table(name = "clubs")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clubs")
 public class Club {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -46,6 +49,8 @@ public class Club {
     @Column(name = "is_active", nullable = false, columnDefinition = "BOOLEAN DEFAULT TRUE")
     private boolean isActive = true;
 
+    // Not cached: the ID of ClubMember is made of its associations, and Hibernate can not
+    // evict this collection when a membership is saved on its own
     @OneToMany(mappedBy = "club", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<ClubMember> clubMembers = new ArrayList<>();
@@ -55,6 +60,7 @@ public class Club {
     private List<Event> events = new ArrayList<>();
 
     @OneToMany(mappedBy = "club", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clubs.executives")
     @JsonIgnore
     private List<ClubExecutive> clubExecutives = new ArrayList<>();  
 
@@ -6,11 +6,14 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Column;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.sql.Timestamp;
 import java.util.Objects;
 
 @Entity
 @Table(name = "club_executives")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "club_executives")
 public class ClubExecutive {
 
     @EmbeddedId
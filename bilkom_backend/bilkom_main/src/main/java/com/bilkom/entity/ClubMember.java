@@ -6,6 +6,8 @@ import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.sql.Timestamp;
 import java.util.Objects;
 
@@ -16,6 +18,7 @@ import jakarta.persistence.Column;
 @Entity
 @Table(name = "club_members")
 @IdClass(ClubMemberPK.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "club_members")
 public class ClubMember {  
     @Id
     @ManyToOne
@@ -0,0 +1,47 @@
+package com.bilkom.entity;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * ClubVerificationToken is an entity class representing the token of an admin approval link
+ * sent for a pending club registration. Rows are looked up by token and swept once they expire.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Entity
+@Table(name = "club_verification_tokens", indexes = {
+    @Index(name = "idx_club_verification_tokens_expires_at", columnList = "expires_at")
+})
+public class ClubVerificationToken {
+    // FIELDS
+    @Id
+    @Column(name = "token", nullable = false, columnDefinition = "VARCHAR(64)")
+    private String token;
+
+    @Column(name = "club_id", nullable = false, columnDefinition = "BIGINT")
+    private Long clubId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+
+    // CONSTRUCTORS
+    public ClubVerificationToken() {}
+
+    public ClubVerificationToken(String token, Long clubId, Timestamp expiresAt) {
+        this.token = token;
+        this.clubId = clubId;
+        this.expiresAt = expiresAt;
+    }
+
+    // GETTERS AND SETTERS
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+
+    public Long getClubId() { return clubId; }
+    public void setClubId(Long clubId) { this.clubId = clubId; }
+
+    public Timestamp getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Timestamp expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -7,12 +7,15 @@ import java.util.Date;
  * EmergencyAlert is an entity class representing an emergency alert in the system.
  * It contains information about the alert such as subject, content, blood type, phone number, and sent date.
  * The class also includes methods to extract blood type and phone number from the content.
+ * Alerts read from the mailbox keep the Message-ID of their email, so an email is stored only once.
  *
  * @author Elif Bozkurt
  * @version 1.0
  */
 @Entity
-@Table(name = "emergency_alerts")
+@Table(name = "emergency_alerts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_emergency_alerts_message_id", columnNames = "message_id")
+})
 public class EmergencyAlert {
 
     @Id
@@ -39,6 +42,9 @@ public class EmergencyAlert {
     @Column(name = "is_active", nullable = false)
     private boolean isActive = true;
 
+    @Column(name = "message_id", columnDefinition = "VARCHAR(255)")
+    private String messageId;
+
     public EmergencyAlert() {}
 
     public EmergencyAlert(String subject, String content, Date sentDate) {
@@ -146,6 +152,9 @@ public class EmergencyAlert {
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
 
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
     @Override
     public String toString() {
         return "EmergencyAlert{" +
@@ -8,12 +8,15 @@ import java.sql.Date;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.FetchType;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import jakarta.persistence.CascadeType;
@@ -27,7 +30,11 @@ import jakarta.persistence.CascadeType;
  * @version 1.0
  */
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_active_date", columnList = "is_active, event_date"),
+    @Index(name = "idx_events_date", columnList = "event_date"),
+    @Index(name = "idx_events_creator", columnList = "creator_id")
+})
 public class Event {
     // FIELDS
     @Id
@@ -45,7 +52,8 @@ public class Event {
     @JoinColumn(name = "creator_id", nullable = false, columnDefinition = "BIGINT")
     private User creator;
 
-    @ManyToOne
+    // Only the club ID is read from events, and the proxy answers it without a query
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "club_id", nullable = true)
     @JsonIgnore
     private Club club;
@@ -68,21 +76,25 @@ public class Event {
     @Column(name = "is_active", nullable = false, columnDefinition = "BOOLEAN DEFAULT TRUE")
     private boolean isActive;
 
+    // Tags are serialized with every event, so load them in batches instead of one query per event
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Tag> tags = new ArrayList<>();
 
-    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true, fetch = jakarta.persistence.FetchType.EAGER)
+    // Participants are only needed by a few read paths, which fetch them explicitly
+    // through EventRepository.findWithParticipantsByEventId
+    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<EventParticipant> participants = new ArrayList<>();
 
     @Override
     public String toString() {
-        System.out.println("Calling Event.toString() on eventId: " + eventId);
         return "Event{" +
             "eventId=" + eventId +
             ", eventName=" + eventName +
             ", maxParticipants=" + maxParticipants +
             ", tagCount=" + (tags != null ? tags.size() : 0) +
-            ", participantCount=" + (participants != null ? participants.size() : 0) +
+            ", participantCount=" + currentParticipantsNumber +
             '}';
     }
 
@@ -33,7 +33,6 @@ public class EventParticipant {
 
     @Override
     public String toString() {
-        System.out.println("Calling EventParticipant.toString()");
         return "EventParticipant{" + "user=" + user.getUserId() + "}";
     }
 
@@ -0,0 +1,49 @@
+package com.bilkom.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * EventWaitlistEntry is an entity class representing a user waiting for a seat in a full event.
+ * Entries are served in the order of their generated ID, so the waitlist of an event is FIFO.
+ *
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@Entity
+@Table(name = "event_waitlist", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_event_waitlist_event_user", columnNames = {"event_id", "user_id"})
+}, indexes = {
+    @Index(name = "idx_event_waitlist_event_id", columnList = "event_id, waitlist_id")
+})
+public class EventWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_id", nullable = false, columnDefinition = "BIGINT")
+    private Long waitlistId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private Event event;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    // GETTERS AND SETTERS
+    public Long getWaitlistId() { return waitlistId; }
+    public void setWaitlistId(Long waitlistId) { this.waitlistId = waitlistId; }
+
+    public Event getEvent() { return event; }
+    public void setEvent(Event event) { this.event = event; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public LocalDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
+}
@@ -0,0 +1,53 @@
+package com.bilkom.entity;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * MailSyncCheckpoint is an entity class recording how far a mailbox folder has been read.
+ * UIDs are only meaningful together with the folder's UIDVALIDITY; when the server reports a
+ * different UIDVALIDITY the checkpoint is discarded and the folder is scanned again.
+ *
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@Entity
+@Table(name = "mail_sync_checkpoints")
+public class MailSyncCheckpoint {
+    // FIELDS
+    @Id
+    @Column(name = "folder_name", nullable = false, columnDefinition = "VARCHAR(255)")
+    private String folderName;
+
+    @Column(name = "uid_validity", nullable = false)
+    private long uidValidity;
+
+    @Column(name = "last_uid", nullable = false)
+    private long lastUid;
+
+    @Column(name = "updated_at", nullable = false)
+    private Timestamp updatedAt;
+
+    // CONSTRUCTORS
+    public MailSyncCheckpoint() {}
+
+    public MailSyncCheckpoint(String folderName, long uidValidity, long lastUid) {
+        this.folderName = folderName;
+        this.uidValidity = uidValidity;
+        this.lastUid = lastUid;
+        this.updatedAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    // GETTERS AND SETTERS
+    public String getFolderName() { return folderName; }
+    public void setFolderName(String folderName) { this.folderName = folderName; }
+
+    public long getUidValidity() { return uidValidity; }
+    public void setUidValidity(long uidValidity) { this.uidValidity = uidValidity; }
+
+    public long getLastUid() { return lastUid; }
+    public void setLastUid(long lastUid) { this.lastUid = lastUid; }
+
+    public Timestamp getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Timestamp updatedAt) { this.updatedAt = updatedAt; }
+}
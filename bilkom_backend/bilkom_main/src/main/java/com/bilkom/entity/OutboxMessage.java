@@ -0,0 +1,91 @@
+package com.bilkom.entity;
+
+import com.bilkom.enums.OutboxMessageType;
+import com.bilkom.enums.OutboxStatus;
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * OutboxMessage is an entity class representing an email or push notification waiting to be sent.
+ * It is written in the same transaction as the change that caused it, so the message is sent
+ * if and only if the change commits, and it survives a crash until OutboxDispatcher delivers it.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+    @Index(name = "idx_outbox_messages_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class OutboxMessage {
+    // FIELDS
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "message_id", nullable = false, columnDefinition = "BIGINT")
+    private Long messageId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false, length = 50)
+    private OutboxMessageType type;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+
+    @Column(name = "sent_at")
+    private Timestamp sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // CONSTRUCTORS
+    public OutboxMessage() {}
+
+    public OutboxMessage(OutboxMessageType type, String payload) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    // GETTERS AND SETTERS
+    public Long getMessageId() { return messageId; }
+    public void setMessageId(Long messageId) { this.messageId = messageId; }
+
+    public OutboxMessageType getType() { return type; }
+    public void setType(OutboxMessageType type) { this.type = type; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Timestamp getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Timestamp nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+
+    public Timestamp getSentAt() { return sentAt; }
+    public void setSentAt(Timestamp sentAt) { this.sentAt = sentAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
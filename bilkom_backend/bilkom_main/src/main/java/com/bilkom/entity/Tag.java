@@ -11,6 +11,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tag is an entity class representing a tag associated with an event and a user.
@@ -24,6 +26,7 @@ import jakarta.persistence.JoinColumn;
 @Table(name = "tags", uniqueConstraints = {
     @jakarta.persistence.UniqueConstraint(columnNames = {"tag_name", "event_id"})
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
 public class Tag {
     // FIELDS
     @Id
@@ -45,7 +48,6 @@ public class Tag {
 
     @Override
     public String toString() {
-        System.out.println("Calling Tag.toString() on tagId: " + tagId);
         return "Tag{" + "tagId=" + tagId + ", tagName=" + tagName + "}";
     }
 
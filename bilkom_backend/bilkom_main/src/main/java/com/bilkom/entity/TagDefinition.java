@@ -0,0 +1,42 @@
+package com.bilkom.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * TagDefinition is an entity class representing one distinct tag name in the tag dictionary.
+ * Besides the name, it keeps a counter of how many active events carry the tag, which is maintained
+ * when events are created, deleted or become inactive so popular tags can be read without counting
+ * the tags table.
+ *
+ * @author Elif Bozkurt
+ * @version 1.1
+ */
+@Entity
+@Table(name = "tag_dictionary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tag_dictionary_name", columnNames = {"tag_name"})
+}, indexes = {
+    @Index(name = "idx_tag_dictionary_event_count", columnList = "event_count")
+})
+public class TagDefinition {
+    // FIELDS
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tag_definition_id", nullable = false, columnDefinition = "BIGINT")
+    private Long tagDefinitionId;
+
+    @Column(name = "tag_name", nullable = false, columnDefinition = "VARCHAR(255)")
+    private String tagName;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    // GETTERS AND SETTERS
+    public Long getTagDefinitionId() { return tagDefinitionId; }
+    public void setTagDefinitionId(Long tagDefinitionId) { this.tagDefinitionId = tagDefinitionId; }
+
+    public String getTagName() { return tagName; }
+    public void setTagName(String tagName) { this.tagName = tagName; }
+
+    public long getEventCount() { return eventCount; }
+    public void setEventCount(long eventCount) { this.eventCount = eventCount; }
+}
@@ -5,14 +5,16 @@ import java.time.LocalDateTime;
 
 /**
  * Weather is an entity class representing weather information.
- * It contains fields for description, temperature, icon, and the time the data was retrieved.
- * The class is mapped to a database table named "weather".
+ * Each row is one observation fetched from OpenWeatherMap, with the time it was observed
+ * and the time it was retrieved. The class is mapped to a database table named "weather".
  *
  * @author Elif Bozkurt
- * @version 1.0
+ * @version 1.1
  */
 @Entity
-@Table(name = "weather")
+@Table(name = "weather", indexes = {
+    @Index(name = "idx_weather_retrieved_at", columnList = "retrieved_at")
+})
 public class Weather {
 
     @Id
@@ -23,8 +25,24 @@ public class Weather {
 
     private double temperature;
 
+    @Column(name = "feels_like")
+    private double feelsLike;
+
+    private int humidity;
+
+    @Column(name = "wind_speed")
+    private double windSpeed;
+
+    @Column(name = "wind_direction", length = 3)
+    private String windDirection;
+
     private String icon;
 
+    private String location;
+
+    @Column(name = "observed_at")
+    private LocalDateTime observedAt;
+
     @Column(name = "retrieved_at", nullable = false)
     private LocalDateTime retrievedAt;
 
@@ -44,9 +62,27 @@ public class Weather {
     
     public double getTemperature() { return temperature; }
     public void setTemperature(double temperature) { this.temperature = temperature; }
+
+    public double getFeelsLike() { return feelsLike; }
+    public void setFeelsLike(double feelsLike) { this.feelsLike = feelsLike; }
+
+    public int getHumidity() { return humidity; }
+    public void setHumidity(int humidity) { this.humidity = humidity; }
+
+    public double getWindSpeed() { return windSpeed; }
+    public void setWindSpeed(double windSpeed) { this.windSpeed = windSpeed; }
+
+    public String getWindDirection() { return windDirection; }
+    public void setWindDirection(String windDirection) { this.windDirection = windDirection; }
     
     public String getIcon() { return icon; }
     public void setIcon(String icon) { this.icon = icon; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getObservedAt() { return observedAt; }
+    public void setObservedAt(LocalDateTime observedAt) { this.observedAt = observedAt; }
     
     public LocalDateTime getRetrievedAt() { return retrievedAt; }
     public void setRetrievedAt(LocalDateTime retrievedAt) { this.retrievedAt = retrievedAt; }    
@@ -0,0 +1,16 @@
+package com.bilkom.enums;
+
+/**
+ * Enum representing the kinds of messages kept in the outbox.
+ * Each kind has its own payload, read by OutboxDispatcher when the message is sent.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public enum OutboxMessageType {
+    VERIFICATION_EMAIL,             // to, url
+    PASSWORD_RESET_EMAIL,           // to, url
+    CLUB_REGISTRATION_RESULT_EMAIL, // to, clubName, approved, reason
+    USER_NOTIFICATION,              // userIds, title, body
+    EMERGENCY_ALERT                 // alertId
+}
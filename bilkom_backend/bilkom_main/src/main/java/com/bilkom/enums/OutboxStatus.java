@@ -0,0 +1,13 @@
+package com.bilkom.enums;
+
+/**
+ * Enum representing the state of an outbox message.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public enum OutboxStatus {
+    PENDING, // Waiting to be sent, or to be retried
+    SENT,
+    DEAD     // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,30 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.BlacklistedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * BlacklistedTokenRepository is an interface that extends JpaRepository for performing CRUD operations on BlacklistedToken entities.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Repository
+public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedToken, String> {
+
+    @Query("SELECT b.tokenHash FROM BlacklistedToken b WHERE b.expiresAt > :now")
+    List<String> findActiveTokenHashes(@Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlacklistedToken b WHERE b.expiresAt <= :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
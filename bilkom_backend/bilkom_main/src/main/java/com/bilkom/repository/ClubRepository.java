@@ -4,9 +4,15 @@ package com.bilkom.repository;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bilkom.dto.ClubSummary;
 import com.bilkom.entity.Club;
 import com.bilkom.entity.User;
 import com.bilkom.enums.ClubRegistrationStatus;
@@ -21,16 +27,37 @@ import com.bilkom.enums.ClubRegistrationStatus;
  */
 @Repository
 public interface ClubRepository extends JpaRepository<Club, Long> {
+    /**
+     * Shared projection for list endpoints: builds ClubSummary rows with the head's name
+     * and the active member count, without loading members or executives.
+     */
+    String CLUB_SUMMARY_SELECT = "SELECT new com.bilkom.dto.ClubSummary(c.clubId, c.clubName, c.clubDescription, "
+        + "c.status, c.isActive, c.createdAt, h.userId, h.firstName, h.lastName, "
+        + "(SELECT COUNT(m) FROM ClubMember m WHERE m.club = c AND m.isActive = true)) "
+        + "FROM Club c JOIN c.clubHead h ";
+
     Optional<Club> findByClubName(String clubName); 
     Optional<Club> findByClubId(Long clubId);
     List<Club> findByClubHead(User clubHead);
     boolean existsByClubName(String clubName);
     List<Club> findByStatus(ClubRegistrationStatus status);
+
+    /**
+     * Active clubs, served from the query cache until a club changes.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Club> findByIsActiveTrue();
+
     List<Club> findByIsActiveFalse();
     List<Club> findByIsActiveTrueAndStatus(ClubRegistrationStatus status);
     List<Club> findByIsActiveFalseAndStatus(ClubRegistrationStatus status);
+
+    /**
+     * Clubs by status and active flag, served from the query cache until a club changes.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Club> findByStatusAndIsActive(ClubRegistrationStatus status, boolean isActive);
+
     boolean existsByClubNameIgnoreCase(String clubName);
     
     /**
@@ -57,4 +84,88 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
      * @version 1.0
      */
     boolean existsByClubHeadUserIdAndClubIdNot(Long userId, Long clubId);
+
+    /**
+     * Finds club summaries by status and active flag.
+     *
+     * @param status the club registration status
+     * @param isActive whether the club is active
+     * @return list of matching club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query(CLUB_SUMMARY_SELECT + "WHERE c.status = :status AND c.isActive = :isActive ORDER BY c.clubName")
+    List<ClubSummary> findSummariesByStatusAndIsActive(@Param("status") ClubRegistrationStatus status, @Param("isActive") boolean isActive);
+
+    /**
+     * Finds summaries of all clubs.
+     *
+     * @return list of all club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query(CLUB_SUMMARY_SELECT + "ORDER BY c.clubName")
+    List<ClubSummary> findAllSummaries();
+
+    /**
+     * Finds summaries of the clubs headed by a user.
+     *
+     * @param userId the user ID
+     * @return list of club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query(CLUB_SUMMARY_SELECT + "WHERE h.userId = :userId ORDER BY c.clubName")
+    List<ClubSummary> findSummariesByClubHeadId(@Param("userId") Long userId);
+
+    /**
+     * Finds summaries of the clubs where a user is an active executive.
+     *
+     * @param userId the user ID
+     * @return list of club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query(CLUB_SUMMARY_SELECT + "WHERE c.clubId IN (SELECT ce.club.clubId FROM ClubExecutive ce WHERE ce.user.userId = :userId AND ce.isActive = true) ORDER BY c.clubName")
+    List<ClubSummary> findSummariesByExecutiveId(@Param("userId") Long userId);
+
+    /**
+     * Finds summaries of the clubs where a user is an active member.
+     *
+     * @param userId the user ID
+     * @return list of club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query(CLUB_SUMMARY_SELECT + "WHERE c.clubId IN (SELECT cm.club.clubId FROM ClubMember cm WHERE cm.member.userId = :userId AND cm.isActive = true) ORDER BY c.clubName")
+    List<ClubSummary> findSummariesByMemberId(@Param("userId") Long userId);
+
+    /**
+     * Finds only the IDs of the clubs where a user is an active executive.
+     * 
+     * @param userId The user ID
+     * @return List of club IDs
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query("SELECT ce.club.clubId FROM ClubExecutive ce WHERE ce.user.userId = :userId AND ce.isActive = true")
+    List<Long> findClubIdsByExecutiveId(@Param("userId") Long userId);
+
+    /**
+     * Finds only the IDs of the clubs headed by a user.
+     * 
+     * @param userId The user ID
+     * @return List of club IDs
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query("SELECT c.clubId FROM Club c WHERE c.clubHead.userId = :userId")
+    List<Long> findClubIdsByClubHeadId(@Param("userId") Long userId);
 }
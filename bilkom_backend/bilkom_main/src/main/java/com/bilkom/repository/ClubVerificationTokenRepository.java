@@ -0,0 +1,35 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.ClubVerificationToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * ClubVerificationTokenRepository is an interface that extends JpaRepository for performing CRUD operations on ClubVerificationToken entities.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Repository
+public interface ClubVerificationTokenRepository extends JpaRepository<ClubVerificationToken, String> {
+
+    @Query("SELECT t.clubId FROM ClubVerificationToken t WHERE t.token = :token AND t.expiresAt > :now")
+    Optional<Long> findClubIdByToken(@Param("token") String token, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClubVerificationToken t WHERE t.token = :token")
+    int deleteByToken(@Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClubVerificationToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
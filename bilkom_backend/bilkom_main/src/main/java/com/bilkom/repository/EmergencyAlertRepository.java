@@ -21,5 +21,12 @@ public interface EmergencyAlertRepository extends JpaRepository<EmergencyAlert,
      * @return List of active emergency alerts
      */
     List<EmergencyAlert> findByIsActiveTrue();
-    
+
+    /**
+     * Checks whether an alert was already stored for an email.
+     * 
+     * @param messageId The Message-ID header of the email
+     * @return true if an alert with this Message-ID exists
+     */
+    boolean existsByMessageId(String messageId);
 } 
\ No newline at end of file
@@ -1,12 +1,26 @@
 package com.bilkom.repository;
 
+import com.bilkom.dto.UserCard;
 import com.bilkom.entity.*;
 
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface EventParticipantRepository extends JpaRepository<EventParticipant, EventParticipantPK> {
     boolean existsById(EventParticipantPK pk);
     List<EventParticipant> findByUser(User user);
+
+    @Query("SELECT new com.bilkom.dto.UserCard(u.userId, u.firstName, u.lastName, u.email, u.role, u.avatarPath) "
+        + "FROM EventParticipant p JOIN p.user u WHERE p.event.eventId = :eventId")
+    List<UserCard> findParticipantCardsByEventId(@Param("eventId") Long eventId);
+
+    long countByEventEventId(Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventParticipant p WHERE p.event.eventId = :eventId AND p.user.userId = :userId")
+    int deleteByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId);
 }
\ No newline at end of file
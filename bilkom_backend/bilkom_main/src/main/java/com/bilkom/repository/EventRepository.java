@@ -1,11 +1,32 @@
 package com.bilkom.repository;
 
+import com.bilkom.dto.EventSummary;
 import com.bilkom.entity.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.time.LocalDateTime;
 import java.util.Date;
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventTagQueryRepository {
+    /**
+     * Shared projection for list endpoints: builds EventSummary rows straight from the
+     * events, users and clubs columns without materializing entities.
+     */
+    String EVENT_SUMMARY_SELECT = "SELECT new com.bilkom.dto.EventSummary(e.eventId, e.eventName, e.eventDescription, "
+        + "e.eventLocation, e.eventDate, e.maxParticipants, e.currentParticipantsNumber, e.isActive, e.isClubEvent, "
+        + "c.clubId, u.userId, u.firstName, u.lastName) "
+        + "FROM Event e JOIN e.creator u LEFT JOIN e.club c ";
+
     List<Event> findByClubClubId(Long clubId);
 
     List<Event> findByClubClubIdAndEventDateAfter(Long clubId, LocalDateTime date);
@@ -19,4 +40,155 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event>findByClubClubIdAndEventDateBefore(Long clubId, Date date);
 
     List<Event> findByClubClubIdAndIsActiveTrue(Long clubId);
-}
\ No newline at end of file
+
+    /**
+     * Finds all active events, served by the (is_active, event_date) index.
+     * 
+     * @return List of active events
+     */
+    List<Event> findByIsActiveTrue();
+
+    /**
+     * Takes one seat of an event if there is one left.
+     * The check and the increment happen in a single UPDATE, so the row lock makes
+     * concurrent joins queue up instead of reading the same count.
+     * 
+     * @param eventId The ID of the event
+     * @return 1 if a seat was reserved, 0 if the event is full or does not exist
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipantsNumber = e.currentParticipantsNumber + 1 "
+        + "WHERE e.eventId = :eventId AND e.currentParticipantsNumber < e.maxParticipants")
+    int reserveSeat(@Param("eventId") Long eventId);
+
+    /**
+     * Loads an event and locks its row until the end of the transaction.
+     * Withdrawals and waitlist changes of the same event take this lock first, so they run one at a time.
+     * 
+     * @param eventId The ID of the event
+     * @return Optional containing the locked event
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.eventId = :eventId")
+    Optional<Event> findByIdForUpdate(@Param("eventId") Long eventId);
+
+    /**
+     * Gives back one seat of an event, never going below zero.
+     * 
+     * @param eventId The ID of the event
+     * @return 1 if a seat was released, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipantsNumber = e.currentParticipantsNumber - 1 "
+        + "WHERE e.eventId = :eventId AND e.currentParticipantsNumber > 0")
+    int releaseSeat(@Param("eventId") Long eventId);
+
+    // Batched club event queries for the executive dashboards; the creator, which is serialized, comes in the same
+    // query, and the lazy club is only joined to filter, so neither the clubs nor their heads are loaded
+    String CLUB_EVENTS_SELECT = "SELECT e FROM Event e JOIN e.club c JOIN FETCH e.creator ";
+
+    @Query(CLUB_EVENTS_SELECT + "WHERE c.clubId IN :clubIds")
+    List<Event> findByClubIds(@Param("clubIds") Collection<Long> clubIds);
+
+    @Query(CLUB_EVENTS_SELECT + "WHERE c.clubId IN :clubIds AND e.isActive = true AND e.eventDate >= :today")
+    List<Event> findCurrentByClubIds(@Param("clubIds") Collection<Long> clubIds, @Param("today") Date today);
+
+    @Query(CLUB_EVENTS_SELECT + "WHERE c.clubId IN :clubIds AND (e.isActive = false OR e.eventDate < :today)")
+    List<Event> findPastByClubIds(@Param("clubIds") Collection<Long> clubIds, @Param("today") Date today);
+
+    /**
+     * Locks and returns the next chunk of IDs of active events dated before the given day.
+     * Used by the nightly job, which walks the IDs in order so every chunk is a short transaction.
+     * 
+     * @param today The first day that is not past
+     * @param afterId Only IDs greater than this one are returned
+     * @param pageable Chunk size
+     * @return IDs of the past events still marked active, in ascending order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.eventId FROM Event e WHERE e.isActive = true AND e.eventDate < :today AND e.eventId > :afterId ORDER BY e.eventId ASC")
+    List<Long> findActiveIdsBefore(@Param("today") Date today, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.isActive = false WHERE e.eventId IN :eventIds AND e.isActive = true")
+    int deactivateByIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Finds an event together with its participants and their users in a single query.
+     * Participants are lazy on Event, so this is the read path for code that needs them.
+     * 
+     * @param eventId The ID of the event
+     * @return Optional containing the event with initialized participants
+     */
+    @EntityGraph(attributePaths = {"participants", "participants.user"})
+    Optional<Event> findWithParticipantsByEventId(Long eventId);
+
+    // Summary projections used by the list endpoints
+    @Query(EVENT_SUMMARY_SELECT + "WHERE e.isActive = true ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findActiveSummaries();
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE e.eventId IN (SELECT t.event.eventId FROM Tag t WHERE t.tagName IN :tagNames) ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findSummariesByAnyTagName(@Param("tagNames") List<String> tagNames);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE u.userId = :userId ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findSummariesByCreator(@Param("userId") Long userId);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE e.isActive = false OR e.eventDate < :today ORDER BY e.eventDate DESC, e.eventId DESC")
+    List<EventSummary> findPastSummaries(@Param("today") Date today);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE u.userId = :userId AND (e.isActive = false OR e.eventDate < :today) ORDER BY e.eventDate DESC, e.eventId DESC")
+    List<EventSummary> findPastSummariesByCreator(@Param("userId") Long userId, @Param("today") Date today);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE e.isActive = true AND e.eventId IN (SELECT p.event.eventId FROM EventParticipant p WHERE p.user.userId = :userId) ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findActiveSummariesJoinedBy(@Param("userId") Long userId);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE (e.isActive = false OR e.eventDate < :today) AND e.eventId IN (SELECT p.event.eventId FROM EventParticipant p WHERE p.user.userId = :userId) ORDER BY e.eventDate DESC, e.eventId DESC")
+    List<EventSummary> findPastSummariesJoinedBy(@Param("userId") Long userId, @Param("today") Date today);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE c.clubId = :clubId ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findSummariesByClubId(@Param("clubId") Long clubId);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE c.clubId = :clubId AND e.isActive = true AND e.eventDate >= :today ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findCurrentSummariesByClubId(@Param("clubId") Long clubId, @Param("today") Date today);
+
+    @Query(EVENT_SUMMARY_SELECT + "WHERE c.clubId = :clubId AND (e.isActive = false OR e.eventDate < :today) ORDER BY e.eventDate DESC, e.eventId DESC")
+    List<EventSummary> findPastSummariesByClubId(@Param("clubId") Long clubId, @Param("today") Date today);
+
+    /**
+     * Filters shared by the feed queries: club events are left out if asked, and so are the
+     * events joined by the given user when excludedUserId is not null.
+     */
+    String ACTIVE_FEED_WHERE = "WHERE e.isActive = true AND (:excludeClubEvents = false OR e.isClubEvent = false) "
+        + "AND (:excludedUserId IS NULL OR e.eventId NOT IN "
+        + "(SELECT p.event.eventId FROM EventParticipant p WHERE p.user.userId = :excludedUserId)) ";
+
+    /**
+     * Returns the first slice of the active event feed ordered by (event_date, event_id).
+     * Only a LIMIT is applied, so the read is bounded by the page size.
+     * 
+     * @param excludeClubEvents Whether club events are left out
+     * @param excludedUserId ID of the user whose joined events are left out, or null to keep them
+     * @param pageable Page request carrying the slice size (page number must be 0)
+     * @return The first events of the feed
+     */
+    @Query(EVENT_SUMMARY_SELECT + ACTIVE_FEED_WHERE + "ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findActiveFeed(@Param("excludeClubEvents") boolean excludeClubEvents,
+                                      @Param("excludedUserId") Long excludedUserId, Pageable pageable);
+
+    /**
+     * Returns the slice of the active event feed that comes after the given keyset position.
+     * The (is_active, event_date) index also carries event_id as the primary key suffix,
+     * so the seek stays O(page size) regardless of how deep the client has scrolled.
+     * 
+     * @param eventDate Date of the last event the client has seen
+     * @param eventId ID of the last event the client has seen
+     * @param excludeClubEvents Whether club events are left out
+     * @param excludedUserId ID of the user whose joined events are left out, or null to keep them
+     * @param pageable Page request carrying the slice size (page number must be 0)
+     * @return The next events of the feed
+     */
+    @Query(EVENT_SUMMARY_SELECT + ACTIVE_FEED_WHERE + "AND (e.eventDate > :eventDate OR (e.eventDate = :eventDate AND e.eventId > :eventId)) ORDER BY e.eventDate ASC, e.eventId ASC")
+    List<EventSummary> findActiveFeedAfter(@Param("eventDate") Date eventDate, @Param("eventId") Long eventId,
+                                           @Param("excludeClubEvents") boolean excludeClubEvents,
+                                           @Param("excludedUserId") Long excludedUserId, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.bilkom.repository;
+
+import com.bilkom.dto.EventSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Boolean tag search over events, built as a single query against the tags table.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+public interface EventTagQueryRepository {
+    /**
+     * Finds active events matching a tag expression.
+     * Empty or null collections are ignored.
+     * 
+     * @param allOf Tags every returned event must have (AND)
+     * @param anyOf Tags of which a returned event must have at least one (OR)
+     * @param noneOf Tags no returned event may have (NOT)
+     * @return Summaries of the matching events, ordered by event date
+     */
+    List<EventSummary> findActiveSummariesByTags(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf);
+}
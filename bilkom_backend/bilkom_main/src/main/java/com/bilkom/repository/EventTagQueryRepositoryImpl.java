@@ -0,0 +1,57 @@
+package com.bilkom.repository;
+
+import com.bilkom.dto.EventSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of EventTagQueryRepository.
+ * Each tag condition becomes a subquery on the (tag_name, event_id) index of the tags table,
+ * so the database only touches the events that carry the requested tags.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+public class EventTagQueryRepositoryImpl implements EventTagQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventSummary> findActiveSummariesByTags(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf) {
+        boolean hasAll = allOf != null && !allOf.isEmpty();
+        boolean hasAny = anyOf != null && !anyOf.isEmpty();
+        boolean hasNone = noneOf != null && !noneOf.isEmpty();
+
+        StringBuilder jpql = new StringBuilder(EventRepository.EVENT_SUMMARY_SELECT).append("WHERE e.isActive = true");
+        if (hasAll) {
+            jpql.append(" AND e.eventId IN (SELECT t.event.eventId FROM Tag t WHERE t.event IS NOT NULL AND t.tagName IN :allOf")
+                .append(" GROUP BY t.event.eventId HAVING COUNT(DISTINCT t.tagName) = :allCount)");
+        }
+        if (hasAny) {
+            jpql.append(" AND e.eventId IN (SELECT t.event.eventId FROM Tag t WHERE t.event IS NOT NULL AND t.tagName IN :anyOf)");
+        }
+        if (hasNone) {
+            jpql.append(" AND e.eventId NOT IN (SELECT t.event.eventId FROM Tag t WHERE t.event IS NOT NULL AND t.tagName IN :noneOf)");
+        }
+        jpql.append(" ORDER BY e.eventDate ASC, e.eventId ASC");
+
+        TypedQuery<EventSummary> query = entityManager.createQuery(jpql.toString(), EventSummary.class);
+        if (hasAll) {
+            query.setParameter("allOf", allOf);
+            query.setParameter("allCount", (long) allOf.size());
+        }
+        if (hasAny) {
+            query.setParameter("anyOf", anyOf);
+        }
+        if (hasNone) {
+            query.setParameter("noneOf", noneOf);
+        }
+        return query.getResultList();
+    }
+}
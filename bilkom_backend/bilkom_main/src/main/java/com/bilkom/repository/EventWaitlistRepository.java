@@ -0,0 +1,47 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.EventWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * EventWaitlistRepository is an interface that extends JpaRepository for performing CRUD operations on EventWaitlistEntry entities.
+ * The head of an event's waitlist is the entry with the smallest ID.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@Repository
+public interface EventWaitlistRepository extends JpaRepository<EventWaitlistEntry, Long> {
+    boolean existsByEventEventIdAndUserUserId(Long eventId, Long userId);
+
+    Optional<EventWaitlistEntry> findByEventEventIdAndUserUserId(Long eventId, Long userId);
+
+    Optional<EventWaitlistEntry> findFirstByEventEventIdOrderByWaitlistIdAsc(Long eventId);
+
+    long countByEventEventIdAndWaitlistIdLessThanEqual(Long eventId, Long waitlistId);
+
+    long countByEventEventId(Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.waitlistId = :waitlistId")
+    int deleteByWaitlistId(@Param("waitlistId") Long waitlistId);
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.event.eventId = :eventId AND w.user.userId = :userId")
+    int deleteByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.event.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.event.eventId IN :eventIds")
+    int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
+}
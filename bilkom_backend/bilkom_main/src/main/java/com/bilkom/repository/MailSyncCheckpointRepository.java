@@ -0,0 +1,15 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.MailSyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * MailSyncCheckpointRepository is an interface that extends JpaRepository for performing CRUD operations on MailSyncCheckpoint entities.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@Repository
+public interface MailSyncCheckpointRepository extends JpaRepository<MailSyncCheckpoint, String> {
+}
@@ -0,0 +1,46 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.OutboxMessage;
+import com.bilkom.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * OutboxMessageRepository is an interface that extends JpaRepository for performing CRUD operations on OutboxMessage entities.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Locks the oldest pending messages that are due.
+     * Rows already locked by another instance are skipped, so concurrent dispatchers claim disjoint batches.
+     * 
+     * @param now The current time
+     * @param pageable Batch size
+     * @return The claimed messages, oldest first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = com.bilkom.enums.OutboxStatus.PENDING AND m.nextAttemptAt <= :now ORDER BY m.messageId ASC")
+    List<OutboxMessage> findDueForUpdate(@Param("now") Timestamp now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = com.bilkom.enums.OutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") Timestamp before);
+}
@@ -0,0 +1,82 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.TagDefinition;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TagDefinitionRepository is an interface that extends JpaRepository for performing CRUD operations on TagDefinition entities.
+ * The counter updates are single statements so concurrent event creation never loses a count.
+ * The native updates declare the table they change; otherwise Hibernate would clear the whole
+ * second-level cache after each of them.
+ * 
+ * @author Elif Bozkurt
+ * @version 1.1
+ */
+@Repository
+public interface TagDefinitionRepository extends JpaRepository<TagDefinition, Long> {
+    Optional<TagDefinition> findByTagName(String tagName);
+
+    List<TagDefinition> findByEventCountGreaterThanOrderByTagNameAsc(long eventCount);
+
+    List<TagDefinition> findByEventCountGreaterThanOrderByEventCountDescTagNameAsc(long eventCount, Pageable pageable);
+
+    /**
+     * Adds a tag to the dictionary with a count of one, or increments its count if it is already there.
+     * 
+     * @param tagName The tag name
+     * @return Number of affected rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tag_dictionary"))
+    @Query(value = "INSERT INTO tag_dictionary (tag_name, event_count) VALUES (:tagName, 1) "
+        + "ON DUPLICATE KEY UPDATE event_count = event_count + 1", nativeQuery = true)
+    int incrementEventCount(@Param("tagName") String tagName);
+
+    /**
+     * Decrements the counts of the given tags, never going below zero.
+     * 
+     * @param tagNames The tag names
+     * @return Number of affected rows
+     */
+    @Modifying
+    @Query("UPDATE TagDefinition d SET d.eventCount = d.eventCount - 1 WHERE d.tagName IN :tagNames AND d.eventCount > 0")
+    int decrementEventCounts(@Param("tagNames") Collection<String> tagNames);
+
+    /**
+     * Decrements the count of a tag by the given number, never going below zero.
+     * 
+     * @param tagName The tag name
+     * @param count How many events to remove from the count
+     * @return Number of affected rows
+     */
+    @Modifying
+    @Query("UPDATE TagDefinition d SET d.eventCount = CASE WHEN d.eventCount > :count THEN d.eventCount - :count ELSE 0 END "
+        + "WHERE d.tagName = :tagName")
+    int decrementEventCount(@Param("tagName") String tagName, @Param("count") long count);
+
+    /**
+     * Recomputes every counter from the tags of active events, adding dictionary rows for tags that are missing.
+     * 
+     * @return Number of affected rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tag_dictionary"))
+    @Query(value = "INSERT INTO tag_dictionary (tag_name, event_count) "
+        + "SELECT t.tag_name, COUNT(DISTINCT t.event_id) FROM tags t JOIN events e ON e.event_id = t.event_id "
+        + "WHERE e.is_active = TRUE GROUP BY t.tag_name "
+        + "ON DUPLICATE KEY UPDATE event_count = VALUES(event_count)", nativeQuery = true)
+    int rebuildEventCounts();
+}
@@ -2,6 +2,9 @@ package com.bilkom.repository;
 
 import com.bilkom.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -14,4 +17,30 @@ import java.util.List;
  */
 public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByTagNameIn(List<String> names);
+
+    /**
+     * Projection row pairing an event ID with one of its tag names.
+     */
+    interface EventTagName {
+        Long getEventId();
+        String getTagName();
+    }
+
+    /**
+     * Loads the tag names of many events in a single query.
+     * 
+     * @param eventIds IDs of the events
+     * @return One row per (event, tag) pair
+     */
+    @Query("SELECT t.event.eventId AS eventId, t.tagName AS tagName FROM Tag t WHERE t.event.eventId IN :eventIds")
+    List<EventTagName> findTagNamesByEventIds(@Param("eventIds") List<Long> eventIds);
+
+    /**
+     * Converts tag names stored before names were lower-cased.
+     * 
+     * @return Number of affected rows
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.tagName = LOWER(t.tagName)")
+    int lowerCaseTagNames();
 }
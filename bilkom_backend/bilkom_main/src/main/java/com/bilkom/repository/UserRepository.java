@@ -1,9 +1,11 @@
 package com.bilkom.repository;
 
+import com.bilkom.dto.UserCard;
 import com.bilkom.entity.User;
 import com.bilkom.enums.UserRole;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -153,4 +155,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @version 1.0
      */
     List<User> findByRole(UserRole role);
-}
\ No newline at end of file
+
+    /**
+     * Lists all users as lightweight cards, without credentials or collections.
+     * 
+     * @return list of user cards ordered by name
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Query("SELECT new com.bilkom.dto.UserCard(u.userId, u.firstName, u.lastName, u.email, u.role, u.avatarPath) "
+        + "FROM User u ORDER BY u.firstName, u.lastName")
+    List<UserCard> findAllCards();
+}
@@ -0,0 +1,43 @@
+package com.bilkom.repository;
+
+import com.bilkom.entity.Weather;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * WeatherRepository is an interface that extends JpaRepository for performing CRUD operations on Weather entities.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Repository
+public interface WeatherRepository extends JpaRepository<Weather, Long> {
+
+    /**
+     * Finds the most recently retrieved observation, served by the retrieved_at index.
+     * 
+     * @return The latest observation, if any
+     */
+    Optional<Weather> findTopByOrderByRetrievedAtDesc();
+
+    /**
+     * Finds the observations retrieved after the given time, oldest first.
+     * 
+     * @param since The start of the period
+     * @return The observations of the period
+     */
+    List<Weather> findByRetrievedAtAfterOrderByRetrievedAtAsc(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Weather w WHERE w.retrievedAt < :before")
+    int deleteRetrievedBefore(@Param("before") LocalDateTime before);
+}
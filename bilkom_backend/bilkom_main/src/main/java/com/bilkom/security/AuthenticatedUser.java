@@ -0,0 +1,105 @@
+package com.bilkom.security;
+
+import com.bilkom.entity.User;
+import com.bilkom.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Principal of a request authenticated with a JWT token.
+ * Holds only what authorization needs, so it can be cached and shared between requests;
+ * it carries no password.
+ *
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final UserRole role;
+    private final boolean active;
+    private final boolean verified;
+    private final Collection<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long userId, String email, UserRole role, boolean active, boolean verified) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+        this.verified = verified;
+        this.authorities = Collections.singleton(new SimpleGrantedAuthority(role.getSpringSecurityRole()));
+    }
+
+    /**
+     * Creates the principal of the given user.
+     *
+     * @param user The user
+     * @return The principal
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getUserId(), user.getEmail(), user.getRole(), user.isActive(), user.isVerified());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active && verified;
+    }
+}
@@ -1,13 +1,16 @@
 package com.bilkom.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,9 +24,10 @@ import jakarta.servlet.http.HttpServletResponse;
 /**
  * JWT Authentication Filter for securing endpoints.
  * Extracts and validates JWT token from HTTP request headers.
+ * The time spent authenticating each request is recorded in bilkom.auth.jwt, tagged with the outcome.
  * 
  * @author Mert Uzun
- * @version 1.0
+ * @version 1.1
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -34,7 +38,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserAuthorityCache userAuthorityCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     /**
      * Filters incoming requests to check for JWT token in the Authorization header.
@@ -42,7 +49,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * This method is called for every request to the application.
      * 
      * @author Elif Bozkurt
-     * @version 2.0
+     * @version 2.1
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -55,21 +62,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
+            Optional<Claims> claims = jwt != null ? jwtUtils.validateAndParse(jwt) : Optional.empty();
+            if (jwt != null && claims.isEmpty()) {
+                outcome = "rejected";
+            }
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Served from the authority cache, so repeated requests need no database lookup
+                AuthenticatedUser principal = userAuthorityCache.getPrincipal(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+                    principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "authenticated";
             }
         } catch (Exception e) {
+            outcome = "error";
             logger.error("Cannot set user authentication: {}", e.getMessage());
         }
+        sample.stop(meterRegistry.timer("bilkom.auth.jwt", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
@@ -12,29 +12,71 @@ import org.springframework.stereotype.Component;
 
 import com.bilkom.service.TokenBlacklistService;
 
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.security.Key;
 
 /**
  * Utility methods for JWT token generation and validation.
+ * Tokens are signed with HS256, so jwt.secret must be at least 32 bytes (256 bits) long.
  * 
  * @author Mert Uzun
- * @version 1.0
+ * @version 1.1
  */
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    private static final int MIN_SECRET_BYTES = 32;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
     
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    // Built once from the secret; both are immutable and safe to share between threads
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Verified claims by SHA-256 of the token, each entry living until its token expires.
+    // Reads take no lock; when the cache is full an arbitrary entry makes room for the new one.
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {}
+
+    /**
+     * Builds the signing key and the parser after the properties are injected.
+     * 
+     * @throws IllegalStateException if jwt.secret is missing or shorter than 32 bytes
+     * 
+     * @author Mert Uzun
+     * @version 1.1
+     */
+    @PostConstruct
+    public void init() {
+        byte[] secret = jwtSecret == null ? new byte[0] : jwtSecret.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("jwt.secret must be at least " + MIN_SECRET_BYTES
+                    + " bytes (256 bits) long to sign tokens with HS256, but it is " + secret.length + " bytes");
+        }
+        signingKey = Keys.hmacShaKeyFor(secret);
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     /**
      * Generates a JWT token for the given user details.
      *
@@ -58,30 +100,31 @@ public class JwtUtils {
      * @version 1.0
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody().getSubject();
+        return parseClaims(token).getSubject();
     }
 
     /**
-     * Validates token authenticity and checks expiration.
-     * Also checks if the token has been blacklisted.
+     * Validates a token and returns its claims in one step.
+     * The signature of a token is verified only the first time it is seen; afterwards its claims
+     * come from the cache until the token expires. The blacklist is checked on every call.
+     * The returned claims are shared and must not be modified.
      *
      * @param token Input JWT token string
-     * @return true if the token is valid and not blacklisted
+     * @return The verified claims, or empty if the token is invalid, expired or blacklisted
      * 
      * @author Mert Uzun
      * @version 1.0
      */
-    public boolean validateToken(String token) {
+    public Optional<Claims> validateAndParse(String token) {
         try {
             // First check if token is blacklisted
             if (tokenBlacklistService.isBlacklisted(token)) {
                 logger.info("Token is blacklisted");
-                return false;
+                return Optional.empty();
             }
             
             // Then proceed with normal validation
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(parseClaims(token));
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -94,7 +137,21 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * Validates token authenticity and checks expiration.
+     * Also checks if the token has been blacklisted.
+     *
+     * @param token Input JWT token string
+     * @return true if the token is valid and not blacklisted
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public boolean validateToken(String token) {
+        return validateAndParse(token).isPresent();
     }
     
     /**
@@ -107,10 +164,11 @@ public class JwtUtils {
      */
     public void blacklistToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+            Claims claims = parseClaims(token);
             
             long expiryTime = claims.getExpiration().getTime();
             tokenBlacklistService.blacklistToken(token, expiryTime);
+            claimsCache.remove(hash(token));
             logger.info("Token blacklisted until {}", new Date(expiryTime));
         } catch (Exception e) {
             logger.error("Error blacklisting token: {}", e.getMessage());
@@ -127,7 +185,59 @@ public class JwtUtils {
      * @version 1.0
      */
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody().getExpiration();
+        return parseClaims(token).getExpiration();
+    }
+    
+    /**
+     * Drops cached claims of tokens that have expired.
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void evictExpiredClaims() {
+        long now = System.currentTimeMillis();
+        claimsCache.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+    }
+
+    /**
+     * Returns the verified claims of a token, from the cache if the token was seen before.
+     *
+     * @param token Input JWT token string
+     * @return The verified claims
+     * @throws JwtException if the token is invalid or expired
+     */
+    private Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                return cached.claims();
+            }
+            claimsCache.remove(key);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (claimsCache.size() >= claimsCacheMaxSize) {
+                Iterator<String> keys = claimsCache.keySet().iterator();
+                if (keys.hasNext()) {
+                    claimsCache.remove(keys.next());
+                }
+            }
+            claimsCache.put(key, new CachedClaims(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    private static String hash(String token) {
+        return TokenBlacklistService.hashToken(token);
     }
     
     /**
@@ -139,6 +249,6 @@ public class JwtUtils {
      * @version 1.0
      */
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.bilkom.security;
+
+import com.bilkom.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of request principals by email.
+ * Lets JwtAuthenticationFilter authenticate repeated requests of a user without a database
+ * round-trip. Services that change a user's role, active or verified flag invalidate the
+ * entry; any other change becomes visible once the entry expires.
+ *
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Component
+public class UserAuthorityCache {
+
+    @Value("${bilkom.security.authority-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${bilkom.security.authority-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    private record CachedPrincipal(AuthenticatedUser principal, long expiresAtMillis) {}
+
+    /**
+     * Returns the principal of the user with the given email, loading it when it is not cached.
+     *
+     * @param email The email of the user
+     * @return The principal
+     * @throws UsernameNotFoundException if the user is not found
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public AuthenticatedUser getPrincipal(String email) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && now < cached.expiresAtMillis()) {
+            return cached.principal();
+        }
+
+        AuthenticatedUser principal = userRepository.findByEmail(email)
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+
+        // When full, make room by dropping expired entries; if that is not enough, skip caching
+        if (principals.size() >= maxSize) {
+            evictExpired();
+        }
+        if (principals.size() < maxSize) {
+            principals.put(email, new CachedPrincipal(principal, now + ttlMillis));
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal of a user so that the next request sees its current state.
+     * Inside a transaction the entry is dropped once it commits; dropping it earlier would let
+     * a concurrent request cache the state that is about to change.
+     *
+     * @param email The email of the user
+     *
+     * @author Mert Uzun
+     * @version 1.1
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.remove(email);
+                }
+            });
+        } else {
+            principals.remove(email);
+        }
+    }
+
+    /**
+     * Drops cached principals that have expired.
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+    }
+}
@@ -13,11 +13,13 @@ import com.bilkom.repository.ClubExecutiveRepository;
 import com.bilkom.repository.ClubMemberRepository;
 import com.bilkom.repository.ClubRepository;
 import com.bilkom.repository.UserRepository;
+import com.bilkom.security.UserAuthorityCache;
 
 import java.sql.Timestamp;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,7 +45,10 @@ public class AdminVerificationService {
     private UserRepository userRepository;
     
     @Autowired
-    private EmailService emailService;
+    private UserAuthorityCache userAuthorityCache;
+    
+    @Autowired
+    private OutboxService outboxService;
     
     @Autowired
     private ClubRegistrationService clubRegistrationService;
@@ -57,8 +62,9 @@ public class AdminVerificationService {
      * @throws BadRequestException if club is not found, token is invalid, or club is not pending
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO approveClub(Long clubId, String token) {
         System.out.println("[DEBUG] Approving club ID: " + clubId + " with token: " + token);
@@ -88,6 +94,7 @@ public class AdminVerificationService {
         if (clubHead.getRole() == UserRole.USER) {
             clubHead.setRole(UserRole.CLUB_HEAD);
             userRepository.save(clubHead);
+            userAuthorityCache.invalidate(clubHead.getEmail());
             System.out.println("[DEBUG] Club head promoted to CLUB_HEAD.");
         }
 
@@ -123,9 +130,8 @@ public class AdminVerificationService {
             System.out.println("[DEBUG] ClubMember already exists and is active.");
         }
 
-        // Step 8: Send confirmation email
-        emailService.sendClubRegistrationResultEmail(clubHead.getEmail(), club.getClubName(), true, null);
-        System.out.println("[DEBUG] Email sent to club head.");
+        // Step 8: Queue confirmation email
+        outboxService.enqueueClubRegistrationResultEmail(clubHead.getEmail(), club.getClubName(), true, null);
 
         // Step 9: Remove verification token
         clubRegistrationService.removeToken(token);
@@ -145,8 +151,9 @@ public class AdminVerificationService {
      * @throws BadRequestException if club is not found, token is invalid, or club is not pending
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO rejectClub(Long clubId, String token, String reason) {
         // Verify token
@@ -180,11 +187,12 @@ public class AdminVerificationService {
             if (otherActiveClubsCount == 0) {
                 clubHead.setRole(UserRole.USER);
                 userRepository.save(clubHead);
+                userAuthorityCache.invalidate(clubHead.getEmail());
             }
         }
         
-        // Send notification email to club head
-        emailService.sendClubRegistrationResultEmail(
+        // Queue notification email to club head
+        outboxService.enqueueClubRegistrationResultEmail(
                 clubHead.getEmail(), club.getClubName(), false, reason);
         
         // Remove token
@@ -8,13 +8,19 @@ import com.bilkom.enums.UserRole;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.UserRepository;
 import com.bilkom.security.JwtUtils;
+import com.bilkom.security.UserAuthorityCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.util.Arrays;
@@ -25,6 +31,7 @@ import java.util.UUID;
 
 @Service
 public class AuthService {
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
 
     @Autowired
     private UserRepository userRepository;
@@ -36,10 +43,16 @@ public class AuthService {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private EmailService emailService;
+    private OutboxService outboxService;
     
     @Autowired
     private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     // Valid blood types
     private static final Set<String> VALID_BLOOD_TYPES = new HashSet<>(
@@ -60,6 +73,8 @@ public class AuthService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
+    @Transactional
     public AuthResponse register(RegistrationRequest request) {
         // Check if email already exists
         Optional<User> existingUserOpt = userRepository.findByEmail(request.getEmail());
@@ -121,9 +136,9 @@ public class AuthService {
         
         userRepository.save(user);
         
-        // Send verification email
+        // Queue verification email
         String verificationUrl = "http://192.168.231.145:8080/api/auth/verify?token=" + verificationToken;
-        emailService.sendVerificationEmail(user.getEmail(), verificationUrl);
+        outboxService.enqueueVerificationEmail(user.getEmail(), verificationUrl);
         
         return new AuthResponse(true, "Registration successful. Please check your email to verify your account.");
     }
@@ -138,27 +153,23 @@ public class AuthService {
      * @version 1.0
      */
     public AuthResponse login(LoginRequest request) {
-        System.out.println("Login requested for: " + request.getEmail());
-
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
 
-            System.out.println("Authentication succeeded");
-
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
             User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new BadRequestException("User not found"));
 
             if (!user.isVerified()) {
-                System.out.println("User not verified");
+                countLogin("unverified");
                 throw new BadRequestException("Please verify your email before logging in");
             }
 
             if (!user.isActive()) {
-                System.out.println("User is deactivated");
+                countLogin("deactivated");
                 throw new BadRequestException("Your account has been deactivated. Contact an administrator.");
             }
 
@@ -166,16 +177,22 @@ public class AuthService {
             userRepository.save(user);
 
             String jwt = jwtUtils.generateToken(userDetails);
+            countLogin("success");
 
             return new AuthResponse(true, "Login successful", jwt, user.getUserId());
 
         } catch (BadRequestException e) {
             throw e;
         } catch (Exception e) {
-            System.out.println("Authentication failed: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+            log.debug("Authentication failed for {}: {}", request.getEmail(), e.getMessage());
+            countLogin("failed");
             throw new BadRequestException("Invalid email or password");
         }
     }
+
+    private void countLogin(String outcome) {
+        meterRegistry.counter("bilkom.auth.logins", "outcome", outcome).increment();
+    }
     
     /**
      * Logs out a user by blacklisting their token.
@@ -256,6 +273,7 @@ public class AuthService {
         user.setVerified(true);
         user.setVerificationToken(null);
         userRepository.save(user);
+        userAuthorityCache.invalidate(user.getEmail());
         
         return true;
     }
@@ -269,6 +287,7 @@ public class AuthService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @Transactional
     public boolean requestPasswordReset(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new BadRequestException("Email not found"));
@@ -277,9 +296,9 @@ public class AuthService {
         user.setVerificationToken(resetToken);
         userRepository.save(user);
         
-        // Send password reset email
+        // Queue password reset email
         String resetUrl = "http://192.168.231.145:8080/api/reset-password-form?token=" + resetToken;
-        sendPasswordResetEmail(user.getEmail(), resetUrl);
+        outboxService.enqueuePasswordResetEmail(user.getEmail(), resetUrl);
         
         return true;
     }
@@ -320,11 +339,14 @@ public class AuthService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public User updateUserRole(Long userId, UserRole role) {
         User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
         
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userAuthorityCache.invalidate(saved.getEmail());
+        return saved;
     }
     
     /**
@@ -337,13 +359,16 @@ public class AuthService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public User promoteToClubHead(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
         
         // Only promote regular users
         if (user.getRole() == UserRole.USER) {
             user.setRole(UserRole.CLUB_HEAD);
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            userAuthorityCache.invalidate(saved.getEmail());
+            return saved;
         }
         
         return user;
@@ -359,20 +384,18 @@ public class AuthService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public User promoteToClubExecutive(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
         
         // Only promote regular users
         if (user.getRole() == UserRole.USER) {
             user.setRole(UserRole.CLUB_EXECUTIVE);
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            userAuthorityCache.invalidate(saved.getEmail());
+            return saved;
         }
         
         return user;
     }
-    
-    private void sendPasswordResetEmail(String email, String resetUrl) {
-        // Using EmailService to send password reset email
-        emailService.sendPasswordResetEmail(email, resetUrl);
-    }
 }
\ No newline at end of file
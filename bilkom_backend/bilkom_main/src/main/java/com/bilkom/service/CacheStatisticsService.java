@@ -0,0 +1,68 @@
+package com.bilkom.service;
+
+import com.bilkom.dto.CacheStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for reading the hit, miss and eviction counters of the application caches
+ * and of the Hibernate second-level and query cache regions.
+ * The caches publish their statistics as JCache MXBeans, which are read here.
+ *
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Service
+public class CacheStatisticsService {
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsService.class);
+
+    @Autowired
+    private CacheManager jCacheManager;
+
+    /**
+     * Gets the statistics of every application cache.
+     *
+     * @return List of cache statistics, one per cache
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public List<CacheStats> getCacheStats() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<CacheStats> stats = new ArrayList<>();
+        for (String cacheName : jCacheManager.getCacheNames()) {
+            try {
+                ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                        + sanitize(jCacheManager.getURI().toString()) + ",Cache=" + sanitize(cacheName));
+                if (!server.isRegistered(name)) {
+                    continue;
+                }
+                CacheStatisticsMXBean bean = JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+                stats.add(new CacheStats(cacheName, bean.getCacheHits(), bean.getCacheMisses(),
+                        bean.getCacheHitPercentage(), bean.getCachePuts(), bean.getCacheRemovals(),
+                        bean.getCacheEvictions(), bean.getAverageGetTime()));
+            } catch (MalformedObjectNameException e) {
+                logger.warn("No statistics for cache {}", cacheName, e);
+            }
+        }
+        return stats;
+    }
+
+    // Same escaping the JCache provider applies when it registers the MXBeans
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replaceAll("[,:=\n]", ".");
+    }
+}
@@ -10,8 +10,10 @@ import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.ClubExecutiveRepository;
 import com.bilkom.repository.ClubRepository;
 import com.bilkom.repository.UserRepository;
+import com.bilkom.security.UserAuthorityCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,6 +39,9 @@ public class ClubExecutiveService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+    
     @Autowired
     private ClubService clubService;
 
@@ -108,8 +113,9 @@ public class ClubExecutiveService {
      * @throws BadRequestException if club or user is not found or user is already an executive
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubExecutiveDTO addExecutive(Long clubId, Long userId, String position) {
         // Check if user already has a role higher than CLUB_EXECUTIVE
@@ -120,6 +126,7 @@ public class ClubExecutiveService {
             // Promote to CLUB_EXECUTIVE role
             user.setRole(UserRole.CLUB_EXECUTIVE);
             userRepository.save(user);
+            userAuthorityCache.invalidate(user.getEmail());
         }
         
         // Add as executive
@@ -140,6 +147,7 @@ public class ClubExecutiveService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubExecutiveDTO updateExecutivePosition(Long userId, Long clubId, String newPosition) {
         // Find the executive
@@ -169,8 +177,9 @@ public class ClubExecutiveService {
      * @throws BadRequestException if club or user is not found or user is the club head
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public void removeExecutive(Long userId, Long clubId) {
         Club club = findClubById(clubId);
@@ -197,6 +206,7 @@ public class ClubExecutiveService {
                 // Demote to regular user
                 user.setRole(UserRole.USER);
                 userRepository.save(user);
+                userAuthorityCache.invalidate(user.getEmail());
             }
         }
     }
@@ -213,6 +223,7 @@ public class ClubExecutiveService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubExecutiveDTO reactivateExecutive(Long userId, Long clubId, String position) {
         
@@ -9,6 +9,7 @@ import com.bilkom.repository.ClubMemberRepository;
 import com.bilkom.repository.ClubRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -103,6 +104,7 @@ public class ClubMemberService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubMemberDTO addMember(Long clubId, Long userId) {
         ClubMember member = clubService.addClubMember(clubId, userId);
@@ -119,6 +121,7 @@ public class ClubMemberService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public List<ClubMemberDTO> addMembers(Long clubId, List<Long> userIds) {
         return userIds.stream().filter(userId -> !clubMemberRepository.existsByMemberUserIdAndClubClubIdAndIsActiveTrue(userId, clubId)).map(userId -> {
@@ -143,6 +146,7 @@ public class ClubMemberService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public void removeMember(Long clubId, Long userId) {
         clubService.removeClubMember(clubId, userId);
@@ -159,6 +163,7 @@ public class ClubMemberService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubMemberDTO reactivateMember(Long userId, Long clubId) {
         
@@ -9,10 +9,13 @@ import com.bilkom.enums.UserRole;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.ClubRepository;
 import com.bilkom.repository.UserRepository;
+import com.bilkom.security.UserAuthorityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,10 +24,7 @@ import jakarta.annotation.PostConstruct;
 
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for club registration functionality including submission, verification, approval, and rejection.
@@ -42,21 +42,24 @@ public class ClubRegistrationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @Autowired
     private EmailService emailService;
     
     @Autowired
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
-    // Store verification tokens temporarily (in a real production app, these should be in a database)
-    private final Map<String, Long> verificationTokens = new ConcurrentHashMap<>();
-    private final Map<String, Long> expirationTimes = new ConcurrentHashMap<>();
+    // Approval link tokens, shared by every instance so the link works on any of them
+    @Autowired
+    private VerificationTokenStore verificationTokenStore;
     
     @Value("${club.registration.token.expiration:86400000}") // Default 24 hours in milliseconds
     private long tokenExpirationMs;
     
     /**
-     * Initialize the service and ensure token maps are never null
+     * Logs the token expiration the service runs with.
      */
     @PostConstruct
     public void init() {
@@ -141,6 +144,7 @@ public class ClubRegistrationService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO registerClub(ClubRegistrationRequestDTO request) throws MessagingException {
         // Check if club name is available
@@ -163,17 +167,10 @@ public class ClubRegistrationService {
         
         club = clubRepository.save(club);
         
-        // Generate a verification token
-        String token = generateVerificationToken(club.getClubId());
-        
-        // Send verification email directly to admin (returns the same verification token)
+        // Send verification email directly to admin and keep the token its links carry
         String verificationToken = emailService.sendClubRegistrationVerificationEmail(request, executiveUser, club.getClubId());
-        
-        // Store the new token in our map if it's different from what we generated
-        if (!token.equals(verificationToken)) {
-            verificationTokens.put(verificationToken, club.getClubId());
-            long expirationTime = System.currentTimeMillis() + tokenExpirationMs;
-            expirationTimes.put(verificationToken, expirationTime);
+        if (verificationToken != null) {
+            storeVerificationToken(verificationToken, club.getClubId());
         }
         
         // Notify admin of new club registration
@@ -205,6 +202,7 @@ public class ClubRegistrationService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO verifyClubRegistration(String token) {
         Long clubId = getClubIdByToken(token);
@@ -241,8 +239,9 @@ public class ClubRegistrationService {
      * @throws BadRequestException if the club is not in pending status
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO approveClubRegistration(Long clubId, Long adminUserId) {
         // Verify admin
@@ -269,6 +268,7 @@ public class ClubRegistrationService {
         User clubHead = club.getClubHead();
         clubHead.setRole(UserRole.CLUB_HEAD);
         userRepository.save(clubHead);
+        userAuthorityCache.invalidate(clubHead.getEmail());
         
         // Notify the club head
         notifyClubHead(club, "Club Registration Approved", 
@@ -290,6 +290,7 @@ public class ClubRegistrationService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO rejectClubRegistration(Long clubId, Long adminUserId, String reason) {
         // Verify admin
@@ -332,27 +333,7 @@ public class ClubRegistrationService {
      * @version 1.0
      */
     public Long getClubIdByToken(String token) {
-        // Check if token exists
-        if (!verificationTokens.containsKey(token)) {
-            log.debug("Token {} not found in verificationTokens map", token);
-            return null;
-        }
-        
-        // Check if token is expired
-        Long clubId = verificationTokens.get(token);
-        
-        // Only check expiration if the map is not empty
-        if (expirationTimes != null && !expirationTimes.isEmpty() && expirationTimes.containsKey(token)) {
-            long expirationTime = expirationTimes.getOrDefault(token, 0L);
-            if (expirationTime < System.currentTimeMillis()) {
-                // Remove expired token
-                log.debug("Token {} expired, removing", token);
-                removeToken(token);
-                return null;
-            }
-        }
-        
-        return clubId;
+        return verificationTokenStore.findClubId(token).orElse(null);
     }
     
     /**
@@ -364,10 +345,7 @@ public class ClubRegistrationService {
      * @version 1.0
      */
     public void removeToken(String token) {
-        verificationTokens.remove(token);
-        if (expirationTimes != null) {
-            expirationTimes.remove(token);
-        }
+        verificationTokenStore.remove(token);
     }
     
     /**
@@ -382,34 +360,38 @@ public class ClubRegistrationService {
      */
     public void setTestToken(String token, Long clubId) {
         log.debug("Setting test token {} for club {}", token, clubId);
-        verificationTokens.put(token, clubId);
-        if (expirationTimes != null) {
-            expirationTimes.put(token, System.currentTimeMillis() + tokenExpirationMs);
+        storeVerificationToken(token, clubId);
+    }
+    
+    /**
+     * Deletes verification tokens that expired, so abandoned registrations do not pile up.
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(fixedDelayString = "${club.registration.token.sweep-interval:3600000}")
+    public void sweepExpiredTokens() {
+        int removed = verificationTokenStore.removeExpired();
+        if (removed > 0) {
+            log.info("Removed {} expired club verification tokens", removed);
         }
     }
     
     /**
-     * Generates a verification token for a club.
+     * Stores a verification token for a club, valid for the configured expiration time.
      * 
+     * @param token The token
      * @param clubId The ID of the club
-     * @return The generated token
      * 
      * @author Mert Uzun
      * @version 1.0
      */
-    private String generateVerificationToken(Long clubId) {
-        String token = UUID.randomUUID().toString();
-        verificationTokens.put(token, clubId);
-        
-        // Set expiration time (24 hours from now)
-        long expirationTime = System.currentTimeMillis() + tokenExpirationMs;
-        expirationTimes.put(token, expirationTime);
-        
-        return token;
+    private void storeVerificationToken(String token, Long clubId) {
+        verificationTokenStore.save(token, clubId, System.currentTimeMillis() + tokenExpirationMs);
     }
     
     /**
-     * Notifies administrators of a new club registration.
+     * Queues a notification to administrators of a new club registration.
      * 
      * @param club The newly registered club
      * 
@@ -424,12 +406,12 @@ public class ClubRegistrationService {
         String title = "New Club Registration";
         String body = "A new club '" + club.getClubName() + "' has been registered and is waiting for approval.";
         
-        notificationService.sendNotificationToUsers(admins, title, body);
-        log.info("Notified {} admins of new club registration: {}", admins.size(), club.getClubName());
+        outboxService.enqueueNotification(admins, title, body);
+        log.info("Queued notification to {} admins of new club registration: {}", admins.size(), club.getClubName());
     }
     
     /**
-     * Notifies the club head of registration status changes.
+     * Queues a notification and a result email to the club head on registration status changes.
      * 
      * @param club The club
      * @param title The notification title
@@ -441,19 +423,15 @@ public class ClubRegistrationService {
     private void notifyClubHead(Club club, String title, String body) {
         User clubHead = club.getClubHead();
         if (clubHead != null) {
-            // Send notification
-            notificationService.sendNotificationToUser(clubHead, title, body);
+            // Queue notification
+            outboxService.enqueueNotification(clubHead, title, body);
             
-            // Also send email - use the admin-targeting method for result emails
-            try {
-                boolean isApproved = club.getStatus() == ClubRegistrationStatus.APPROVED;
-                String reason = isApproved ? null : body.substring(body.indexOf("Reason:") + 8).trim();
-                emailService.sendClubRegistrationResultEmail(clubHead.getEmail(), club.getClubName(), isApproved, reason);
-            } catch (Exception e) {
-                log.error("Failed to send email to club head: {}", e.getMessage(), e);
-            }
+            // Also queue the result email
+            boolean isApproved = club.getStatus() == ClubRegistrationStatus.APPROVED;
+            String reason = isApproved ? null : body.substring(body.indexOf("Reason:") + 8).trim();
+            outboxService.enqueueClubRegistrationResultEmail(clubHead.getEmail(), club.getClubName(), isApproved, reason);
             
-            log.info("Notified club head of status change for club: {}", club.getClubName());
+            log.info("Queued notification to club head of status change for club: {}", club.getClubName());
         }
     }
     
@@ -2,6 +2,7 @@ package com.bilkom.service;
 
 import com.bilkom.dto.ClubDTO;
 import com.bilkom.dto.ClubRegistrationRequestDTO;
+import com.bilkom.dto.ClubSummary;
 import com.bilkom.entity.Club;
 import com.bilkom.entity.ClubExecutive;
 import com.bilkom.entity.ClubMember;
@@ -13,8 +14,11 @@ import com.bilkom.repository.ClubExecutiveRepository;
 import com.bilkom.repository.ClubMemberRepository;
 import com.bilkom.repository.ClubRepository;
 import com.bilkom.repository.UserRepository;
+import com.bilkom.security.UserAuthorityCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +30,8 @@ import java.util.stream.Collectors;
 /**
  * Service class for club-related operations.
  * Handles CRUD operations, club registration, and verification.
+ * Club lookups and the public club lists are cached in clubCache, which every club,
+ * member and executive change clears.
  * 
  * @author Mert Uzun
  * @version 1.0
@@ -39,6 +45,9 @@ public class ClubService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @Autowired
     private ClubExecutiveRepository clubExecutiveRepository;
 
@@ -51,6 +60,9 @@ public class ClubService {
     @Autowired
     private AdminVerificationService adminVerificationService;
 
+    @Autowired
+    private SearchIndex searchIndex;
+
     /**
      * Retrieves all clubs.
      * 
@@ -83,6 +95,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @Cacheable(value = "clubCache", key = "'approved'")
     public List<ClubDTO> getApprovedClubs() {
         return clubRepository.findByStatusAndIsActive(ClubRegistrationStatus.APPROVED, true).stream().map(ClubDTO::new)
                 .collect(Collectors.toList());
@@ -110,6 +123,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @Cacheable(value = "clubCache", key = "#clubId")
     public ClubDTO getClubById(Long clubId) {
         Club club = findClubById(clubId);
         return new ClubDTO(club);
@@ -157,6 +171,76 @@ public class ClubService {
                 .map(member -> new ClubDTO(member.getClub())).collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves summaries of all clubs.
+     * Unlike getAllClubs, this does not load heads, executives or members.
+     * 
+     * @return List of club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Cacheable(value = "clubCache", key = "'allSummaries'")
+    public List<ClubSummary> getAllClubSummaries() {
+        return clubRepository.findAllSummaries();
+    }
+
+    /**
+     * Retrieves summaries of approved and active clubs.
+     * 
+     * @return List of approved and active club summaries
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Cacheable(value = "clubCache", key = "'approvedSummaries'")
+    public List<ClubSummary> getApprovedClubSummaries() {
+        return clubRepository.findSummariesByStatusAndIsActive(ClubRegistrationStatus.APPROVED, true);
+    }
+
+    /**
+     * Retrieves summaries of clubs where a user is the club head.
+     * 
+     * @param userId The user ID
+     * @return List of club summaries headed by the user
+     * @throws BadRequestException if user is not found
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public List<ClubSummary> getClubSummariesByHeadId(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new BadRequestException("User not found");
+        }
+        return clubRepository.findSummariesByClubHeadId(userId);
+    }
+
+    /**
+     * Retrieves summaries of clubs where a user is an active executive.
+     * 
+     * @param userId The user ID
+     * @return List of club summaries where the user is an executive
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public List<ClubSummary> getClubSummariesByExecutiveId(Long userId) {
+        return clubRepository.findSummariesByExecutiveId(userId);
+    }
+
+    /**
+     * Retrieves summaries of clubs where a user is an active member.
+     * 
+     * @param userId The user ID
+     * @return List of club summaries where the user is a member
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public List<ClubSummary> getClubSummariesByMemberId(Long userId) {
+        return clubRepository.findSummariesByMemberId(userId);
+    }
+
     /**
      * Creates a new club with direct approval.
      * Don't use this method for club registration, use registerClub instead.
@@ -168,8 +252,9 @@ public class ClubService {
      * @throws BadRequestException if club name is already taken
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO createClub(String clubName, String clubDescription, Long clubHeadId) {
         // Check if club name is already taken
@@ -183,6 +268,7 @@ public class ClubService {
         if (clubHead.getRole() != UserRole.ADMIN) {
             clubHead.setRole(UserRole.CLUB_HEAD);
             userRepository.save(clubHead);
+            userAuthorityCache.invalidate(clubHead.getEmail());
         }
 
         // Create the club
@@ -192,6 +278,7 @@ public class ClubService {
 
         // Add club head as executive and member
         addClubExecutive(club.getClubId(), clubHeadId, "Club Head");
+        searchIndex.indexClub(club);
 
         return new ClubDTO(club);
     }
@@ -208,6 +295,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO updateClub(Long clubId, String clubName, String clubDescription) {
         Club club = findClubById(clubId);
@@ -227,6 +315,7 @@ public class ClubService {
 
         // Save and return updated club
         club = clubRepository.save(club);
+        searchIndex.indexClub(club);
 
         return new ClubDTO(club);
     }
@@ -240,8 +329,9 @@ public class ClubService {
      * @throws BadRequestException if club or user is not found
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO changeClubHead(Long clubId, Long newHeadId) {
         Club club = findClubById(clubId);
@@ -277,6 +367,7 @@ public class ClubService {
         if (newHead.getRole() != UserRole.CLUB_HEAD && newHead.getRole() != UserRole.ADMIN) {
             newHead.setRole(UserRole.CLUB_HEAD);
             userRepository.save(newHead);
+            userAuthorityCache.invalidate(newHead.getEmail());
         }
 
         // Update club head
@@ -306,6 +397,7 @@ public class ClubService {
             if (previousHead.getRole() == UserRole.CLUB_HEAD) {
                 previousHead.setRole(UserRole.CLUB_EXECUTIVE);
                 userRepository.save(previousHead);
+                userAuthorityCache.invalidate(previousHead.getEmail());
             }
         }
 
@@ -322,11 +414,13 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO deactivateClub(Long clubId) {
         Club club = findClubById(clubId);
         club.setActive(false);
         club = clubRepository.save(club);
+        searchIndex.indexClub(club);
         return new ClubDTO(club);
     }
 
@@ -340,11 +434,13 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO reactivateClub(Long clubId) {
         Club club = findClubById(clubId);
         club.setActive(true);
         club = clubRepository.save(club);
+        searchIndex.indexClub(club);
         return new ClubDTO(club);
     }
 
@@ -361,6 +457,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubExecutive addClubExecutive(Long clubId, Long userId, String position) {
         Club club = findClubById(clubId);
@@ -390,8 +487,9 @@ public class ClubService {
      *                             head
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public void removeClubExecutive(Long clubId, Long userId) {
         Club club = findClubById(clubId);
@@ -421,6 +519,7 @@ public class ClubService {
                 // Demote to regular user
                 user.setRole(UserRole.USER);
                 userRepository.save(user);
+                userAuthorityCache.invalidate(user.getEmail());
             }
         }
     }
@@ -437,6 +536,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubMember addClubMember(Long clubId, Long userId) {
         Club club = findClubById(clubId);
@@ -463,6 +563,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public void removeClubMember(Long clubId, Long userId) {
         Club club = findClubById(clubId);
@@ -500,6 +601,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO registerClub(ClubRegistrationRequestDTO request) throws MessagingException {
         return clubRegistrationService.registerClub(request);
@@ -518,9 +620,12 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO approveClub(Long clubId, String token) {
-        return adminVerificationService.approveClub(clubId, token);
+        ClubDTO approved = adminVerificationService.approveClub(clubId, token);
+        searchIndex.indexClub(findClubById(clubId));
+        return approved;
     }
 
     /**
@@ -537,6 +642,7 @@ public class ClubService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "clubCache", allEntries = true)
     @Transactional
     public ClubDTO rejectClub(Long clubId, String token, String reason) {
         return adminVerificationService.rejectClub(clubId, token, reason);
@@ -600,11 +706,13 @@ public class ClubService {
                 .orElseThrow(() -> new BadRequestException("User not found with ID: " + userId));
     }
 
+    @CacheEvict(value = "clubCache", allEntries = true)
     public void deleteClub(Long id) {
         Club club = clubRepository.findById(id)
                 .orElseThrow(() -> new BadRequestException("Club not found with ID: " + id));
         club.setActive(false);
         club.setActive(false);
         clubRepository.save(club);
+        searchIndex.removeClub(id);
     }
 }
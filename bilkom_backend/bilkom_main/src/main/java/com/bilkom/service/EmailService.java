@@ -3,6 +3,8 @@ package com.bilkom.service;
 import com.bilkom.dto.ClubRegistrationRequestDTO;
 import com.bilkom.entity.User;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -14,22 +16,33 @@ import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Service for sending various types of emails in the application.
+ * Messages are handed to the MailQueue and sent in the background, so callers do not wait on SMTP.
+ * The HTML templates are parsed once at startup and served from the template cache afterwards.
  * 
  * @author Mert Uzun
  * @version 1.0
  */
 @Service
 public class EmailService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+    // Templates rendered for outgoing emails, parsed when the service starts
+    private static final List<String> EMAIL_TEMPLATES = List.of("password-reset-mail", "club-registration-verification");
 
     @Autowired
     private JavaMailSender mailSender;
+
+    @Autowired
+    private MailQueue mailQueue;
     
     @Value("${bilkom.admin.email}")
     private String adminEmail;
@@ -55,11 +68,29 @@ public class EmailService {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
         templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
         
         this.templateEngine = new SpringTemplateEngine();
         ((SpringTemplateEngine) this.templateEngine).setTemplateResolver(templateResolver);
     }
 
+    /**
+     * Parses the email templates so the first email of each kind does not pay for it.
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @PostConstruct
+    public void warmUpTemplates() {
+        for (String template : EMAIL_TEMPLATES) {
+            try {
+                templateEngine.process(template, new Context());
+            } catch (RuntimeException e) {
+                logger.warn("Could not pre-load email template {}", template, e);
+            }
+        }
+    }
+
     /**
      * Sends a verification email to a user for account verification.
      * 
@@ -77,7 +108,7 @@ public class EmailService {
                         + "Please click the link below to verify your email address:\n" 
                         + verificationUrl + "\n\n" 
                         + "If you did not request this, please ignore this email.");
-        mailSender.send(message);
+        mailQueue.submit(message);
     }
     
     /**
@@ -100,7 +131,7 @@ public class EmailService {
                 + resetUrl + "\n\n" 
                 + "If you did not request a password reset, please ignore this email or contact support if you have concerns.");
             
-            mailSender.send(message);
+            mailQueue.submit(message);
             return;
         }
         
@@ -119,7 +150,7 @@ public class EmailService {
             helper.setSubject("Reset your Bilkom password");
             helper.setText(emailContent, true); // true indicates HTML content
             
-            mailSender.send(mimeMessage);
+            mailQueue.submit(mimeMessage);
         } catch (MessagingException e) {
             // Fallback to simple text email if HTML email fails
             SimpleMailMessage message = new SimpleMailMessage();
@@ -130,7 +161,7 @@ public class EmailService {
                 + resetUrl + "\n\n" 
                 + "If you did not request a password reset, please ignore this email or contact support if you have concerns.");
             
-            mailSender.send(message);
+            mailQueue.submit(message);
         }
     }
     
@@ -162,7 +193,7 @@ public class EmailService {
             message.setText("New club registration from " + executiveUser.getEmail() + " for " + registrationRequest.getClubName() + "\n\n" +
                      "Approve: " + approveUrl + "\n\n" +
                      "Reject: " + rejectUrl);
-            mailSender.send(message);
+            mailQueue.submit(message);
             return verificationToken;
         }
         
@@ -190,7 +221,7 @@ public class EmailService {
         helper.setSubject("New Club Registration: " + registrationRequest.getClubName());
         helper.setText(emailContent, true); // true indicates HTML content
         
-        mailSender.send(mimeMessage);
+        mailQueue.submit(mimeMessage);
         
         return verificationToken;
     }
@@ -230,7 +261,7 @@ public class EmailService {
                         + "The Bilkom Team");
             }
             
-            mailSender.send(message);
+            mailQueue.submit(message);
             return;
         }
         
@@ -310,7 +341,7 @@ public class EmailService {
             helper.setSubject(approved ? "Club Registration Approved: " + clubName : "Club Registration Rejected: " + clubName);
             helper.setText(htmlContent, true); // true indicates HTML content
             
-            mailSender.send(mimeMessage);
+            mailQueue.submit(mimeMessage);
         } catch (MessagingException e) {
             // Fallback to simple text email if HTML email fails
             SimpleMailMessage message = new SimpleMailMessage();
@@ -335,7 +366,7 @@ public class EmailService {
                         + "The Bilkom Team");
             }
             
-            mailSender.send(message);
+            mailQueue.submit(message);
         }
     }
 
@@ -354,6 +385,6 @@ public class EmailService {
         message.setTo(to);
         message.setSubject(subject);
         message.setText(text);
-        mailSender.send(message);
+        mailQueue.submit(message);
     }
 }
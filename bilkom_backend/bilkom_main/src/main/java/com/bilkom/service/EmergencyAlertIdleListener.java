@@ -0,0 +1,222 @@
+package com.bilkom.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Folder;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Store;
+import jakarta.mail.event.MessageCountAdapter;
+import jakarta.mail.event.MessageCountEvent;
+
+import org.eclipse.angus.mail.imap.IMAPFolder;
+import org.eclipse.angus.mail.imap.IMAPStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Listens for new emergency alert emails over IMAP IDLE, so alerts are read within seconds of arriving.
+ * It holds its own connection to the alert folder and, whenever the server reports new messages,
+ * runs the incremental sync of EmergencyAlertService. The IDLE command is renewed every
+ * bilkom.alerts.imap.idle.renew-ms, before servers drop idle connections.
+ *
+ * When the connection is lost it reconnects with exponential backoff. While it is not connected,
+ * and for good if the server does not support IDLE, the scheduled poll of EmergencyAlertService
+ * picks up the alerts instead.
+ *
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@Service
+public class EmergencyAlertIdleListener {
+    private static final Logger log = LoggerFactory.getLogger(EmergencyAlertIdleListener.class);
+
+    @Autowired
+    private EmergencyAlertService emergencyAlertService;
+
+    @Value("${bilkom.alerts.imap.idle.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${bilkom.alerts.imap.idle.renew-ms:540000}")
+    private long renewMs = 540000;
+
+    @Value("${bilkom.alerts.imap.idle.reconnect.initial-delay-ms:1000}")
+    private long initialReconnectDelayMs = 1000;
+
+    @Value("${bilkom.alerts.imap.idle.reconnect.max-delay-ms:300000}")
+    private long maxReconnectDelayMs = 300000;
+
+    private volatile boolean running;
+    private volatile Folder idleFolder;
+    private Thread listenerThread;
+
+    // Runs the syncs and the IDLE renewals, off the listener thread
+    private ScheduledExecutorService helper;
+    private final AtomicBoolean syncPending = new AtomicBoolean();
+
+    /**
+     * Starts listening when IDLE ingestion is enabled.
+     *
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("IMAP IDLE ingestion is disabled, emergency alerts are polled");
+            return;
+        }
+        running = true;
+        helper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "imap-idle-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        listenerThread = new Thread(this::listen, "imap-idle");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Stops listening and closes the IDLE connection.
+     *
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeFolder(idleFolder);
+        listenerThread.interrupt();
+        helper.shutdownNow();
+        emergencyAlertService.setPushIngestionActive(false);
+    }
+
+    private void listen() {
+        long reconnectDelayMs = initialReconnectDelayMs;
+        while (running) {
+            Store store = null;
+            ScheduledFuture<?> renewal = null;
+            try {
+                store = emergencyAlertService.connectStore();
+                if (!(store instanceof IMAPStore imapStore) || !imapStore.hasCapability("IDLE")) {
+                    log.warn("IMAP server does not support IDLE, emergency alerts are polled");
+                    running = false;
+                    return;
+                }
+
+                IMAPFolder folder = (IMAPFolder) store.getFolder(emergencyAlertService.getFolderName());
+                folder.addMessageCountListener(new MessageCountAdapter() {
+                    @Override
+                    public void messagesAdded(MessageCountEvent e) {
+                        requestSync();
+                    }
+                });
+                folder.open(Folder.READ_ONLY);
+                idleFolder = folder;
+                renewal = helper.scheduleWithFixedDelay(() -> renewIdle(folder), renewMs, renewMs, TimeUnit.MILLISECONDS);
+
+                emergencyAlertService.setPushIngestionActive(true);
+                reconnectDelayMs = initialReconnectDelayMs;
+                log.info("Listening for emergency alerts with IMAP IDLE");
+
+                // Catch up on anything that arrived while not listening
+                requestSync();
+                while (running && folder.isOpen()) {
+                    // Returns after the server reports a change or the IDLE is renewed
+                    folder.idle();
+                }
+            } catch (MessagingException | RuntimeException e) {
+                if (running) {
+                    log.warn("IMAP IDLE connection lost: {}", e.getMessage());
+                }
+            } finally {
+                emergencyAlertService.setPushIngestionActive(false);
+                if (renewal != null) {
+                    renewal.cancel(false);
+                }
+                closeFolder(idleFolder);
+                idleFolder = null;
+                closeStore(store);
+            }
+
+            if (running) {
+                // Full jitter, so several instances do not reconnect in step
+                long delay = ThreadLocalRandom.current().nextLong(reconnectDelayMs / 2, reconnectDelayMs + 1);
+                log.info("Reconnecting IMAP IDLE in {} ms, polling meanwhile", delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectDelayMs = Math.min(maxReconnectDelayMs, reconnectDelayMs * 2);
+            }
+        }
+    }
+
+    /**
+     * Runs a sync on the helper thread, merging requests that arrive while one is waiting.
+     */
+    private void requestSync() {
+        if (syncPending.compareAndSet(false, true)) {
+            helper.execute(() -> {
+                syncPending.set(false);
+                try {
+                    int found = emergencyAlertService.fetchEmergencyAlerts().size();
+                    log.info("IMAP IDLE sync found {} emergency alerts", found);
+                } catch (RuntimeException e) {
+                    log.error("IMAP IDLE sync failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Ends the current IDLE with a NOOP; the listener then issues a new one.
+     * A dead connection shows up here as an error, which ends the IDLE loop.
+     */
+    private void renewIdle(IMAPFolder folder) {
+        try {
+            folder.doCommand(protocol -> {
+                protocol.noop();
+                return null;
+            });
+        } catch (MessagingException e) {
+            log.warn("Could not renew IMAP IDLE: {}", e.getMessage());
+            closeFolder(folder);
+        }
+    }
+
+    private void closeFolder(Folder folder) {
+        try {
+            if (folder != null && folder.isOpen()) {
+                folder.close(false);
+            }
+        } catch (MessagingException e) {
+            log.debug("Error while closing IDLE folder: {}", e.getMessage());
+        }
+    }
+
+    private void closeStore(Store store) {
+        try {
+            if (store != null) {
+                store.close();
+            }
+        } catch (MessagingException e) {
+            log.debug("Error while closing IDLE store: {}", e.getMessage());
+        }
+    }
+}
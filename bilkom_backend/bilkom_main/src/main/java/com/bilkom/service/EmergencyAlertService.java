@@ -1,19 +1,34 @@
 package com.bilkom.service;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.*;
+import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.eclipse.angus.mail.imap.IMAPFolder;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bilkom.dto.NotificationReport;
 import com.bilkom.entity.EmergencyAlert;
+import com.bilkom.entity.MailSyncCheckpoint;
 import com.bilkom.entity.User;
+import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.EmergencyAlertRepository;
+import com.bilkom.repository.MailSyncCheckpointRepository;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
 
@@ -25,7 +40,8 @@ import java.time.temporal.ChronoUnit;
 
 /**
  * Service for fetching and processing emergency alerts from Gmail.
- * It connects to the Gmail IMAP server, retrieves messages, and sends notifications to users based on blood type.
+ * It keeps a connection to the Gmail IMAP server, reads new messages incrementally, and sends notifications
+ * to users based on blood type.
  * 
  * @author Elif Bozkurt
  * @version 1.0
@@ -33,6 +49,7 @@ import java.time.temporal.ChronoUnit;
 @Service
 public class EmergencyAlertService {
     private static final Logger log = LoggerFactory.getLogger(EmergencyAlertService.class);
+    private static final String ALERT_SUBJECT = "ACİL KAN İHTİYACI";
 
     @Autowired
     private UserService userService;
@@ -43,11 +60,45 @@ public class EmergencyAlertService {
     @Autowired
     private EmergencyAlertRepository emergencyAlertRepository;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MailSyncCheckpointRepository mailSyncCheckpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${spring.mail.username}")
     private String email;
 
     @Value("${spring.mail.password}")
     private String appPassword;
+
+    @Value("${bilkom.alerts.imap.protocol:imaps}")
+    private String imapProtocol = "imaps";
+
+    @Value("${bilkom.alerts.imap.host:imap.gmail.com}")
+    private String imapHost = "imap.gmail.com";
+
+    @Value("${bilkom.alerts.imap.port:993}")
+    private int imapPort = 993;
+
+    @Value("${bilkom.alerts.imap.folder:[Gmail]/All Mail}")
+    private String folderName = "[Gmail]/All Mail";
+
+    // Number of recent messages read when the folder has no usable checkpoint
+    @Value("${bilkom.alerts.imap.initial-scan:500}")
+    private int initialScanSize = 500;
+
+    // Connection kept open between fetches, guarded by this service's monitor
+    private Store store;
+    private Folder folder;
+
+    private volatile boolean pushIngestionActive;
     
     /**
      * Gets all emergency alerts from the repository.
@@ -68,13 +119,15 @@ public class EmergencyAlertService {
     }
     
     /**
-     * Creates a new emergency alert and notifies matching users.
+     * Creates a new emergency alert and queues the notification of matching users.
+     * The alert and its outbox message are saved in one transaction.
      * 
      * @param subject The alert subject
      * @param content The alert content
      * @param bloodType The required blood type
      * @return The created EmergencyAlert object
      */
+    @Transactional
     public EmergencyAlert createEmergencyAlert(String subject, String content, String bloodType) {
         EmergencyAlert alert = new EmergencyAlert();
         alert.setSubject(subject);
@@ -86,102 +139,301 @@ public class EmergencyAlertService {
         // Save the alert
         alert = emergencyAlertRepository.save(alert);
         
-        // Notify users with matching blood type
-        if (bloodType != null && !bloodType.isEmpty()) {
-            List<User> matchingUsers = userService.getUsersByBloodType(bloodType);
-            for (User user : matchingUsers) {
-                if (user.getFcmToken() != null && !user.getFcmToken().isEmpty()) {
-                    notificationService.sendFcm(
-                            user.getFcmToken(),
-                            bloodType + " BLOOD NEEDED",
-                            content + "\n\n");
-                    log.info("Notified {} for blood type {}", user.getEmail(), bloodType);
-                }
-            }
-        }
+        // Queue the notification of users with matching blood type
+        outboxService.enqueueEmergencyAlert(alert.getAlertId());
         
         return alert;
     }
 
     /**
-     * Fetches emergency alerts from Gmail and sends notifications to users based on blood type.
+     * Notifies the users whose blood type matches an alert.
+     * Called by OutboxDispatcher for queued alerts; the messages go out in parallel on the
+     * notification fan-out pool and this method returns once every message is handled.
      * 
-     * @return List of EmergencyAlert objects
+     * @param alertId The ID of the saved alert
+     * @return The outcome of the notification
+     * @throws BadRequestException if the alert does not exist
      * 
      * @author Elif Bozkurt
      * @version 1.0
      */
-    public List<EmergencyAlert> fetchEmergencyAlerts() {
-        List<EmergencyAlert> result = new ArrayList<>();
+    public NotificationReport notifyDonors(Long alertId) {
+        return notifyDonors(alertId, null);
+    }
 
-        Properties props = new Properties();
-        props.put("mail.store.protocol", "imaps");
-        props.put("mail.imaps.host", "imap.gmail.com");
-        props.put("mail.imaps.port", "993");
-        props.put("mail.imaps.ssl.enable", "true");
+    /**
+     * Notifies the users whose blood type matches an alert, limited to the given users.
+     * Used to retry the donors whose notification failed, without notifying the others again.
+     * 
+     * @param alertId The ID of the saved alert
+     * @param userIds The IDs of the donors to notify, or null for all of them
+     * @return The outcome of the notification
+     * @throws BadRequestException if the alert does not exist
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    public NotificationReport notifyDonors(Long alertId, Collection<Long> userIds) {
+        EmergencyAlert alert = emergencyAlertRepository.findById(alertId)
+                .orElseThrow(() -> new BadRequestException("Emergency alert not found: " + alertId));
+        String bloodType = alert.getBloodType();
+        if (bloodType == null || bloodType.isEmpty()) {
+            return new NotificationReport(0, 0, 0, 0, 0, 0);
+        }
+        
+        List<User> matchingUsers = userService.getUsersByBloodType(bloodType);
+        if (userIds != null) {
+            matchingUsers = matchingUsers.stream()
+                    .filter(user -> userIds.contains(user.getUserId()))
+                    .toList();
+        }
+        NotificationReport report = notificationService
+                .fanOut(matchingUsers, bloodType + " BLOOD NEEDED", alert.getContent() + "\n\n")
+                .join();
+        log.info("Notified donors of alert {} for blood type {}: {}", alertId, bloodType, report);
+        return report;
+    }
+
+    /**
+     * Fetches new emergency alerts from Gmail and queues notifications to users based on blood type.
+     * Only messages with a UID above the stored checkpoint are read, and only their envelopes are
+     * downloaded unless the subject matches. An email whose Message-ID is already stored is skipped,
+     * so an alert is never saved or notified twice. Each alert is saved together with its outbox message.
+     * The IMAP connection stays open between calls and is reopened when the server drops it.
+     * Each call is timed in bilkom.alerts.sync, and the alerts it creates are counted in bilkom.alerts.created.
+     * 
+     * @return List of EmergencyAlert objects created by this call
+     * 
+     * @author Elif Bozkurt
+     * @version 2.1
+     */
+    public synchronized List<EmergencyAlert> fetchEmergencyAlerts() {
+        List<EmergencyAlert> result = new ArrayList<>();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
 
         try {
-            Session session = Session.getInstance(props, null);
-            Store store = session.getStore();
-            store.connect("imap.gmail.com", email, appPassword);
+            Folder inbox = openFolder();
+            UIDFolder uidFolder = (UIDFolder) inbox;
+            long uidValidity = uidFolder.getUIDValidity();
+            MailSyncCheckpoint checkpoint = mailSyncCheckpointRepository.findById(folderName)
+                    .filter(c -> c.getUidValidity() == uidValidity)
+                    .orElse(null);
 
-            Folder inbox = store.getFolder("[Gmail]/All Mail");
-            inbox.open(Folder.READ_ONLY);
+            Message[] messages;
+            if (checkpoint == null) {
+                // First sync, or the server renumbered the folder: scan the most recent messages once
+                int count = inbox.getMessageCount();
+                int start = Math.max(1, count - initialScanSize);
+                messages = count == 0 ? new Message[0] : inbox.getMessages(start, count);
+                checkpoint = new MailSyncCheckpoint(folderName, uidValidity, 0);
+            } else {
+                // Ping the open folder so the server reports messages that arrived since the last fetch
+                if (inbox instanceof IMAPFolder imapFolder) {
+                    imapFolder.doCommand(protocol -> {
+                        protocol.noop();
+                        return null;
+                    });
+                }
+                messages = uidFolder.getMessagesByUID(checkpoint.getLastUid() + 1, UIDFolder.LASTUID);
+            }
 
-            int count = inbox.getMessageCount();
-            int start = Math.max(1, count - 500);
-            Message[] messages = inbox.getMessages(start, count);
+            FetchProfile profile = new FetchProfile();
+            profile.add(FetchProfile.Item.ENVELOPE);
+            profile.add(UIDFolder.FetchProfileItem.UID);
+            inbox.fetch(messages, profile);
 
             Date cutoff = Date.from(Instant.now().minus(48, ChronoUnit.HOURS));
-
-            for (Message message : messages) {
-                Date sentDate = message.getSentDate();
-                if (sentDate == null || sentDate.before(cutoff)) {
-                    continue;
-                }
-
-                String subject = message.getSubject();
-                if (subject != null && subject.contains("ACİL KAN İHTİYACI")) {
-                    String content = getTextFromMessage(message);
-                    EmergencyAlert emergencyAlert = new EmergencyAlert(subject, content, sentDate);
-                    
-                    // Save the alert to the database
-                    emergencyAlert = emergencyAlertRepository.save(emergencyAlert);
-                    result.add(emergencyAlert);
-
-                    String bloodType = emergencyAlert.getBloodType();
-                    if (bloodType != null && !bloodType.isEmpty()) {
-                        List<User> matchingUsers = userService.getUsersByBloodType(bloodType);
-                        for (User user : matchingUsers) {
-                            if (user.getFcmToken() != null && !user.getFcmToken().isEmpty()) {
-                                notificationService.sendFcm(
-                                        user.getFcmToken(),
-                                        bloodType + " BLOOD NEEDED",
-                                        "" + emergencyAlert.getContent() + "\n\n");
-                                log.info("Notified {} for blood type {}", user.getEmail(), bloodType);
-                            }
-                        }
+            long lastUid = checkpoint.getLastUid();
+            try {
+                for (Message message : messages) {
+                    long uid = uidFolder.getUID(message);
+                    // A UID range always includes the newest message, even when it was already read
+                    if (uid <= lastUid) {
+                        continue;
                     }
+                    EmergencyAlert emergencyAlert = processMessage(message, cutoff);
+                    if (emergencyAlert != null) {
+                        result.add(emergencyAlert);
+                    }
+                    lastUid = uid;
+                }
+            } finally {
+                if (lastUid != checkpoint.getLastUid()) {
+                    checkpoint.setLastUid(lastUid);
+                    checkpoint.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+                    mailSyncCheckpointRepository.save(checkpoint);
                 }
             }
-
-            inbox.close(false);
-            store.close();
         } catch (Exception e) {
+            outcome = "error";
             log.error("Error while fetching alerts: {}", e.getMessage(), e);
+            closeStore();
         }
 
+        sample.stop(meterRegistry.timer("bilkom.alerts.sync", "mode", pushIngestionActive ? "idle" : "poll", "outcome", outcome));
+        meterRegistry.counter("bilkom.alerts.created").increment(result.size());
         return result;
     }
 
     /**
-     * Scheduled method to check for new emergency alerts every minute.
+     * Saves an alert for a message if it is a recent blood need email not stored before.
+     * 
+     * @param message The message, with its envelope already fetched
+     * @param cutoff Messages sent before this date are ignored
+     * @return The saved alert, or null if the message was skipped
+     * @throws Exception if an error occurs while reading the message
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    private EmergencyAlert processMessage(Message message, Date cutoff) throws Exception {
+        Date sentDate = message.getSentDate();
+        if (sentDate == null || sentDate.before(cutoff)) {
+            return null;
+        }
+
+        String subject = message.getSubject();
+        if (subject == null || !subject.contains(ALERT_SUBJECT)) {
+            return null;
+        }
+
+        String messageId = message instanceof MimeMessage mimeMessage ? mimeMessage.getMessageID() : null;
+        if (messageId != null && emergencyAlertRepository.existsByMessageId(messageId)) {
+            log.debug("Skipping already stored alert email {}", messageId);
+            return null;
+        }
+
+        String content = getTextFromMessage(message);
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                EmergencyAlert emergencyAlert = new EmergencyAlert(subject, content, sentDate);
+                emergencyAlert.setMessageId(messageId);
+
+                // Save the alert to the database
+                EmergencyAlert saved = emergencyAlertRepository.save(emergencyAlert);
+                outboxService.enqueueEmergencyAlert(saved.getAlertId());
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Stored by another instance since the check above
+            log.debug("Alert email {} was stored concurrently", messageId);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the open alert folder, connecting to the IMAP server first if needed.
+     * 
+     * @return The open folder
+     * @throws MessagingException if the server cannot be reached
      * 
      * @author Elif Bozkurt
      * @version 1.0
      */
+    private Folder openFolder() throws MessagingException {
+        if (store == null || !store.isConnected()) {
+            closeStore();
+            store = connectStore();
+        }
+        if (folder == null || !folder.isOpen()) {
+            folder = store.getFolder(folderName);
+            folder.open(Folder.READ_ONLY);
+        }
+        return folder;
+    }
+
+    /**
+     * Opens a new connection to the alert mailbox.
+     * The caller owns the returned store and must close it.
+     * 
+     * @return The connected store
+     * @throws MessagingException if the server cannot be reached
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    public Store connectStore() throws MessagingException {
+        Properties props = new Properties();
+        props.put("mail.store.protocol", imapProtocol);
+        props.put("mail." + imapProtocol + ".host", imapHost);
+        props.put("mail." + imapProtocol + ".port", String.valueOf(imapPort));
+        if ("imaps".equals(imapProtocol)) {
+            props.put("mail.imaps.ssl.enable", "true");
+        }
+
+        Session session = Session.getInstance(props, null);
+        Store newStore = session.getStore(imapProtocol);
+        newStore.connect(imapHost, imapPort, email, appPassword);
+        return newStore;
+    }
+
+    /**
+     * Returns the name of the folder alerts are read from.
+     * 
+     * @return The folder name
+     */
+    public String getFolderName() {
+        return folderName;
+    }
+
+    /**
+     * Marks whether new alerts are being pushed by the IMAP IDLE listener.
+     * While they are, the scheduled poll is skipped.
+     * 
+     * @param active true while the listener holds a working IDLE connection
+     */
+    public void setPushIngestionActive(boolean active) {
+        pushIngestionActive = active;
+    }
+
+    /**
+     * Checks whether new alerts are being pushed by the IMAP IDLE listener.
+     * 
+     * @return true while the listener holds a working IDLE connection
+     */
+    public boolean isPushIngestionActive() {
+        return pushIngestionActive;
+    }
+
+    /**
+     * Closes the IMAP connection; the next fetch opens a new one.
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @PreDestroy
+    public synchronized void closeStore() {
+        try {
+            if (folder != null && folder.isOpen()) {
+                folder.close(false);
+            }
+        } catch (MessagingException e) {
+            log.debug("Error while closing alert folder: {}", e.getMessage());
+        }
+        try {
+            if (store != null) {
+                store.close();
+            }
+        } catch (MessagingException e) {
+            log.debug("Error while closing IMAP store: {}", e.getMessage());
+        }
+        folder = null;
+        store = null;
+    }
+
+    /**
+     * Scheduled method to check for new emergency alerts every minute.
+     * Skipped while the IMAP IDLE listener is connected, so it only runs when push is unavailable.
+     * 
+     * @author Elif Bozkurt
+     * @version 1.1
+     */
     @Scheduled(fixedRate = 60000)
     public void scheduledMailCheck() {
+        if (pushIngestionActive) {
+            return;
+        }
         List<EmergencyAlert> newAlerts = fetchEmergencyAlerts();
         log.info("Checked mail at {} — found {} emergency alerts", java.time.LocalTime.now(), newAlerts.size());
     }
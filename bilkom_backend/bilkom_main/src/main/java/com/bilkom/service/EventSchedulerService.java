@@ -1,13 +1,19 @@
 package com.bilkom.service;
 
-import com.bilkom.entity.Event;
 import com.bilkom.repository.EventRepository;
+import com.bilkom.repository.EventWaitlistRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -25,37 +31,76 @@ public class EventSchedulerService {
     
     @Autowired
     private EventRepository eventRepository;
+
+    @Autowired
+    private EventWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bilkom.scheduler.past-events.chunk-size:500}")
+    private int chunkSize = 500;
     
     /**
      * Scheduled task that runs daily at midnight to identify and mark events as past.
      * Events are considered past when:
      * 1. Their event date is before the current date
      * 2. They are still marked as active
+     * 
+     * The events are never loaded; their IDs are walked in chunks, and each chunk is flipped
+     * with one UPDATE in its own short transaction. Waitlists of the expired events are dropped
+     * in the same transaction, the events are taken out of the tag counts, and they leave the
+     * search index once it commits.
+     * 
+     * @return IDs of the events that were marked as past
      */
     @Scheduled(cron = "0 0 0 * * ?") // Run at midnight every day
-    @Transactional
-    public void markPastEvents() {
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    public List<Long> markPastEvents() {
         logger.info("Running scheduled task to mark past events");
         
-        // Find all active events with a date before today
-        Date today = new Date(System.currentTimeMillis());
-        List<Event> pastEvents = eventRepository.findByEventDateBeforeAndIsActiveTrue(today);
+        Date today = Date.valueOf(LocalDate.now());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> markedIds = new ArrayList<>();
+        long started = System.nanoTime();
+        long lastId = 0L;
         
-        if (pastEvents.isEmpty()) {
-            logger.info("No past events found that need to be marked");
-            return;
+        while (true) {
+            long afterId = lastId;
+            List<Long> chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = eventRepository.findActiveIdsBefore(today, afterId, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    eventRepository.deactivateByIds(ids);
+                    waitlistRepository.deleteByEventIds(ids);
+                    tagService.forgetEventTagsOf(ids);
+                    ids.forEach(searchIndex::removeEvent);
+                }
+                return ids;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            markedIds.addAll(chunk);
+            lastId = chunk.get(chunk.size() - 1);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
         }
         
-        logger.info("Found " + pastEvents.size() + " past events to mark");
-        
-        // Mark each event as inactive (past)
-        for (Event event : pastEvents) {
-            event.setActive(false);
-            logger.info("Marked event as past: " + event.getEventId() + " - " + event.getEventName());
+        if (markedIds.isEmpty()) {
+            logger.info("No past events found that need to be marked");
+            return markedIds;
         }
         
-        // Save all updated events
-        eventRepository.saveAll(pastEvents);
-        logger.info("Completed marking past events");
+        double seconds = Math.max((System.nanoTime() - started) / 1_000_000_000.0, 0.001);
+        logger.info(String.format("Marked %d past events in %.3f s (%.0f rows/s)",
+            markedIds.size(), seconds, markedIds.size() / seconds));
+        return markedIds;
     }
-} 
\ No newline at end of file
+} 
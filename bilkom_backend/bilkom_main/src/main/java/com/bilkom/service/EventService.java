@@ -1,23 +1,37 @@
 package com.bilkom.service;
 
+import com.bilkom.dto.CursorPage;
 import com.bilkom.dto.EventDto;
-import com.bilkom.dto.ClubDTO;
+import com.bilkom.dto.EventSummary;
+import com.bilkom.dto.UserCard;
 import com.bilkom.entity.*;
 import com.bilkom.enums.UserRole;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.*;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.sql.Date;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.ArrayList;
 
 /**
@@ -29,6 +43,10 @@ import java.util.ArrayList;
  */
 @Service
 public class EventService {
+    private static final Logger log = LoggerFactory.getLogger(EventService.class);
+
+    public static final int DEFAULT_FEED_PAGE_SIZE = 20;
+    public static final int MAX_FEED_PAGE_SIZE = 100;
 
     @Autowired
     private EventRepository eventRepository;
@@ -46,7 +64,22 @@ public class EventService {
     private ClubRepository clubRepository;
 
     @Autowired
-    private ClubService clubService;
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EventWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Creates a new event based on the provided EventDto and the creator's email.
@@ -58,13 +91,12 @@ public class EventService {
      * @author Elif Bozkurt
      * @version 1.0
      */
+    @Timed("bilkom.events.create")
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    @Transactional
     public Event createEvent(EventDto dto, String creatorEmail) {
-        System.out.println("Creating event for user: " + creatorEmail);
-        System.out.println("Incoming EventDto: " + dto);
-
         User creator = userRepository.findByEmail(creatorEmail)
                 .orElseThrow(() -> new BadRequestException("User not found"));
-        System.out.println("Creator found: " + creator.getEmail());
 
         Event event = new Event();
         event.setEventName(dto.getName());
@@ -78,68 +110,73 @@ public class EventService {
         boolean isClub = dto.isClubEvent();
         event.setIsClubEvent(isClub);
         event.setActive(true);
-        System.out.println("isClubEvent: " + isClub);
 
         if (isClub) {
             if (dto.getClubId() == null) {
-                System.out.println("Error: Club ID is required for club events.");
                 throw new BadRequestException("Club ID is required for club events.");
             }
             Club club = clubRepository.findById(dto.getClubId())
                     .orElseThrow(() -> new BadRequestException("Club not found"));
             event.setClub(club);
-            System.out.println("Club set: " + club.getClubName());
         } else {
             event.setClub(null);
-            System.out.println("Club is not set (public event)");
         }
 
-        for (String tagName : dto.getTags()) {
+        List<String> tagNames = TagService.normalizeTagNames(dto.getTags());
+        for (String tagName : tagNames) {
             Tag tag = new Tag();
             tag.setTagName(tagName);
             tag.setEvent(event);
             event.getTags().add(tag);
-            System.out.println("Tag added: " + tagName);
         }
 
         Event saved = eventRepository.save(event);
-        System.out.println("Event saved with ID: " + saved.getEventId());
+        tagService.recordEventTags(tagNames);
+        searchIndex.indexEvent(saved);
+        log.debug("Event {} created by {}", saved.getEventId(), creatorEmail);
         return saved;
     }
 
 
     /**
-     * Updates an existing event based on the provided EventDto and the event ID.
+     * Joins a user to an event if there is a free seat.
+     * Free seats go to the users on the waitlist first, so nobody can join directly while it is not empty.
      * 
-     * @param dto EventDto containing updated event details
-     * @param eventId ID of the event to be updated
-     * @return Updated Event object
+     * @param eventId ID of the event to join
+     * @param userEmail Email of the user joining the event
+     * @throws BadRequestException if the event is full, has a waitlist or the user already joined
      * 
      * @author Elif Bozkurt
      * @version 1.0
      */
+    @Timed("bilkom.events.join")
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    @Transactional
     public void joinEvent(Long eventId, String userEmail) {
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
     
-        if (event.getCurrentParticipantsNumber() >= event.getMaxParticipants()) {
-            throw new BadRequestException("Event is full");
-        }
-    
         User user = userRepository.findByEmail(userEmail)
             .orElseThrow(() -> new BadRequestException("User not found"));
     
-        if (event.getParticipants().stream().anyMatch(p -> p.getUser().equals(user))) {
+        if (participantRepository.existsById(EventParticipantPK.fromEntities(event, user))) {
             throw new BadRequestException("User already joined the event");
         }
     
+        // The seat is taken with a conditional UPDATE, so two joins can never both pass the capacity check.
+        // If the participant insert fails afterwards, the transaction rolls the seat back with it.
+        if (eventRepository.reserveSeat(eventId) == 0) {
+            throw new BadRequestException("Event is full");
+        }
+        // The reservation holds the event row lock, so nobody can join the waitlist until this transaction ends
+        if (waitlistRepository.countByEventEventId(eventId) > 0) {
+            throw new BadRequestException("Event has a waitlist, join the waitlist instead");
+        }
+    
         EventParticipant eventParticipant = new EventParticipant();
         eventParticipant.setEvent(event);
         eventParticipant.setUser(user);
-        participantRepository.save(eventParticipant); 
-    
-        event.setCurrentParticipantsNumber(event.getCurrentParticipantsNumber() + 1);
-        eventRepository.save(event); 
+        participantRepository.saveAndFlush(eventParticipant); 
     }
     
     /**
@@ -151,112 +188,222 @@ public class EventService {
      * @author Elif Bozkurt
      * @version 1.0
      */
+    @Timed("bilkom.events.withdraw")
+    @CacheEvict(value = "eventsCache", allEntries = true)
     @Transactional
     public void withdrawFromEvent(Long eventId, String userEmail) {
         User user = userRepository.findByEmail(userEmail)
             .orElseThrow(() -> new BadRequestException("User not found"));
     
-        Event event = eventRepository.findById(eventId)
+        Event event = eventRepository.findByIdForUpdate(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
-    
-        EventParticipantPK eventParticipantPK = EventParticipantPK.fromEntities(event, user);
         
-        if (!participantRepository.existsById(eventParticipantPK)) {
+        // Only the request that actually deletes the row frees the seat
+        if (participantRepository.deleteByEventIdAndUserId(eventId, user.getUserId()) == 0) {
             throw new BadRequestException("User is not a participant of the event");
         }
         
-        // First remove the participant from the event's collection
-        event.getParticipants().removeIf(participant -> 
-            participant.getUser().getUserId().equals(user.getUserId())
-        );
-        
-        // Update the count
-        event.setCurrentParticipantsNumber(Math.max(0, event.getCurrentParticipantsNumber() - 1));
-        
-        // Save the event to persist the changes to the collection
-        eventRepository.save(event);
-        
-        // Then delete from the repository directly
-        participantRepository.deleteById(eventParticipantPK);
+        // The seat goes to the head of the waitlist if there is one, otherwise it is given back
+        if (promoteFromWaitlist(event) == null) {
+            eventRepository.releaseSeat(eventId);
+        }
     }
-    
-    public List<Event> listAllEvents() {
-        return eventRepository.findAll().stream()
-            .filter(Event::isActive)
-            .collect(Collectors.toList());
-    }    
 
-    public List<Event> filterEventsByTags(List<String> tagNames) {
-        return eventRepository.findAll().stream()
-            .filter(event -> event.getTags().stream()
-                    .anyMatch(tag -> tagNames.contains(tag.getTagName())))
-            .collect(Collectors.toList());
+    /**
+     * Puts a user on the waitlist of a full event.
+     * 
+     * @param eventId ID of the event
+     * @param userEmail Email of the user
+     * @return 1-based position of the user in the waitlist
+     * @throws BadRequestException if the event still has free seats or the user is already in
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @Transactional
+    public long joinWaitlist(Long eventId, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+            .orElseThrow(() -> new BadRequestException("User not found"));
+    
+        Event event = eventRepository.findByIdForUpdate(eventId)
+            .orElseThrow(() -> new BadRequestException("Event not found"));
+    
+        if (participantRepository.existsById(EventParticipantPK.fromEntities(event, user))) {
+            throw new BadRequestException("User already joined the event");
+        }
+        if (waitlistRepository.existsByEventEventIdAndUserUserId(eventId, user.getUserId())) {
+            throw new BadRequestException("User is already on the waitlist");
+        }
+        if (event.getCurrentParticipantsNumber() < event.getMaxParticipants()) {
+            throw new BadRequestException("Event has free seats, join it directly");
+        }
+    
+        EventWaitlistEntry entry = new EventWaitlistEntry();
+        entry.setEvent(event);
+        entry.setUser(user);
+        entry.setJoinedAt(LocalDateTime.now());
+        entry = waitlistRepository.save(entry);
+    
+        return waitlistRepository.countByEventEventIdAndWaitlistIdLessThanEqual(eventId, entry.getWaitlistId());
     }
 
-    public List<Event> getEventsCreatedByUser(String email) {
-        User user = userRepository.findByEmail(email)
+    /**
+     * Removes a user from the waitlist of an event.
+     * 
+     * @param eventId ID of the event
+     * @param userEmail Email of the user
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @Transactional
+    public void leaveWaitlist(Long eventId, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
             .orElseThrow(() -> new BadRequestException("User not found"));
     
-        return eventRepository.findAll().stream()
-            .filter(event -> event.getCreator().getUserId().equals(user.getUserId()))
-            .collect(Collectors.toList());
-    } 
+        if (waitlistRepository.deleteByEventIdAndUserId(eventId, user.getUserId()) == 0) {
+            throw new BadRequestException("User is not on the waitlist");
+        }
+    }
 
-    public List<Event> getEventsUserJoined(String email) {
-        User user = userRepository.findByEmail(email)
+    /**
+     * Returns the current position of a user in the waitlist of an event.
+     * 
+     * @param eventId ID of the event
+     * @param userEmail Email of the user
+     * @return 1-based position of the user in the waitlist
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    public long getWaitlistPosition(Long eventId, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
             .orElseThrow(() -> new BadRequestException("User not found"));
     
-        List<EventParticipant> participations = participantRepository.findByUser(user);
+        EventWaitlistEntry entry = waitlistRepository.findByEventEventIdAndUserUserId(eventId, user.getUserId())
+            .orElseThrow(() -> new BadRequestException("User is not on the waitlist"));
     
-        return participations.stream()
-            .map(EventParticipant::getEvent)
-            .filter(Event::isActive)
-            .collect(Collectors.toList());
+        return waitlistRepository.countByEventEventIdAndWaitlistIdLessThanEqual(eventId, entry.getWaitlistId());
     }
 
-    public List<User> getParticipantsForEvent(Long eventId, String requesterEmail) {
-        Event event = eventRepository.findById(eventId)
-            .orElseThrow(() -> new BadRequestException("Event not found"));
+    /**
+     * Moves the head of the event's waitlist into a free seat.
+     * Must run inside the transaction that holds the event row lock.
+     * The seat counter is not touched: on a withdrawal the seat changes hands instead of being
+     * released, and a new seat is counted by the caller.
+     * 
+     * @param event The locked event
+     * @return The promoted user, or null if nobody was waiting
+     */
+    private User promoteFromWaitlist(Event event) {
+        while (true) {
+            EventWaitlistEntry head = waitlistRepository.findFirstByEventEventIdOrderByWaitlistIdAsc(event.getEventId())
+                .orElse(null);
+            if (head == null) {
+                return null;
+            }
+            // Somebody else removed this entry in the meantime, look at the next one
+            if (waitlistRepository.deleteByWaitlistId(head.getWaitlistId()) == 0) {
+                continue;
+            }
+            User user = head.getUser();
+            if (participantRepository.existsById(EventParticipantPK.fromEntities(event, user))) {
+                continue;
+            }
     
-        if (!event.getCreator().getEmail().equals(requesterEmail)) {
-            throw new BadRequestException("You are not authorized to view this event's participants.");
+            EventParticipant eventParticipant = new EventParticipant();
+            eventParticipant.setEvent(event);
+            eventParticipant.setUser(user);
+            participantRepository.save(eventParticipant);
+    
+            // Queued in the same transaction, so it is sent only if the promotion commits
+            outboxService.enqueueNotification(user, "You're in!",
+                "A seat opened up in " + event.getEventName() + " and you have been moved off the waitlist.");
+            return user;
         }
+    }
     
-        return event.getParticipants().stream()
-            .map(EventParticipant::getUser)
-            .collect(Collectors.toList());
-    }    
+    /**
+     * Returns one slice of the active event feed ordered by event date and event ID.
+     * Pagination is keyset based: the cursor encodes the (event_date, event_id) of the last
+     * event of the previous slice, so deep pages never scan skipped rows the way OFFSET does.
+     * 
+     * Events can be left out in the query, so every slice is full even when the client hides
+     * club events or the events it already joined.
+     * 
+     * @param cursor Continuation token from the previous slice, or null for the first slice
+     * @param size Requested slice size, clamped to [1, MAX_FEED_PAGE_SIZE]
+     * @param excludeClubEvents Whether club events are left out
+     * @param excludeJoined Whether the events the user joined are left out
+     * @param userEmail Email of the user asking for the feed, or null if not logged in
+     * @return The slice of events and the cursor for the next slice (null when exhausted)
+     * @throws BadRequestException if joined events are to be left out but nobody is logged in
+     * 
+     * @author Mert Uzun
+     * @version 1.1
+     */
+    public CursorPage<EventSummary> getEventFeed(String cursor, int size, boolean excludeClubEvents,
+                                                 boolean excludeJoined, String userEmail) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // Fetch one extra row to find out whether another slice exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        Long excludedUserId = null;
+        if (excludeJoined) {
+            if (userEmail == null) {
+                throw new BadRequestException("Log in to leave out joined events");
+            }
+            excludedUserId = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new BadRequestException("User not found"))
+                .getUserId();
+        }
 
-    public List<Event> listPastEvents() {
-        LocalDate today = LocalDate.now();
-        return eventRepository.findAll().stream()
-            .filter(event -> !event.isActive() || event.getEventDate().toLocalDate().isBefore(today))
-            .collect(Collectors.toList());
-    }
+        List<EventSummary> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = eventRepository.findActiveFeed(excludeClubEvents, excludedUserId, limit);
+        } else {
+            FeedPosition position = decodeFeedCursor(cursor);
+            events = eventRepository.findActiveFeedAfter(position.eventDate, position.eventId,
+                excludeClubEvents, excludedUserId, limit);
+        }
 
-    public List<Event> getPastEventsCreatedByUser(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new BadRequestException("User not found"));
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = new ArrayList<>(events.subList(0, pageSize));
+            nextCursor = encodeFeedCursor(events.get(pageSize - 1));
+        }
+        return new CursorPage<>(attachTags(events), nextCursor, pageSize);
+    }
 
-        LocalDate today = LocalDate.now();
-        return eventRepository.findAll().stream()
-            .filter(event -> event.getCreator().getUserId().equals(user.getUserId()))
-            .filter(event -> !event.isActive() || event.getEventDate().toLocalDate().isBefore(today))
-            .collect(Collectors.toList());
+    private static String encodeFeedCursor(EventSummary last) {
+        String raw = last.getEventDate().toLocalDate() + "|" + last.getEventId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    public List<Event> getPastEventsUserJoined(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new BadRequestException("User not found"));
+    private static FeedPosition decodeFeedCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            Date eventDate = Date.valueOf(LocalDate.parse(raw.substring(0, separator)));
+            Long eventId = Long.parseLong(raw.substring(separator + 1));
+            return new FeedPosition(eventDate, eventId);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid feed cursor", e);
+        }
+    }
 
-        List<EventParticipant> participations = participantRepository.findByUser(user);
+    private record FeedPosition(Date eventDate, Long eventId) {}
 
-        LocalDate today = LocalDate.now();
-        return participations.stream()
-            .map(EventParticipant::getEvent)
-            .filter(event -> !event.isActive() || event.getEventDate().toLocalDate().isBefore(today))
-            .collect(Collectors.toList());
-    }
+    public List<UserCard> getParticipantsForEvent(Long eventId, String requesterEmail) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new BadRequestException("Event not found"));
+    
+        if (!event.getCreator().getEmail().equals(requesterEmail)) {
+            throw new BadRequestException("You are not authorized to view this event's participants.");
+        }
+    
+        return participantRepository.findParticipantCardsByEventId(eventId);
+    }    
 
     /**
      * Marks an event as done based on the provided event ID and creator's email.
@@ -267,16 +414,23 @@ public class EventService {
      * @author Elif Bozkurt
      * @version 1.0
      */
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    @Transactional
     public void markEventAsDone(Long eventId, String creatorEmail) {
-        Event event = eventRepository.findById(eventId)
+        // Locked so the nightly job can not deactivate it at the same time and count its tags out twice
+        Event event = eventRepository.findByIdForUpdate(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
 
         if (!event.getCreator().getEmail().equals(creatorEmail)) {
             throw new BadRequestException("You are not authorized to mark this event as done.");
         }
 
-        event.setActive(false);
-        eventRepository.save(event);
+        if (event.isActive()) {
+            event.setActive(false);
+            eventRepository.save(event);
+            tagService.forgetEventTags(event.getTags().stream().map(Tag::getTagName).collect(Collectors.toList()));
+        }
+        searchIndex.removeEvent(eventId);
     }
 
     /**
@@ -306,39 +460,6 @@ public class EventService {
     }
     
 
-    /**
-     * Retrieves all events associated with a specific club.
-     * 
-     * @param clubId The ID of the club
-     * @return List of all events for the club
-     * 
-     * @author Mert Uzun
-     * @version 1.0
-     */
-    public List<Event> getClubEvents(Long clubId) {
-        // Check if club exists
-        clubRepository.findById(clubId).orElseThrow(() -> new BadRequestException("Club not found"));
-            
-        return eventRepository.findByClubClubId(clubId);
-    }
-    
-    /**
-     * Retrieves current (active and upcoming) events associated with a specific club.
-     * 
-     * @param clubId The ID of the club
-     * @return List of current events for the club
-     * 
-     * @author Mert Uzun
-     * @version 1.0
-     */
-    public List<Event> getCurrentClubEvents(Long clubId) {
-        // Check if club exists
-        clubRepository.findById(clubId).orElseThrow(() -> new BadRequestException("Club not found"));
-            
-        Date today = new Date(System.currentTimeMillis());
-        return eventRepository.findByClubClubIdAndEventDateGreaterThanEqual(clubId, today).stream().filter(Event::isActive).collect(Collectors.toList());
-    }
-    
     /**
      * Retrieves past events associated with a specific club.
      * 
@@ -377,36 +498,11 @@ public class EventService {
      * @version 1.0
      */
     public Map<Long, List<Event>> getAllEventsForClubExecutive(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
-            
-        // Verify user is a club executive or head
-        if (user.getRole() != UserRole.CLUB_EXECUTIVE && user.getRole() != UserRole.CLUB_HEAD) {
-            throw new BadRequestException("User is not a club executive or head");
-        }
-        
-        Map<Long, List<Event>> result = new HashMap<>();
-        
-        // Get clubs where user is an executive
-        List<ClubDTO> executiveClubs = clubService.getClubsByExecutiveId(userId);
-        
-        for (ClubDTO club : executiveClubs) {
-            List<Event> clubEvents = getClubEvents(club.getClubId());
-            result.put(club.getClubId(), clubEvents);
+        Set<Long> clubIds = resolveExecutiveClubIds(userId);
+        if (clubIds.isEmpty()) {
+            return new HashMap<>();
         }
-        
-        // If user is a club head, add those clubs too
-        if (user.getRole() == UserRole.CLUB_HEAD) {
-            List<ClubDTO> headClubs = clubService.getClubsByHeadId(userId);
-            
-            for (ClubDTO club : headClubs) {
-                if (!result.containsKey(club.getClubId())) {
-                    List<Event> clubEvents = getClubEvents(club.getClubId());
-                    result.put(club.getClubId(), clubEvents);
-                }
-            }
-        }
-        
-        return result;
+        return groupByClub(clubIds, eventRepository.findByClubIds(clubIds));
     }
     
     /**
@@ -419,36 +515,11 @@ public class EventService {
      * @version 1.0
      */
     public Map<Long, List<Event>> getCurrentEventsForClubExecutive(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
-            
-        // Verify user is a club executive or head
-        if (user.getRole() != UserRole.CLUB_EXECUTIVE && user.getRole() != UserRole.CLUB_HEAD) {
-            throw new BadRequestException("User is not a club executive or head");
-        }
-        
-        Map<Long, List<Event>> result = new HashMap<>();
-        
-        // Get clubs where user is an executive
-        List<ClubDTO> executiveClubs = clubService.getClubsByExecutiveId(userId);
-        
-        for (ClubDTO club : executiveClubs) {
-            List<Event> clubEvents = getCurrentClubEvents(club.getClubId());
-            result.put(club.getClubId(), clubEvents);
+        Set<Long> clubIds = resolveExecutiveClubIds(userId);
+        if (clubIds.isEmpty()) {
+            return new HashMap<>();
         }
-        
-        // If user is a club head, add those clubs too
-        if (user.getRole() == UserRole.CLUB_HEAD) {
-            List<ClubDTO> headClubs = clubService.getClubsByHeadId(userId);
-            
-            for (ClubDTO club : headClubs) {
-                if (!result.containsKey(club.getClubId())) {
-                    List<Event> clubEvents = getCurrentClubEvents(club.getClubId());
-                    result.put(club.getClubId(), clubEvents);
-                }
-            }
-        }
-        
-        return result;
+        return groupByClub(clubIds, eventRepository.findCurrentByClubIds(clubIds, Date.valueOf(LocalDate.now())));
     }
     
     /**
@@ -461,6 +532,22 @@ public class EventService {
      * @version 1.0
      */
     public Map<Long, List<Event>> getPastEventsForClubExecutive(Long userId) {
+        Set<Long> clubIds = resolveExecutiveClubIds(userId);
+        if (clubIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return groupByClub(clubIds, eventRepository.findPastByClubIds(clubIds, Date.valueOf(LocalDate.now())));
+    }
+
+    /**
+     * Collects the IDs of the clubs a user runs, as an executive or, for club heads, as the head.
+     * Only IDs are read, so no club, member or executive entities are loaded.
+     * 
+     * @param userId The ID of the user
+     * @return Set of club IDs
+     * @throws BadRequestException if the user is not found or is not a club executive or head
+     */
+    private Set<Long> resolveExecutiveClubIds(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new BadRequestException("User not found"));
             
         // Verify user is a club executive or head
@@ -468,64 +555,213 @@ public class EventService {
             throw new BadRequestException("User is not a club executive or head");
         }
         
+        Set<Long> clubIds = new LinkedHashSet<>(clubRepository.findClubIdsByExecutiveId(userId));
+        if (user.getRole() == UserRole.CLUB_HEAD) {
+            clubIds.addAll(clubRepository.findClubIdsByClubHeadId(userId));
+        }
+        return clubIds;
+    }
+
+    /**
+     * Groups events by their club, giving every requested club an entry even if it has no events.
+     * 
+     * @param clubIds The IDs of the clubs
+     * @param events The events of those clubs
+     * @return Map from club ID to the club's events
+     */
+    private Map<Long, List<Event>> groupByClub(Set<Long> clubIds, List<Event> events) {
         Map<Long, List<Event>> result = new HashMap<>();
-        
-        // Get clubs where user is an executive
-        List<ClubDTO> executiveClubs = clubService.getClubsByExecutiveId(userId);
-        
-        for (ClubDTO club : executiveClubs) {
-            List<Event> clubEvents = getPastClubEvents(club.getClubId());
-            result.put(club.getClubId(), clubEvents);
+        for (Long clubId : clubIds) {
+            result.put(clubId, new ArrayList<>());
         }
-        
-        // If user is a club head, add those clubs too
-        if (user.getRole() == UserRole.CLUB_HEAD) {
-            List<ClubDTO> headClubs = clubService.getClubsByHeadId(userId);
-            
-            for (ClubDTO club : headClubs) {
-                if (!result.containsKey(club.getClubId())) { // Avoid duplicates
-                    List<Event> clubEvents = getPastClubEvents(club.getClubId());
-                    result.put(club.getClubId(), clubEvents);
-                }
-            }
+        for (Event event : events) {
+            result.get(event.getClub().getClubId()).add(event);
         }
-        
         return result;
     }
 
 
+    /**
+     * Summary read paths for the list endpoints.
+     * Each one is a single projection query plus one batched tag query, so no Event,
+     * User or Club entities are loaded to answer a list request.
+     * The lists shared by all users are kept in eventsCache for a short time and dropped
+     * whenever an event or its participants change.
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @Cacheable(value = "eventsCache", key = "'active'")
+    public List<EventSummary> listActiveEventSummaries() {
+        return attachTags(eventRepository.findActiveSummaries());
+    }
+
+    public List<EventSummary> filterEventSummariesByTags(List<String> tagNames) {
+        List<String> names = TagService.normalizeTagNames(tagNames);
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return attachTags(eventRepository.findSummariesByAnyTagName(names));
+    }
+
+    public List<EventSummary> searchEventSummariesByTags(List<String> allOf, List<String> anyOf, List<String> noneOf) {
+        List<String> all = TagService.normalizeTagNames(allOf);
+        List<String> any = TagService.normalizeTagNames(anyOf);
+        if (all.isEmpty() && any.isEmpty()) {
+            throw new BadRequestException("At least one tag to match is required");
+        }
+        return attachTags(eventRepository.findActiveSummariesByTags(all, any, TagService.normalizeTagNames(noneOf)));
+    }
+
+    public List<EventSummary> getEventSummariesCreatedByUser(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new BadRequestException("User not found"));
+        return attachTags(eventRepository.findSummariesByCreator(user.getUserId()));
+    }
+
+    public List<EventSummary> getEventSummariesUserJoined(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new BadRequestException("User not found"));
+        return attachTags(eventRepository.findActiveSummariesJoinedBy(user.getUserId()));
+    }
+
+    @Cacheable(value = "eventsCache", key = "'past'")
+    public List<EventSummary> listPastEventSummaries() {
+        return attachTags(eventRepository.findPastSummaries(Date.valueOf(LocalDate.now())));
+    }
+
+    public List<EventSummary> getPastEventSummariesCreatedByUser(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new BadRequestException("User not found"));
+        return attachTags(eventRepository.findPastSummariesByCreator(user.getUserId(), Date.valueOf(LocalDate.now())));
+    }
+
+    public List<EventSummary> getPastEventSummariesUserJoined(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new BadRequestException("User not found"));
+        return attachTags(eventRepository.findPastSummariesJoinedBy(user.getUserId(), Date.valueOf(LocalDate.now())));
+    }
+
+    @Cacheable(value = "eventsCache", key = "'club:' + #clubId")
+    public List<EventSummary> getClubEventSummaries(Long clubId) {
+        if (!clubRepository.existsById(clubId)) {
+            throw new BadRequestException("Club not found");
+        }
+        return attachTags(eventRepository.findSummariesByClubId(clubId));
+    }
+
+    @Cacheable(value = "eventsCache", key = "'currentClub:' + #clubId")
+    public List<EventSummary> getCurrentClubEventSummaries(Long clubId) {
+        if (!clubRepository.existsById(clubId)) {
+            throw new BadRequestException("Club not found");
+        }
+        return attachTags(eventRepository.findCurrentSummariesByClubId(clubId, Date.valueOf(LocalDate.now())));
+    }
+
+    @Cacheable(value = "eventsCache", key = "'pastClub:' + #clubId")
+    public List<EventSummary> getPastClubEventSummaries(Long clubId) {
+        if (!clubRepository.existsById(clubId)) {
+            throw new BadRequestException("Club not found");
+        }
+        return attachTags(eventRepository.findPastSummariesByClubId(clubId, Date.valueOf(LocalDate.now())));
+    }
+
+    /**
+     * Fills in the tag names of the given summaries with one query for the whole list.
+     * 
+     * @param summaries The summaries to complete
+     * @return The same list, with tags attached
+     */
+    private List<EventSummary> attachTags(List<EventSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        List<Long> eventIds = summaries.stream().map(EventSummary::getEventId).collect(Collectors.toList());
+        Map<Long, List<String>> tagsByEvent = tagRepository.findTagNamesByEventIds(eventIds).stream()
+            .collect(Collectors.groupingBy(TagRepository.EventTagName::getEventId,
+                Collectors.mapping(TagRepository.EventTagName::getTagName, Collectors.toList())));
+        for (EventSummary summary : summaries) {
+            summary.setTags(tagsByEvent.getOrDefault(summary.getEventId(), new ArrayList<>()));
+        }
+        return summaries;
+    }
+
+
     public Event getEvent(Long eventId) {
         return eventRepository.findById(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
     }
 
 
+    /**
+     * Updates the details of an event.
+     * The event row is locked while it is edited, so seats taken or given back at the same time
+     * are never overwritten. The participant counter itself is left as it is, except for the seats
+     * added by a larger capacity, which go to the users on the waitlist first, in order.
+     *
+     * @param eventId ID of the event to update
+     * @param dto EventDto containing the new details
+     * @return The updated event
+     * @throws BadRequestException if the new capacity is below the number of participants
+     *
+     * @author Elif Bozkurt
+     * @version 1.1
+     */
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    @Transactional
     public Event updateEvent(Long eventId, EventDto dto) {
-       return eventRepository.findById(eventId)
-            .map(event -> {
-                event.setEventName(dto.getName());
-                event.setEventDescription(dto.getDescription());
-                event.setEventLocation(dto.getLocation());
-                event.setEventDate(dto.getEventDate());
-                event.setMaxParticipants(dto.getMaxParticipants());
-                event.setCurrentParticipantsNumber(0);
-                return eventRepository.save(event);
-            })
+        Event event = eventRepository.findByIdForUpdate(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
+
+        if (dto.getMaxParticipants() < event.getCurrentParticipantsNumber()) {
+            throw new BadRequestException("Maximum participants cannot be below the current "
+                + event.getCurrentParticipantsNumber() + " participants");
+        }
+
+        event.setEventName(dto.getName());
+        event.setEventDescription(dto.getDescription());
+        event.setEventLocation(dto.getLocation());
+        event.setEventDate(dto.getEventDate());
+        event.setMaxParticipants(dto.getMaxParticipants());
+        // The new capacity must be written before seats are taken against it
+        Event saved = eventRepository.saveAndFlush(event);
+
+        int freeSeats = saved.getMaxParticipants() - saved.getCurrentParticipantsNumber();
+        int promoted = 0;
+        while (promoted < freeSeats && promoteFromWaitlist(saved) != null) {
+            eventRepository.reserveSeat(eventId);
+            promoted++;
+        }
+        if (promoted > 0) {
+            // The seats were taken in the database, so read the counter again
+            entityManager.refresh(saved);
+        }
+
+        searchIndex.indexEvent(saved);
+        return saved;
     }
 
 
+    @CacheEvict(value = "eventsCache", allEntries = true)
+    @Transactional
     public void deleteEvent(Long eventId) {
-        Event event = eventRepository.findById(eventId)
+        Event event = eventRepository.findWithParticipantsByEventId(eventId)
             .orElseThrow(() -> new BadRequestException("Event not found"));
     
+        // Drop anyone still waiting for a seat
+        waitlistRepository.deleteByEventId(eventId);
+    
         // Remove all participants
         participantRepository.deleteAll(event.getParticipants());
     
-        // Remove all tags
+        // Remove all tags; an inactive event was already taken out of the counts
+        if (event.isActive()) {
+            tagService.forgetEventTags(event.getTags().stream().map(Tag::getTagName).collect(Collectors.toList()));
+        }
         event.getTags().clear();
     
         // Delete the event
         eventRepository.delete(event);
+        searchIndex.removeEvent(eventId);
     }
 }
\ No newline at end of file
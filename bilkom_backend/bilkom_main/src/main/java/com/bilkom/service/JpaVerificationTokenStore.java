@@ -0,0 +1,46 @@
+package com.bilkom.service;
+
+import com.bilkom.entity.ClubVerificationToken;
+import com.bilkom.repository.ClubVerificationTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * VerificationTokenStore backed by the club_verification_tokens table.
+ * A lookup is a single primary key read that also filters out expired rows.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Service
+public class JpaVerificationTokenStore implements VerificationTokenStore {
+
+    @Autowired
+    private ClubVerificationTokenRepository tokenRepository;
+
+    @Override
+    public void save(String token, Long clubId, long expiresAtMillis) {
+        tokenRepository.save(new ClubVerificationToken(token, clubId, new Timestamp(expiresAtMillis)));
+    }
+
+    @Override
+    public Optional<Long> findClubId(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        return tokenRepository.findClubIdByToken(token, new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void remove(String token) {
+        tokenRepository.deleteByToken(token);
+    }
+
+    @Override
+    public int removeExpired() {
+        return tokenRepository.deleteExpired(new Timestamp(System.currentTimeMillis()));
+    }
+}
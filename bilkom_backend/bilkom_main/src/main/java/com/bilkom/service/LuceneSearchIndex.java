@@ -0,0 +1,356 @@
+package com.bilkom.service;
+
+import com.bilkom.dto.SearchResult;
+import com.bilkom.entity.Club;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.Tag;
+import com.bilkom.enums.ClubRegistrationStatus;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.ClubRepository;
+import com.bilkom.repository.EventRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lucene implementation of SearchIndex.
+ * The index lives in the directory given by bilkom.search.index-path, or in memory when the
+ * property is empty, in which case it is rebuilt from the database on every start.
+ * Writes become visible to searches right away; they are committed to disk periodically
+ * and on shutdown. A write made inside a transaction waits for it to commit, so a rolled back
+ * save never shows up in the index.
+ *
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Service
+public class LuceneSearchIndex implements SearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LuceneSearchIndex.class);
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_BODY = "body";
+    private static final String FIELD_LOCATION = "location";
+    private static final String FIELD_TAGS = "tags";
+    private static final String FIELD_DATE = "date";
+
+    // Matches in names weigh more than matches in descriptions
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+        FIELD_TITLE, 3.0f,
+        FIELD_TAGS, 2.0f,
+        FIELD_LOCATION, 1.5f,
+        FIELD_BODY, 1.0f
+    );
+    private static final int SNIPPET_LENGTH = 160;
+
+    @Value("${bilkom.search.index-path:}")
+    private String indexPath;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = (indexPath == null || indexPath.isBlank())
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Paths.get(indexPath));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Builds the index from the database when it starts out empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Commits pending changes so that a persistent index survives a crash.
+     */
+    @Scheduled(fixedDelayString = "${bilkom.search.commit-interval-ms:30000}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            logger.warn("Could not commit the search index", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            int events = 0;
+            for (Event event : eventRepository.findByIsActiveTrue()) {
+                writer.addDocument(toDocument(event));
+                events++;
+            }
+            int clubs = 0;
+            for (Club club : clubRepository.findByStatusAndIsActive(ClubRegistrationStatus.APPROVED, true)) {
+                writer.addDocument(toDocument(club));
+                clubs++;
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+            logger.info("Search index rebuilt with {} events and {} clubs", events, clubs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild the search index", e);
+        }
+    }
+
+    @Override
+    public void indexEvent(Event event) {
+        if (event.isActive()) {
+            update(key(DocumentType.EVENT, event.getEventId()), toDocument(event));
+        } else {
+            removeEvent(event.getEventId());
+        }
+    }
+
+    @Override
+    public void removeEvent(Long eventId) {
+        delete(key(DocumentType.EVENT, eventId));
+    }
+
+    @Override
+    public void indexClub(Club club) {
+        if (club.isActive() && club.getStatus() == ClubRegistrationStatus.APPROVED) {
+            update(key(DocumentType.CLUB, club.getClubId()), toDocument(club));
+        } else {
+            removeClub(club.getClubId());
+        }
+    }
+
+    @Override
+    public void removeClub(Long clubId) {
+        delete(key(DocumentType.CLUB, clubId));
+    }
+
+    @Override
+    public Page<SearchResult> search(String text, DocumentType type, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new BadRequestException("Search text is required");
+        }
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize);
+
+        Query textQuery;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                FIELD_BOOSTS.keySet().toArray(new String[0]), analyzer, FIELD_BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            textQuery = parser.parse(QueryParser.escape(text.trim()));
+        } catch (ParseException e) {
+            throw new BadRequestException("Invalid search text", e);
+        }
+        // Text made only of characters the analyzer drops matches nothing
+        if (textQuery == null || (textQuery instanceof BooleanQuery && ((BooleanQuery) textQuery).clauses().isEmpty())) {
+            return new PageImpl<>(new ArrayList<>(), pageRequest, 0);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (type != null) {
+            builder.add(new TermQuery(new Term(FIELD_TYPE, type.name())), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int total = searcher.count(query);
+            // Computed in long, since a large page number would overflow
+            long offset = (long) pageNumber * pageSize;
+            if (offset >= total) {
+                return new PageImpl<>(new ArrayList<>(), pageRequest, total);
+            }
+            TopDocs topDocs = searcher.search(query, (int) Math.min(offset + pageSize, total));
+
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchResult> results = new ArrayList<>();
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = (int) offset; i < hits.length; i++) {
+                results.add(toResult(storedFields.document(hits[i].doc), hits[i].score));
+            }
+            return new PageImpl<>(results, pageRequest, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not search the index", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    logger.warn("Could not release index searcher", e);
+                }
+            }
+        }
+    }
+
+    // Index failures are logged and never fail the save that triggered them; a rebuild repairs the index
+    private void update(String key, Document document) {
+        afterCommit(() -> {
+            try {
+                writer.updateDocument(new Term(FIELD_KEY, key), document);
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                logger.warn("Could not index {}", key, e);
+            }
+        });
+    }
+
+    private void delete(String key) {
+        afterCommit(() -> {
+            try {
+                writer.deleteDocuments(new Term(FIELD_KEY, key));
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                logger.warn("Could not remove {} from the index", key, e);
+            }
+        });
+    }
+
+    // The document is built right away, while lazy associations can still be loaded; only the write waits
+    private void afterCommit(Runnable write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    private static String key(DocumentType type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    private static Document toDocument(Event event) {
+        Document document = newDocument(DocumentType.EVENT, event.getEventId());
+        addText(document, FIELD_TITLE, event.getEventName(), Field.Store.YES);
+        addText(document, FIELD_BODY, event.getEventDescription(), Field.Store.YES);
+        addText(document, FIELD_LOCATION, event.getEventLocation(), Field.Store.YES);
+        addText(document, FIELD_TAGS, event.getTags().stream().map(Tag::getTagName).collect(Collectors.joining(" ")), Field.Store.NO);
+        if (event.getEventDate() != null) {
+            document.add(new StoredField(FIELD_DATE, event.getEventDate().getTime()));
+        }
+        return document;
+    }
+
+    private static Document toDocument(Club club) {
+        Document document = newDocument(DocumentType.CLUB, club.getClubId());
+        addText(document, FIELD_TITLE, club.getClubName(), Field.Store.YES);
+        addText(document, FIELD_BODY, club.getClubDescription(), Field.Store.YES);
+        return document;
+    }
+
+    private static Document newDocument(DocumentType type, Long id) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, key(type, id), Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, id));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value, Field.Store store) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, store));
+        }
+    }
+
+    private static SearchResult toResult(Document document, float score) {
+        IndexableField date = document.getField(FIELD_DATE);
+        String body = document.get(FIELD_BODY);
+        String snippet = body == null || body.length() <= SNIPPET_LENGTH ? body : body.substring(0, SNIPPET_LENGTH) + "...";
+        return new SearchResult(
+            document.get(FIELD_TYPE),
+            document.getField(FIELD_ID).numericValue().longValue(),
+            document.get(FIELD_TITLE),
+            snippet,
+            document.get(FIELD_LOCATION),
+            date == null ? null : new Date(date.numericValue().longValue()),
+            score
+        );
+    }
+}
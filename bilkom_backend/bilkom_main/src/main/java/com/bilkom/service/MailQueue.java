@@ -0,0 +1,350 @@
+package com.bilkom.service;
+
+import com.bilkom.dto.MailQueueStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue of outgoing emails, sent by background workers so callers never wait on SMTP.
+ * Each worker takes up to bilkom.mail.batch-size queued messages and sends them over a single
+ * SMTP connection. Messages the server rejects are queued again until bilkom.mail.max-attempts.
+ * When the queue is full the message is sent on the caller's thread instead of being dropped.
+ * 
+ * With bilkom.mail.async=false every message is sent on the caller's thread as soon as it is
+ * submitted, which the tests rely on.
+ * 
+ * Every email goes through this queue, so its meters cover all sends of EmailService: the
+ * queue depth, the sent, failed and retried counts, the time from queueing to acceptance
+ * (bilkom.mail.latency) and the time of each SMTP send (bilkom.mail.smtp).
+ * 
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Service
+public class MailQueue {
+    private static final Logger logger = LoggerFactory.getLogger(MailQueue.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bilkom.mail.async:true}")
+    private boolean async = true;
+
+    @Value("${bilkom.mail.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${bilkom.mail.workers:2}")
+    private int workers = 2;
+
+    @Value("${bilkom.mail.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${bilkom.mail.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${bilkom.mail.retry-delay-ms:1000}")
+    private long retryDelayMs = 1000;
+
+    @Value("${bilkom.mail.send-timeout-ms:60000}")
+    private long sendTimeoutMs = 60000;
+
+    private BlockingQueue<PendingMail> queue;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    // Messages submitted by the current thread inside awaitSent
+    private final ThreadLocal<List<CompletableFuture<Void>>> submittedByThread = new ThreadLocal<>();
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retriedCount = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private Timer latencyTimer;
+
+    /**
+     * Registers the queue meters and starts the sending workers.
+     * 
+     * @author Mert Uzun
+     * @version 1.1
+     */
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("bilkom.mail.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("bilkom.mail.queue.capacity", () -> queueCapacity).register(meterRegistry);
+        FunctionCounter.builder("bilkom.mail.sent", sentCount, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("bilkom.mail.failed", failedCount, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("bilkom.mail.retried", retriedCount, LongAdder::sum).register(meterRegistry);
+        latencyTimer = meterRegistry.timer("bilkom.mail.latency");
+        if (!async) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= workers; i++) {
+            Thread worker = new Thread(this::drain, "mail-sender-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workerThreads.add(worker);
+        }
+    }
+
+    /**
+     * Stops the workers once the messages already queued are sent, waiting at most
+     * bilkom.mail.send-timeout-ms.
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        for (Thread worker : workerThreads) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Mail queue stopped with {} unsent messages", queue.size());
+        }
+    }
+
+    /**
+     * Queues a plain text email.
+     * 
+     * @param message The message to send
+     * @return A future completed once the SMTP server accepts the message
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public CompletableFuture<Void> submit(SimpleMailMessage message) {
+        return enqueue(new PendingMail(message));
+    }
+
+    /**
+     * Queues a MIME email.
+     * 
+     * @param message The message to send
+     * @return A future completed once the SMTP server accepts the message
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        return enqueue(new PendingMail(message));
+    }
+
+    /**
+     * Runs an action that queues emails and waits until every email it queued is sent.
+     * Lets a caller that must know the outcome, such as the outbox dispatcher, use the
+     * fire-and-forget methods of EmailService.
+     * 
+     * @param action The action queueing the emails
+     * @throws MailSendException if an email could not be sent or did not go out in time
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public void awaitSent(Runnable action) {
+        List<CompletableFuture<Void>> submitted = new ArrayList<>();
+        submittedByThread.set(submitted);
+        try {
+            action.run();
+        } finally {
+            submittedByThread.remove();
+        }
+        try {
+            CompletableFuture.allOf(submitted.toArray(new CompletableFuture[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new MailSendException("Email could not be sent", e.getCause());
+        } catch (TimeoutException e) {
+            throw new MailSendException("Email was not sent within " + sendTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for email to be sent");
+        }
+    }
+
+    /**
+     * Returns the current queue depth and the send counters.
+     * 
+     * @return The queue statistics
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public MailQueueStats getStats() {
+        long sent = sentCount.sum();
+        return new MailQueueStats(queue.size(), queueCapacity, sent, failedCount.sum(), retriedCount.sum(),
+                sent == 0 ? 0 : totalLatencyMillis.sum() / sent, maxLatencyMillis.get());
+    }
+
+    private CompletableFuture<Void> enqueue(PendingMail mail) {
+        List<CompletableFuture<Void>> submitted = submittedByThread.get();
+        if (submitted != null) {
+            submitted.add(mail.result);
+        }
+        if (!async || !queue.offer(mail)) {
+            if (async) {
+                logger.warn("Mail queue is full, sending on the caller's thread");
+            }
+            sendNow(mail);
+        }
+        return mail.result;
+    }
+
+    private void sendNow(PendingMail mail) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (mail.message instanceof SimpleMailMessage simpleMessage) {
+                mailSender.send(simpleMessage);
+            } else {
+                mailSender.send((MimeMessage) mail.message);
+            }
+        } catch (MailException e) {
+            sample.stop(meterRegistry.timer("bilkom.mail.smtp", "outcome", "failed"));
+            failedCount.increment();
+            mail.result.completeExceptionally(e);
+            throw e;
+        }
+        sample.stop(meterRegistry.timer("bilkom.mail.smtp", "outcome", "sent"));
+        sent(mail);
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingMail> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!sendBatch(batch)) {
+                    Thread.sleep(retryDelayMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Mail worker failed", e);
+            }
+        }
+    }
+
+    // Sends a batch over one connection, returns false if any message failed
+    private boolean sendBatch(List<PendingMail> batch) {
+        MimeMessage[] messages = new MimeMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).toMimeMessage(mailSender);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = e;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        sample.stop(meterRegistry.timer("bilkom.mail.smtp", "outcome", batchFailure == null ? "sent" : "failed"));
+
+        boolean allSent = true;
+        for (int i = 0; i < messages.length; i++) {
+            PendingMail mail = batch.get(i);
+            // Without per-message details the whole batch failed, e.g. the connection could not be opened
+            Exception failure = failures.isEmpty() ? batchFailure : failures.get(messages[i]);
+            if (failure == null) {
+                sent(mail);
+                continue;
+            }
+            allSent = false;
+            mail.attempts++;
+            if (mail.attempts < maxAttempts && queue.offer(mail)) {
+                retriedCount.increment();
+            } else {
+                failedCount.increment();
+                logger.warn("Email could not be sent after {} attempts", mail.attempts, failure);
+                mail.result.completeExceptionally(failure);
+            }
+        }
+        return allSent;
+    }
+
+    private void sent(PendingMail mail) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mail.queuedAtNanos);
+        sentCount.increment();
+        totalLatencyMillis.add(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        latencyTimer.record(latency, TimeUnit.MILLISECONDS);
+        mail.result.complete(null);
+    }
+
+    /**
+     * A queued message with its delivery state.
+     */
+    private static final class PendingMail {
+        private final Object message;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final long queuedAtNanos = System.nanoTime();
+        private MimeMessage mimeMessage;
+        private int attempts;
+
+        private PendingMail(Object message) {
+            this.message = message;
+        }
+
+        private MimeMessage toMimeMessage(JavaMailSender mailSender) {
+            if (mimeMessage == null) {
+                if (message instanceof SimpleMailMessage simpleMessage) {
+                    mimeMessage = mailSender.createMimeMessage();
+                    simpleMessage.copyTo(new MimeMailMessage(mimeMessage));
+                } else {
+                    mimeMessage = (MimeMessage) message;
+                }
+            }
+            return mimeMessage;
+        }
+    }
+}
@@ -1,66 +1,254 @@
 package com.bilkom.service;
 
 import com.bilkom.dto.NewsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for fetching news content from Bilkent University sources.
- * 
+ *
+ * Requests are answered from the last good snapshot of Bilkent News, which is refreshed in
+ * the background every bilkom.news.refresh-ms. Refreshes are conditional requests using the
+ * ETag and Last-Modified of the snapshot, so an unchanged page is not downloaded again.
+ * When the site is slow or down the snapshot is served as it is, however old.
+ * If bilkom.news.snapshot-path is set, the snapshot is also kept in that file and loaded on
+ * startup, so news can be served before the first refresh completes.
+ *
  * @author Mert Uzun
- * @version 1.1
+ * @version 1.4
  */
 @Service
 public class NewsService {
     private static final Logger log = LoggerFactory.getLogger(NewsService.class);
     private static final String BILKENT_NEWS_URL = "https://bilkentnews.bilkent.edu.tr/";
-    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${bilkom.news.url:" + BILKENT_NEWS_URL + "}")
+    private String newsUrl = BILKENT_NEWS_URL;
+
+    @Value("${bilkom.news.refresh-ms:600000}")
+    private long refreshMs = 600000;
+
+    @Value("${bilkom.news.timeout-ms:10000}")
+    private int timeoutMs = 10000;
+
+    @Value("${bilkom.news.snapshot-path:}")
+    private String snapshotPath;
+
+    private volatile NewsSnapshot snapshot;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+    private ExecutorService refresher;
+
     /**
-     * Fetches news from Bilkent News website.
-     * 
-     * @return List of NewsDto objects containing news title and link
-     * 
+     * Loads the stored snapshot, if there is one.
+     *
      * @author Mert Uzun
      * @version 1.0
      */
-    public List<NewsDto> fetchFromBilkentNews() {
-        List<NewsDto> result = new ArrayList<>();
-        
+    @PostConstruct
+    public void init() {
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
         try {
-            // Connect to the Bilkent News website and get the document
-            Document doc = Jsoup.connect(BILKENT_NEWS_URL).get();
-            
-            // Select all news article titles with links
-            Elements newsLinks = doc.select("h3.entry-title a");
-            
-            // Process each news item
-            for (Element link : newsLinks) {
-                String title = link.text();
-                String url = link.absUrl("href");
-                
-                // Skip invalid entries
-                if (title == null || title.isEmpty() || url == null || url.isEmpty()) {
-                    continue;
+            snapshot = objectMapper.readValue(path.toFile(), NewsSnapshot.class);
+            log.info("Loaded {} news items stored at {}", snapshot.items().size(), path);
+        } catch (IOException e) {
+            log.warn("Could not read the stored news snapshot at {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the background revalidation.
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Gets the latest news from Bilkent News.
+     * The news comes from the snapshot and is returned without waiting for the website. Only the
+     * very first requests, when there is no snapshot yet, wait for a fetch, and they all wait for
+     * the same one. A snapshot older than twice the refresh interval is returned as well, but also
+     * starts a refresh in the background.
+     *
+     * @return List of NewsDto objects containing news title and link
+     *
+     * @author Mert Uzun
+     * @version 1.2
+     */
+    public List<NewsDto> getNews() {
+        NewsSnapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+            return current == null ? new ArrayList<>() : current.items();
+        }
+        if (System.currentTimeMillis() - current.checkedAt() > 2 * refreshMs && revalidating.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    revalidating.set(false);
                 }
-                
-                // Add to result list
-                result.add(new NewsDto(title, url));
+            });
+        }
+        return current.items();
+    }
+
+    /**
+     * Refreshes the snapshot from Bilkent News.
+     * Sends the ETag and Last-Modified of the current snapshot, so the page is only downloaded
+     * and parsed when it changed. A failed fetch, or a page without any news, keeps the snapshot.
+     * Runs on the refresh scheduler, so a slow site never delays the other scheduled jobs.
+     * A refresh started while another one is running waits for that one instead of fetching again.
+     *
+     * @author Mert Uzun
+     * @version 1.2
+     */
+    @Scheduled(fixedDelayString = "${bilkom.news.refresh-ms:600000}", initialDelayString = "${bilkom.news.initial-delay-ms:0}",
+            scheduler = "refreshScheduler")
+    public void refresh() {
+        CompletableFuture<Void> fetch = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.compareAndExchange(null, fetch);
+        if (running != null) {
+            running.join();
+            return;
+        }
+        try {
+            fetch();
+        } finally {
+            inFlight.set(null);
+            fetch.complete(null);
+        }
+    }
+
+    private void fetch() {
+        NewsSnapshot current = snapshot;
+        try {
+            Connection connection = Jsoup.connect(newsUrl).timeout(timeoutMs).ignoreHttpErrors(true);
+            if (current != null && current.etag() != null) {
+                connection.header("If-None-Match", current.etag());
             }
-            
-            log.info("Fetched {} news items from Bilkent News", result.size());
-        } catch (IOException e) {
-            log.error("Error fetching news from Bilkent News: {}", e.getMessage(), e);
+            if (current != null && current.lastModified() != null) {
+                connection.header("If-Modified-Since", current.lastModified());
+            }
+            Connection.Response response = connection.execute();
+
+            if (response.statusCode() == 304 && current != null) {
+                snapshot = current.checked(System.currentTimeMillis());
+                log.debug("Bilkent News has not changed");
+                return;
+            }
+            if (response.statusCode() != 200) {
+                log.warn("Bilkent News returned HTTP {}, keeping the current news", response.statusCode());
+                return;
+            }
+
+            List<NewsDto> items = extractNews(response.parse());
+            if (items.isEmpty()) {
+                log.warn("No news found on Bilkent News, keeping the current news");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            snapshot = new NewsSnapshot(items, response.header("ETag"), response.header("Last-Modified"), now, now);
+            log.info("Refreshed {} news items from Bilkent News", items.size());
+            store(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh news from Bilkent News, keeping the current news: {}", e.getMessage());
+        }
+    }
+
+    private List<NewsDto> extractNews(Document doc) {
+        List<NewsDto> result = new ArrayList<>();
+
+        // Select all news article titles with links
+        Elements newsLinks = doc.select("h3.entry-title a");
+
+        // Process each news item
+        for (Element link : newsLinks) {
+            String title = link.text();
+            String url = link.absUrl("href");
+
+            // Skip invalid entries
+            if (title == null || title.isEmpty() || url == null || url.isEmpty()) {
+                continue;
+            }
+
+            // Add to result list
+            result.add(new NewsDto(title, url));
         }
-        
         return result;
     }
+
+    private void store(NewsSnapshot stored) {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(snapshotPath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Written next to the target and moved over it, so a crash never leaves half a file
+            Path temp = Files.createTempFile(parent, "news", ".tmp");
+            objectMapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not store the news snapshot at {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The news of the last successful fetch, with the validators needed to revalidate it.
+     * fetchedAt is when the page was last downloaded, checkedAt when it was last confirmed current.
+     */
+    record NewsSnapshot(List<NewsDto> items, String etag, String lastModified, long fetchedAt, long checkedAt) {
+        NewsSnapshot {
+            items = List.copyOf(items);
+        }
+
+        NewsSnapshot checked(long now) {
+            return new NewsSnapshot(items, etag, lastModified, fetchedAt, now);
+        }
+    }
 }
@@ -1,35 +1,138 @@
 package com.bilkom.service;
 
+import com.bilkom.dto.NotificationReport;
 import com.bilkom.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.auth.oauth2.GoogleCredentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.FileInputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * NotificationService is responsible for sending notifications using Firebase Cloud Messaging (FCM).
  * It provides methods to send FCM messages with a specified token, title, and body.
+ * The service account credentials are read once and their access token is refreshed shortly
+ * before it expires; all messages go through one shared HTTP/2 client, so a fan-out to many
+ * users reuses the same connection.
+ * Messages to many users are sent in parallel on a dedicated, bounded pool, never on request
+ * threads. Sends are paced to firebase.fcm.rate-limit-per-second and retried with jittered
+ * backoff when FCM answers 429 or 5xx.
+ * Each delivery is timed in bilkom.notifications.send, tagged with its outcome, and the
+ * fan-out pool reports its queue and active threads in the executor meters named fcm-fan-out.
  * 
  * @author Elif Bozkurt, Mert Uzun
- * @version 2.1
+ * @version 2.4
  */
 @Service
 public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
-    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String FCM_SCOPE = "https://www.googleapis.com/auth/firebase.messaging";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${firebase.service.account.path:src/main/resources/firebase-service-account.json}")
     private String serviceAccountPath;
 
+    @Value("${firebase.fcm.endpoint:https://fcm.googleapis.com/v1/projects/bilkom-11cc3/messages:send}")
+    private String fcmEndpoint;
+
+    @Value("${firebase.fcm.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${firebase.fcm.fan-out.threads:32}")
+    private int fanOutThreads;
+
+    @Value("${firebase.fcm.fan-out.queue-capacity:1000}")
+    private int fanOutQueueCapacity;
+
+    @Value("${firebase.fcm.rate-limit-per-second:500}")
+    private int rateLimitPerSecond;
+
+    @Value("${firebase.fcm.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${firebase.fcm.retry.base-delay-ms:500}")
+    private long retryBaseDelayMs;
+
+    /**
+     * Outcome of delivering one message.
+     */
+    public enum DeliveryStatus { SENT, INVALID_TOKEN, FAILED }
+
+    // Loaded on first use; GoogleCredentials caches its access token and refreshes it before expiry
+    private volatile GoogleCredentials credentials;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private ExecutorService fanOutExecutor;
+    private RateLimiter rateLimiter;
+
+    /**
+     * Starts the fan-out pool and the rate limiter.
+     * When the queue of the pool is full, the thread fanning out sends the message itself,
+     * which slows it down instead of queueing without limit.
+     * 
+     * @author Elif Bozkurt
+     * @version 1.1
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fanOutQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fcm-fan-out-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        fanOutExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "fcm-fan-out");
+        rateLimiter = new RateLimiter(rateLimitPerSecond);
+    }
+
+    /**
+     * Stops the fan-out pool; messages still queued are dropped.
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
     /**
      * Sends a notification using Firebase Cloud Messaging (FCM).
      * 
@@ -38,56 +141,136 @@ public class NotificationService {
      * @param body  The body of the notification
      * 
      * @author Elif Bozkurt
-     * @version 2.0
+     * @version 2.2
      */
     public void sendFcm(String token, String title, String body) {
         if (token == null || token.isEmpty()) {
             log.warn("Attempted to send FCM notification with null or empty token");
             return;
         }
-        
-        try {
-            GoogleCredentials googleCredentials = GoogleCredentials
-                    .fromStream(new FileInputStream(serviceAccountPath))
-                    .createScoped(Collections.singletonList("https://www.googleapis.com/auth/firebase.messaging"));
-            googleCredentials.refreshIfExpired();
-            String accessToken = googleCredentials.getAccessToken().getTokenValue();
-
-            URI uri = new URI("https://fcm.googleapis.com/v1/projects/bilkom-11cc3/messages:send");
-            URL url = uri.toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setUseCaches(false);
-            conn.setDoInput(true);
-            conn.setDoOutput(true);
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Authorization", "Bearer " + accessToken);
-            conn.setRequestProperty("Content-Type", "application/json");
-
-            String message = """
-            {
-              "message": {
-                "token": "%s",
-                "notification": {
-                  "title": "%s",
-                  "body": "%s"
+        deliver(token, title, body);
+    }
+
+    /**
+     * Delivers one message, waiting for the rate limiter and retrying throttled or failed attempts.
+     * 
+     * @param token The FCM token of the recipient device
+     * @param title The title of the notification
+     * @param body  The body of the notification
+     * @return The outcome of the delivery
+     * 
+     * @author Elif Bozkurt
+     * @version 1.1
+     */
+    protected DeliveryStatus deliver(String token, String title, String body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        DeliveryStatus status = deliverWithRetries(token, title, body);
+        sample.stop(meterRegistry.timer("bilkom.notifications.send", "outcome", status.name().toLowerCase()));
+        return status;
+    }
+
+    private DeliveryStatus deliverWithRetries(String token, String title, String body) {
+        for (int attempt = 1; ; attempt++) {
+            long retryAfterMs = 0;
+            try {
+                rateLimiter.acquire();
+                HttpResponse<String> response = postMessage(token, title, body);
+                int status = response.statusCode();
+                if (status / 100 == 2) {
+                    log.debug("FCM Response Code: {}", status);
+                    return DeliveryStatus.SENT;
+                }
+                // FCM answers 404 UNREGISTERED for stale tokens and 400 INVALID_ARGUMENT for malformed ones
+                if (status == 404 || (status == 400 && response.body() != null && response.body().contains("INVALID_ARGUMENT"))) {
+                    log.debug("FCM rejected token: {}", response.body());
+                    return DeliveryStatus.INVALID_TOKEN;
+                }
+                if (status != 429 && status / 100 != 5) {
+                    log.warn("FCM Response Code: {} {}", status, response.body());
+                    return DeliveryStatus.FAILED;
                 }
-              }
+                if (attempt >= maxAttempts) {
+                    log.warn("FCM Response Code: {} after {} attempts", status, attempt);
+                    return DeliveryStatus.FAILED;
+                }
+                retryAfterMs = response.headers().firstValueAsLong("Retry-After").orElse(0) * 1000;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while sending FCM notification");
+                return DeliveryStatus.FAILED;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Error sending FCM notification: {}", e.getMessage(), e);
+                    return DeliveryStatus.FAILED;
+                }
+                log.debug("FCM attempt {} failed: {}", attempt, e.getMessage());
             }
-            """.formatted(token, title, body);
 
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(message.getBytes());
-                os.flush();
+            meterRegistry.counter("bilkom.notifications.retries").increment();
+            // Full jitter keeps retries of a large fan-out from arriving in waves
+            long backoffMs = ThreadLocalRandom.current().nextLong(retryBaseDelayMs * (1L << (attempt - 1)) + 1);
+            try {
+                Thread.sleep(Math.max(backoffMs, retryAfterMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return DeliveryStatus.FAILED;
             }
+        }
+    }
+
+    /**
+     * Posts one message to the FCM endpoint.
+     * 
+     * @param token The FCM token of the recipient device
+     * @param title The title of the notification
+     * @param body  The body of the notification
+     * @return The response of the FCM endpoint
+     * @throws IOException if the credentials cannot be read or the request fails
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     * 
+     * @author Elif Bozkurt
+     * @version 1.0
+     */
+    protected HttpResponse<String> postMessage(String token, String title, String body) throws IOException, InterruptedException {
+        ObjectNode message = objectMapper.createObjectNode();
+        ObjectNode content = message.putObject("message");
+        content.put("token", token);
+        ObjectNode notification = content.putObject("notification");
+        notification.put("title", title);
+        notification.put("body", body);
 
-            int responseCode = conn.getResponseCode();
-            log.info("FCM Response Code: " + responseCode);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(fcmEndpoint))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Authorization", "Bearer " + getAccessToken())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(message)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
 
-        } catch (Exception e) {
-            log.error("Error sending FCM notification: {}", e.getMessage(), e);
+    /**
+     * Returns a valid access token, reading the service account file only the first time.
+     * 
+     * @return The OAuth access token for FCM
+     * @throws IOException if the credentials cannot be read or refreshed
+     */
+    private String getAccessToken() throws IOException {
+        GoogleCredentials current = credentials;
+        if (current == null) {
+            synchronized (this) {
+                current = credentials;
+                if (current == null) {
+                    try (InputStream in = new FileInputStream(serviceAccountPath)) {
+                        current = GoogleCredentials.fromStream(in).createScoped(Collections.singletonList(FCM_SCOPE));
+                    }
+                    credentials = current;
+                }
+            }
         }
+        current.refreshIfExpired();
+        return current.getAccessToken().getTokenValue();
     }
-    
+
     /**
      * Sends a notification to a specific user.
      * 
@@ -103,7 +286,7 @@ public class NotificationService {
             log.warn("Attempted to send notification to null user");
             return;
         }
-        
+
         String fcmToken = user.getFcmToken();
         if (fcmToken != null && !fcmToken.isEmpty()) {
             sendFcm(fcmToken, title, body);
@@ -112,33 +295,30 @@ public class NotificationService {
             log.warn("User {} has no FCM token", user.getEmail());
         }
     }
-    
+
     /**
-     * Sends a notification to multiple users.
+     * Sends a notification to multiple users and waits until every message is handled.
+     * The messages are sent in parallel on the fan-out pool.
      * 
      * @param users List of users to send the notification to
      * @param title The title of the notification
      * @param body  The body of the notification
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
     public void sendNotificationToUsers(List<User> users, String title, String body) {
         if (users == null || users.isEmpty()) {
             log.warn("Attempted to send notification to empty user list");
             return;
         }
-        
-        // Process each user - optionally could be made parallel for large user lists
-        for (User user : users) {
-            sendNotificationToUser(user, title, body);
-        }
-        
-        log.info("Sent notifications to {} users", users.size());
+
+        NotificationReport report = fanOut(users, title, body).join();
+        log.info("Sent notifications to {} users: {}", users.size(), report);
     }
-    
+
     /**
-     * Sends notifications to multiple users asynchronously using CompletableFuture.
+     * Sends notifications to multiple users asynchronously on the fan-out pool.
      * This is useful for sending many notifications without blocking.
      * 
      * @param users List of users to send the notification to
@@ -147,9 +327,94 @@ public class NotificationService {
      * @return CompletableFuture that completes when all notifications are sent
      * 
      * @author Mert Uzun
-     * @version 1.0
+     * @version 1.1
      */
     public CompletableFuture<Void> sendNotificationToUsersAsync(List<User> users, String title, String body) {
-        return CompletableFuture.runAsync(() -> sendNotificationToUsers(users, title, body));
+        return fanOut(users, title, body)
+                .thenAccept(report -> log.info("Sent notifications to {} users: {}", report.getRequested(), report));
+    }
+
+    /**
+     * Sends a notification to every user with an FCM token, in parallel on the fan-out pool.
+     * Returns at once; the future completes with the counts once every message is handled.
+     * The report lists the users whose message failed, so a caller can retry just those.
+     * 
+     * @param users List of users to send the notification to
+     * @param title The title of the notification
+     * @param body  The body of the notification
+     * @return CompletableFuture with the report of the fan-out
+     * 
+     * @author Elif Bozkurt
+     * @version 1.1
+     */
+    public CompletableFuture<NotificationReport> fanOut(List<User> users, String title, String body) {
+        long startedAt = System.currentTimeMillis();
+        List<User> recipients = users == null ? Collections.emptyList() : users;
+
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger invalidTokens = new AtomicInteger();
+        List<Long> failedUserIds = Collections.synchronizedList(new ArrayList<>());
+        int skipped = 0;
+
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (User user : recipients) {
+            String fcmToken = user == null ? null : user.getFcmToken();
+            if (fcmToken == null || fcmToken.isEmpty()) {
+                skipped++;
+                continue;
+            }
+            deliveries.add(CompletableFuture
+                    .supplyAsync(() -> deliver(fcmToken, title, body), fanOutExecutor)
+                    .exceptionally(e -> DeliveryStatus.FAILED)
+                    .thenAccept(status -> {
+                        switch (status) {
+                            case SENT -> sent.incrementAndGet();
+                            case INVALID_TOKEN -> invalidTokens.incrementAndGet();
+                            default -> {
+                                failed.incrementAndGet();
+                                if (user.getUserId() != null) {
+                                    failedUserIds.add(user.getUserId());
+                                }
+                            }
+                        }
+                    }));
+        }
+
+        int skippedUsers = skipped;
+        return CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0]))
+                .thenApply(done -> new NotificationReport(recipients.size(), sent.get(), failed.get(),
+                        invalidTokens.get(), skippedUsers, System.currentTimeMillis() - startedAt, failedUserIds));
+    }
+
+    /**
+     * Spaces out calls so that at most the given number pass per second.
+     * Callers reserve the next free slot and sleep until it comes; a rate of zero or less disables the limit.
+     */
+    private static final class RateLimiter {
+        private final long intervalNanos;
+        private final AtomicLong nextFreeSlot = new AtomicLong(System.nanoTime());
+
+        RateLimiter(int permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            while (true) {
+                long reserved = nextFreeSlot.get();
+                long now = System.nanoTime();
+                long slot = Math.max(reserved, now);
+                if (nextFreeSlot.compareAndSet(reserved, slot + intervalNanos)) {
+                    long waitNanos = slot - now;
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                    return;
+                }
+            }
+        }
     }
 }
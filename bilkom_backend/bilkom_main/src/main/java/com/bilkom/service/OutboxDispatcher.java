@@ -0,0 +1,229 @@
+package com.bilkom.service;
+
+import com.bilkom.dto.NotificationReport;
+import com.bilkom.entity.OutboxMessage;
+import com.bilkom.entity.User;
+import com.bilkom.enums.OutboxStatus;
+import com.bilkom.repository.OutboxMessageRepository;
+import com.bilkom.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that sends the messages queued in the outbox.
+ * Every bilkom.outbox.poll-interval-ms it claims due messages in batches, sends them, and marks
+ * them sent. A failed message is retried with exponential, jittered backoff; after
+ * bilkom.outbox.max-attempts it is dead-lettered and kept for inspection.
+ * 
+ * A batch is claimed in a short transaction that locks its rows with SKIP LOCKED and leases them
+ * for bilkom.outbox.lease-ms, so several instances can drain the outbox side by side and the
+ * sends themselves run outside any transaction. A message whose instance dies mid-send is picked
+ * up again once its lease runs out, so delivery is at least once.
+ * 
+ * A push notification counts as sent only if it reached every user. When some deliveries fail,
+ * the message is retried for those users alone, so the others are not notified twice.
+ * 
+ * @author Mert Uzun
+ * @version 1.1
+ */
+@Service
+public class OutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmergencyAlertService emergencyAlertService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bilkom.outbox.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${bilkom.outbox.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${bilkom.outbox.retry.base-delay-ms:30000}")
+    private long retryBaseDelayMs = 30000;
+
+    @Value("${bilkom.outbox.lease-ms:300000}")
+    private long leaseMs = 300000;
+
+    @Value("${bilkom.outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    /**
+     * Sends every message that is due, one batch at a time.
+     * 
+     * @return The number of messages handled, sent or not
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(fixedDelayString = "${bilkom.outbox.poll-interval-ms:2000}", initialDelayString = "${bilkom.outbox.poll-interval-ms:2000}",
+            scheduler = "outboxScheduler")
+    public int dispatchPending() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int handled = 0;
+        while (true) {
+            List<OutboxMessage> batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (OutboxMessage message : batch) {
+                dispatch(message);
+            }
+            handled += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * Deletes sent messages older than the retention period. Dead letters are kept.
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(cron = "0 30 3 * * ?") // Run at 03:30 every day
+    public void purgeSentMessages() {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays));
+        Integer removed = new TransactionTemplate(transactionManager)
+                .execute(status -> outboxMessageRepository.deleteSentBefore(before));
+        logger.info("Purged {} sent outbox messages", removed);
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        long now = System.currentTimeMillis();
+        List<OutboxMessage> batch = outboxMessageRepository.findDueForUpdate(new Timestamp(now), PageRequest.of(0, batchSize));
+        for (OutboxMessage message : batch) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(new Timestamp(now + leaseMs));
+        }
+        return new ArrayList<>(batch);
+    }
+
+    private void dispatch(OutboxMessage message) {
+        try {
+            send(message);
+            message.setStatus(OutboxStatus.SENT);
+            message.setSentAt(new Timestamp(System.currentTimeMillis()));
+            message.setLastError(null);
+        } catch (Exception e) {
+            if (e instanceof UndeliveredException undelivered) {
+                message.setPayload(undelivered.retryPayload);
+            }
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(OutboxStatus.DEAD);
+                logger.warn("Outbox message {} ({}) dead-lettered after {} attempts",
+                        message.getMessageId(), message.getType(), message.getAttempts(), e);
+            } else {
+                message.setNextAttemptAt(new Timestamp(System.currentTimeMillis() + retryDelay(message.getAttempts())));
+                logger.info("Outbox message {} ({}) failed attempt {}: {}",
+                        message.getMessageId(), message.getType(), message.getAttempts(), error);
+            }
+        }
+        outboxMessageRepository.save(message);
+    }
+
+    // Exponential backoff with jitter, between half and all of the nominal delay
+    private long retryDelay(int attempts) {
+        long nominal = Math.min(MAX_RETRY_DELAY_MS, retryBaseDelayMs << Math.min(attempts - 1, 20));
+        return nominal / 2 + ThreadLocalRandom.current().nextLong(nominal / 2 + 1);
+    }
+
+    private void send(OutboxMessage message) throws IOException {
+        JsonNode payload = objectMapper.readTree(message.getPayload());
+        switch (message.getType()) {
+            // Emails are queued by EmailService; wait for them so a failure is retried here
+            case VERIFICATION_EMAIL -> mailQueue.awaitSent(() -> emailService.sendVerificationEmail(
+                    payload.get("to").asText(), payload.get("url").asText()));
+            case PASSWORD_RESET_EMAIL -> mailQueue.awaitSent(() -> emailService.sendPasswordResetEmail(
+                    payload.get("to").asText(), payload.get("url").asText()));
+            case CLUB_REGISTRATION_RESULT_EMAIL -> mailQueue.awaitSent(() -> emailService.sendClubRegistrationResultEmail(
+                    payload.get("to").asText(),
+                    payload.get("clubName").asText(),
+                    payload.get("approved").asBoolean(),
+                    payload.hasNonNull("reason") ? payload.get("reason").asText() : null));
+            case USER_NOTIFICATION -> {
+                List<User> users = userRepository.findAllById(userIds(payload));
+                if (!users.isEmpty()) {
+                    requireDelivered(payload, notificationService.fanOut(users,
+                            payload.get("title").asText(), payload.get("body").asText()).join());
+                }
+            }
+            // A retry lists the donors whose notification failed; the first attempt notifies all of them
+            case EMERGENCY_ALERT -> requireDelivered(payload, payload.has("userIds")
+                    ? emergencyAlertService.notifyDonors(payload.get("alertId").asLong(), new HashSet<>(userIds(payload)))
+                    : emergencyAlertService.notifyDonors(payload.get("alertId").asLong()));
+        }
+    }
+
+    private List<Long> userIds(JsonNode payload) {
+        List<Long> userIds = new ArrayList<>();
+        payload.get("userIds").forEach(id -> userIds.add(id.asLong()));
+        return userIds;
+    }
+
+    // On a partial failure, the message is retried addressed only to the users it did not reach
+    private void requireDelivered(JsonNode payload, NotificationReport report) throws IOException {
+        if (report.getFailed() > 0) {
+            ObjectNode retry = payload.deepCopy();
+            ArrayNode userIds = retry.putArray("userIds");
+            report.getFailedUserIds().forEach(userIds::add);
+            throw new UndeliveredException(report, objectMapper.writeValueAsString(retry));
+        }
+    }
+
+    /**
+     * Thrown when a push notification could not be delivered to some of its users.
+     */
+    private static final class UndeliveredException extends RuntimeException {
+        private final String retryPayload;
+
+        private UndeliveredException(NotificationReport report, String retryPayload) {
+            super("Notification failed for " + report.getFailed() + " of " + report.getRequested() + " users");
+            this.retryPayload = retryPayload;
+        }
+    }
+}
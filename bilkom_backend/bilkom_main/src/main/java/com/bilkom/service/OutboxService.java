@@ -0,0 +1,154 @@
+package com.bilkom.service;
+
+import com.bilkom.entity.OutboxMessage;
+import com.bilkom.entity.User;
+import com.bilkom.enums.OutboxMessageType;
+import com.bilkom.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Service for queueing emails and push notifications in the outbox.
+ * Messages are stored in the caller's transaction and sent later by OutboxDispatcher, so
+ * requests never wait on SMTP or FCM, and a message is sent only if the change that caused
+ * it commits.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+@Service
+public class OutboxService {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    /**
+     * Queues an account verification email.
+     * 
+     * @param to The recipient's email address
+     * @param verificationUrl The URL for verifying the account
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueueVerificationEmail(String to, String verificationUrl) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("to", to);
+        payload.put("url", verificationUrl);
+        enqueue(OutboxMessageType.VERIFICATION_EMAIL, payload);
+    }
+
+    /**
+     * Queues a password reset email.
+     * 
+     * @param to The recipient's email address
+     * @param resetUrl The URL for resetting the password
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueuePasswordResetEmail(String to, String resetUrl) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("to", to);
+        payload.put("url", resetUrl);
+        enqueue(OutboxMessageType.PASSWORD_RESET_EMAIL, payload);
+    }
+
+    /**
+     * Queues the email telling a club head whether their club was approved.
+     * 
+     * @param to The recipient's email address
+     * @param clubName The name of the club
+     * @param approved Whether the club was approved or rejected
+     * @param reason The reason for rejection (if applicable)
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueueClubRegistrationResultEmail(String to, String clubName, boolean approved, String reason) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("to", to);
+        payload.put("clubName", clubName);
+        payload.put("approved", approved);
+        payload.put("reason", reason);
+        enqueue(OutboxMessageType.CLUB_REGISTRATION_RESULT_EMAIL, payload);
+    }
+
+    /**
+     * Queues a push notification to a user.
+     * 
+     * @param user The user to notify
+     * @param title The title of the notification
+     * @param body The body of the notification
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueueNotification(User user, String title, String body) {
+        if (user != null) {
+            enqueueNotification(List.of(user), title, body);
+        }
+    }
+
+    /**
+     * Queues one push notification to several users; it is sent to all of them at once.
+     * 
+     * @param users The users to notify
+     * @param title The title of the notification
+     * @param body The body of the notification
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueueNotification(List<User> users, String title, String body) {
+        List<Long> userIds = users == null ? List.of() : users.stream()
+                .filter(Objects::nonNull)
+                .map(User::getUserId)
+                .collect(Collectors.toList());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userIds", userIds);
+        payload.put("title", title);
+        payload.put("body", body);
+        enqueue(OutboxMessageType.USER_NOTIFICATION, payload);
+    }
+
+    /**
+     * Queues the notifications of an emergency alert to the users with a matching blood type.
+     * The donors are looked up when the message is sent.
+     * 
+     * @param alertId The ID of the saved alert
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Transactional
+    public void enqueueEmergencyAlert(Long alertId) {
+        enqueue(OutboxMessageType.EMERGENCY_ALERT, Map.of("alertId", alertId));
+    }
+
+    private void enqueue(OutboxMessageType type, Map<String, Object> payload) {
+        try {
+            outboxMessageRepository.save(new OutboxMessage(type, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " payload", e);
+        }
+    }
+}
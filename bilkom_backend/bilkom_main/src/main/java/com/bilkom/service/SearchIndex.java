@@ -0,0 +1,70 @@
+package com.bilkom.service;
+
+import com.bilkom.dto.SearchResult;
+import com.bilkom.entity.Club;
+import com.bilkom.entity.Event;
+import org.springframework.data.domain.Page;
+
+/**
+ * SearchIndex is the full-text index over events and clubs.
+ * Services push changes into it as they save, and the /search endpoint reads ranked pages from it.
+ * Changes pushed inside a transaction are applied once it commits.
+ * 
+ * @author Mert Uzun
+ * @version 1.1
+ */
+public interface SearchIndex {
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Kinds of documents kept in the index.
+     */
+    enum DocumentType { EVENT, CLUB }
+
+    /**
+     * Adds an event to the index or replaces its previous version.
+     * Events that are no longer active are removed instead.
+     * 
+     * @param event The saved event, with its tags
+     */
+    void indexEvent(Event event);
+
+    /**
+     * Removes an event from the index.
+     * 
+     * @param eventId The ID of the event
+     */
+    void removeEvent(Long eventId);
+
+    /**
+     * Adds a club to the index or replaces its previous version.
+     * Clubs that are not approved and active are removed instead.
+     * 
+     * @param club The saved club
+     */
+    void indexClub(Club club);
+
+    /**
+     * Removes a club from the index.
+     * 
+     * @param clubId The ID of the club
+     */
+    void removeClub(Long clubId);
+
+    /**
+     * Searches the index and returns one page of hits, best match first.
+     * 
+     * @param text The text typed by the user
+     * @param type Kind of documents to return, or null for both
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return Page of search results
+     */
+    Page<SearchResult> search(String text, DocumentType type, int page, int size);
+
+    /**
+     * Drops the index and builds it again from the database.
+     */
+    void rebuild();
+}
@@ -0,0 +1,149 @@
+package com.bilkom.service;
+
+import com.bilkom.entity.TagDefinition;
+import com.bilkom.repository.TagDefinitionRepository;
+import com.bilkom.repository.TagRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * TagService maintains the tag dictionary and its per-tag event counters.
+ * Tag names are stored in lower case, so every spelling of a tag shares one dictionary row.
+ * A counter holds the number of active events carrying the tag: EventService reports the tags
+ * of created events here, and of events that are deleted or stop being active, so popular tags
+ * are always one indexed read away.
+ *
+ * @author Elif Bozkurt
+ * @version 1.1
+ */
+@Service
+public class TagService {
+    private static final Logger logger = LoggerFactory.getLogger(TagService.class);
+
+    public static final int DEFAULT_POPULAR_TAG_LIMIT = 10;
+    public static final int MAX_POPULAR_TAG_LIMIT = 100;
+
+    @Autowired
+    private TagDefinitionRepository tagDefinitionRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    /**
+     * Cleans up a list of tag names coming from a client.
+     * Names are trimmed and lower-cased, and blank names and duplicates are dropped.
+     * 
+     * @param tagNames The raw tag names, may be null
+     * @return The normalized tag names
+     */
+    public static List<String> normalizeTagNames(Collection<String> tagNames) {
+        List<String> normalized = new ArrayList<>();
+        if (tagNames == null) {
+            return normalized;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String tagName : tagNames) {
+            if (tagName == null || tagName.isBlank()) {
+                continue;
+            }
+            String canonical = tagName.trim().toLowerCase(Locale.ROOT);
+            if (seen.add(canonical)) {
+                normalized.add(canonical);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Counts a new event for each of its tags, adding unknown tags to the dictionary.
+     * 
+     * @param tagNames The normalized tag names of the event
+     */
+    @Transactional
+    public void recordEventTags(Collection<String> tagNames) {
+        for (String tagName : tagNames) {
+            tagDefinitionRepository.incrementEventCount(tagName);
+        }
+    }
+
+    /**
+     * Removes an event that is deleted or no longer active from the counts of its tags.
+     * 
+     * @param tagNames The tag names of the event
+     */
+    @Transactional
+    public void forgetEventTags(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return;
+        }
+        tagDefinitionRepository.decrementEventCounts(tagNames);
+    }
+
+    /**
+     * Removes events that are no longer active from the counts of their tags.
+     * Each tag is updated once, by the number of the events carrying it.
+     * 
+     * @param eventIds The IDs of the events
+     */
+    @Transactional
+    public void forgetEventTagsOf(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        Map<String, Long> counts = tagRepository.findTagNamesByEventIds(eventIds).stream()
+            .collect(Collectors.groupingBy(TagRepository.EventTagName::getTagName, Collectors.counting()));
+        counts.forEach(tagDefinitionRepository::decrementEventCount);
+    }
+
+    /**
+     * Returns the names of all tags currently used by at least one active event, in alphabetical order.
+     * 
+     * @return List of tag names
+     */
+    public List<String> getAllTagNames() {
+        return tagDefinitionRepository.findByEventCountGreaterThanOrderByTagNameAsc(0).stream()
+            .map(TagDefinition::getTagName)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the most used tags together with their event counts.
+     * 
+     * @param limit Maximum number of tags to return
+     * @return List of tags, most used first
+     */
+    public List<TagDefinition> getPopularTags(int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_POPULAR_TAG_LIMIT));
+        return tagDefinitionRepository.findByEventCountGreaterThanOrderByEventCountDescTagNameAsc(0, PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Lower-cases the stored tag names and recomputes the dictionary from the tags of active events.
+     * Runs when the application starts, which also converts tags written before names were
+     * stored in lower case and repairs counters changed by hand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildCounters() {
+        tagRepository.lowerCaseTagNames();
+        tagDefinitionRepository.deleteAllInBatch();
+        int rows = tagDefinitionRepository.rebuildEventCounts();
+        logger.info("Rebuilt tag dictionary counters, {} rows affected", rows);
+    }
+}
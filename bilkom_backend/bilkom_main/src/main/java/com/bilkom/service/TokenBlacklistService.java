@@ -1,80 +1,188 @@
 package com.bilkom.service;
 
+import com.bilkom.entity.BlacklistedToken;
+import com.bilkom.repository.BlacklistedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Service for managing blacklisted JWT tokens.
- * We should implement a Redis-based blacklist service for production use. 
- * But we use in-memory map for now.
- * 
+ * Tokens are stored by SHA-256 hash in the token_blacklist table, so a logout survives restarts
+ * and is seen by every backend instance. Each instance keeps a Bloom filter of the stored hashes,
+ * rebuilt every bilkom.security.blacklist.refresh-ms, and a small exact cache of confirmed entries.
+ * Almost every check is answered by the filter alone; only possible hits go to the database.
+ * A token blacklisted on another instance is recognized here after the next refresh.
+ *
  * @author Mert Uzun
  * @version 1.0
  */
 @Service
 public class TokenBlacklistService {
-    
-    // In-memory map to store blacklisted tokens and their expiry time
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    // Bloom filter false positive rate; each false positive costs one primary key lookup
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Value("${bilkom.security.blacklist.expected-tokens:100000}")
+    private int expectedTokens = 100000;
+
+    @Value("${bilkom.security.blacklist.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    @Autowired
+    private BlacklistedTokenRepository blacklistedTokenRepository;
+
+    private volatile BloomFilter filter = BloomFilter.create(expectedTokens, FALSE_POSITIVE_RATE);
+
+    // Confirmed blacklisted hashes with their expiry; also covers tokens blacklisted since the last refresh
     private final Map<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
-    
-    // Executor service for cleaning up expired tokens
-    private final ScheduledExecutorService cleanupExecutor;
-    
+
+    // Hashes the filter matched but the database does not hold, forgotten on the next refresh
+    private final Set<String> falsePositives = ConcurrentHashMap.newKeySet();
+
     /**
-     * Constructor initializes the token cleanup task.
-     * 
+     * Loads the blacklist when the service starts.
+     *
      * @author Mert Uzun
      * @version 1.0
      */
-    public TokenBlacklistService() {
-        cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredTokens, 0, 1, TimeUnit.HOURS);
+    @PostConstruct
+    public void init() {
+        refresh();
     }
-    
+
     /**
      * Blacklists a JWT token until its expiry time.
-     * 
+     *
      * @param token The token to blacklist
      * @param expiryTimeMillis The expiry time of the token in milliseconds since epoch
-     * 
+     *
      * @author Mert Uzun
      * @version 1.0
      */
     public void blacklistToken(String token, long expiryTimeMillis) {
-        blacklistedTokens.put(token, expiryTimeMillis);
+        String hash = hashToken(token);
+        blacklistedTokenRepository.save(new BlacklistedToken(hash, new Timestamp(expiryTimeMillis)));
+        filter.put(hash);
+        falsePositives.remove(hash);
+        remember(hash, expiryTimeMillis);
     }
-    
+
     /**
      * Checks if a token is blacklisted.
-     * 
+     *
      * @param token The token to check
      * @return true if the token is blacklisted, false otherwise
-     * 
+     *
      * @author Mert Uzun
      * @version 1.0
      */
     public boolean isBlacklisted(String token) {
-        Long expiryTime = blacklistedTokens.get(token);
-        if (expiryTime == null) {
-            return false;
+        String hash = hashToken(token);
+        long now = System.currentTimeMillis();
+
+        Long expiryTime = blacklistedTokens.get(hash);
+        if (expiryTime != null) {
+            if (now > expiryTime) {
+                blacklistedTokens.remove(hash);
+                return false;
+            }
+            return true;
         }
-        
-        // Token is in the blacklist, check if it's expired
-        if (System.currentTimeMillis() > expiryTime) {
-            blacklistedTokens.remove(token);
+        if (!filter.mightContain(hash) || falsePositives.contains(hash)) {
             return false;
         }
-        
-        return true;
+
+        // Possible hit: confirm it against the table
+        Optional<BlacklistedToken> stored = blacklistedTokenRepository.findById(hash);
+        if (stored.isPresent() && stored.get().getExpiresAt().getTime() >= now) {
+            remember(hash, stored.get().getExpiresAt().getTime());
+            return true;
+        }
+        if (falsePositives.size() < cacheSize) {
+            falsePositives.add(hash);
+        }
+        return false;
+    }
+
+    /**
+     * Deletes expired rows and rebuilds the Bloom filter from the table, picking up tokens
+     * blacklisted on other instances.
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(fixedDelayString = "${bilkom.security.blacklist.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            blacklistedTokenRepository.deleteExpired(now);
+            List<String> hashes = blacklistedTokenRepository.findActiveTokenHashes(now);
+
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedTokens, hashes.size() * 2), FALSE_POSITIVE_RATE);
+            hashes.forEach(rebuilt::put);
+            // Entries written here while the table was being read
+            blacklistedTokens.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+            falsePositives.clear();
+            cleanupExpiredTokens();
+        } catch (RuntimeException e) {
+            // Keep the current filter; it still holds everything seen so far
+            logger.warn("Could not refresh the token blacklist", e);
+        }
+    }
+
+    /**
+     * Returns the SHA-256 hash of a token in hex, the key under which it is blacklisted.
+     *
+     * @param token The token
+     * @return The hash of the token
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void remember(String hash, long expiryTimeMillis) {
+        if (blacklistedTokens.size() >= cacheSize) {
+            cleanupExpiredTokens();
+        }
+        // When still full the entry is left to the filter and the table
+        if (blacklistedTokens.size() < cacheSize) {
+            blacklistedTokens.put(hash, expiryTimeMillis);
+        }
     }
-    
+
     /**
-     * Cleans up expired tokens from the blacklist.
-     * 
+     * Cleans up expired tokens from the exact cache.
+     *
      * @author Mert Uzun
      * @version 1.0
      */
@@ -82,4 +190,61 @@ public class TokenBlacklistService {
         long currentTime = System.currentTimeMillis();
         blacklistedTokens.entrySet().removeIf(entry -> entry.getValue() < currentTime);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Fixed-size Bloom filter over token hashes.
+     * The hashes are already uniformly distributed, so the bit positions are derived from
+     * their leading bytes by double hashing instead of hashing again.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        private BloomFilter(long bitCount, int hashCount) {
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+        }
+
+        static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+            int entries = Math.max(expectedEntries, 1);
+            long bitCount = Math.max(64, (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            int hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+            return new BloomFilter(bitCount, hashCount);
+        }
+
+        void put(String hash) {
+            long[] seeds = seeds(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(seeds, i);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String hash) {
+            long[] seeds = seeds(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(seeds, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long[] seeds, int i) {
+            return Math.floorMod(seeds[0] + i * seeds[1], bitCount);
+        }
+
+        private static long[] seeds(String hash) {
+            ByteBuffer buffer = ByteBuffer.wrap(HexFormat.of().parseHex(hash, 0, 32));
+            return new long[] { buffer.getLong(), buffer.getLong() | 1 };
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.bilkom.service;
 
 import com.bilkom.entity.User;
 import com.bilkom.dto.ClubDTO;
+import com.bilkom.dto.UserCard;
 import com.bilkom.exception.BadRequestException;
 import com.bilkom.repository.UserRepository;
+import com.bilkom.security.UserAuthorityCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -30,7 +34,10 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
     
     @Autowired
-    private EmailService emailService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
     
     // Valid blood types
     private static final Set<String> VALID_BLOOD_TYPES = new HashSet<>(
@@ -81,6 +88,22 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Gets the public card of every user.
+     * Only the fields needed for listing are selected.
+     * The list is cached in userCache until a user is added or changed; role changes made
+     * through clubs show up when the entry expires.
+     * 
+     * @return List of user cards
+     * 
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Cacheable(value = "userCache", key = "'allCards'")
+    public List<UserCard> getAllUserCards() {
+        return userRepository.findAllCards();
+    }
+
     /**
      * Deletes a user by their ID.
      * 
@@ -89,6 +112,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public void deleteUser(Long id) {
         if (!isUserExists(id)) {
             throw new BadRequestException("User not found with id: " + id);
@@ -189,6 +213,8 @@ public class UserService {
      * @param sendVerificationEmail Whether to send verification email
      * @return The created user
      */
+    @CacheEvict(value = "userCache", allEntries = true)
+    @Transactional
     public User createUser(String email, String rawPassword, String firstName, 
                           String lastName, String bilkentId, String phoneNumber, 
                           String bloodType, boolean sendVerificationEmail) {
@@ -228,9 +254,9 @@ public class UserService {
             // Save user first to get the ID
             User savedUser = userRepository.save(user);
             
-            // Send verification email
+            // Queue verification email
             String verificationUrl = "http://192.168.231.145:8080/api/auth/verify?token=" + verificationToken;
-            emailService.sendVerificationEmail(user.getEmail(), verificationUrl);
+            outboxService.enqueueVerificationEmail(user.getEmail(), verificationUrl);
             
             return savedUser;
         }
@@ -242,6 +268,7 @@ public class UserService {
      * Simple version of createUser that takes a User object
      * Useful when full object is already constructed
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public User createUser(User user) {
         return createUser(
             user.getEmail(),
@@ -264,9 +291,11 @@ public class UserService {
      * @param rawPassword Raw password if updating
      * @return Updated user
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateUser(Long id, User userDetails, boolean updatePassword, String rawPassword) {
         User existingUser = getUserById(id);
+        String previousEmail = existingUser.getEmail();
         boolean modified = false;
         
         // Update email if changed
@@ -333,7 +362,9 @@ public class UserService {
         
         // Save only if something changed
         if (modified) {
-            return userRepository.save(existingUser);
+            User saved = userRepository.save(existingUser);
+            userAuthorityCache.invalidate(previousEmail);
+            return saved;
         }
         
         return existingUser;
@@ -349,6 +380,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateUser(Long id, User userDetails) {
         return updateUser(id, userDetails, false, null);
@@ -363,6 +395,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateEmail(Long userId, String email) {
         User user = getUserById(userId);
@@ -395,9 +428,9 @@ public class UserService {
         // Save the user first to ensure it's in the database
         User savedUser = userRepository.save(user);
         
-        // Send verification email
+        // Queue verification email
         String verificationUrl = "http://192.168.231.145:8080/api/auth/verify?token=" + verificationToken;
-        emailService.sendVerificationEmail(email, verificationUrl);
+        outboxService.enqueueVerificationEmail(email, verificationUrl);
         
         return savedUser;
     }
@@ -411,6 +444,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateFirstName(Long userId, String firstName) {
         User user = getUserById(userId);
@@ -436,6 +470,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateLastName(Long userId, String lastName) {
         User user = getUserById(userId);
@@ -461,6 +496,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateBilkentId(Long userId, String bilkentId) {
         User user = getUserById(userId);
@@ -593,6 +629,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     public User updateVerificationStatus(Long userId, boolean verified) {
         User user = getUserById(userId);
         
@@ -601,7 +638,9 @@ public class UserService {
         }
         
         user.setVerified(verified);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userAuthorityCache.invalidate(saved.getEmail());
+        return saved;
     }
     
     /**
@@ -615,6 +654,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateActiveStatus(Long userId, boolean active) {
         User user = getUserById(userId);
@@ -624,7 +664,9 @@ public class UserService {
         }
         
         user.setActive(active);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userAuthorityCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     /**
@@ -684,6 +726,7 @@ public class UserService {
      * @author Mert Uzun
      * @version 1.0
      */
+    @CacheEvict(value = "userCache", allEntries = true)
     @Transactional
     public User updateAvatar(Long userId, String avatarPathName) {
         User user = getUserById(userId);
@@ -0,0 +1,45 @@
+package com.bilkom.service;
+
+import java.util.Optional;
+
+/**
+ * VerificationTokenStore keeps the tokens of club registration approval links until they are
+ * used or expire. Every backend instance must see the same tokens, since an admin may open the
+ * link on any of them.
+ * 
+ * @author Mert Uzun
+ * @version 1.0
+ */
+public interface VerificationTokenStore {
+
+    /**
+     * Stores a token for a club, replacing any previous entry with the same token.
+     * 
+     * @param token The token
+     * @param clubId The ID of the club the token approves or rejects
+     * @param expiresAtMillis When the token expires, in milliseconds since epoch
+     */
+    void save(String token, Long clubId, long expiresAtMillis);
+
+    /**
+     * Finds the club of a token that has not expired.
+     * 
+     * @param token The token
+     * @return The club ID, or empty if the token is unknown or expired
+     */
+    Optional<Long> findClubId(String token);
+
+    /**
+     * Removes a token.
+     * 
+     * @param token The token
+     */
+    void remove(String token);
+
+    /**
+     * Removes every expired token.
+     * 
+     * @return The number of tokens removed
+     */
+    int removeExpired();
+}
@@ -1,99 +1,271 @@
 package com.bilkom.service;
 
 import com.bilkom.dto.WeatherDto;
+import com.bilkom.entity.Weather;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.WeatherRepository;
+
+import jakarta.annotation.PostConstruct;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.json.JSONObject;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * WeatherService is responsible for fetching weather data from the OpenWeatherMap API.
  * It retrieves the current weather information for Bilkent, Turkey.
  *
+ * The current weather is fetched every bilkom.weather.refresh-ms and requests are answered
+ * from the latest observation, so clients never wait for OpenWeatherMap. Every observation is
+ * also saved to the weather table, which serves the history and the latest observation after
+ * a restart. When there is no recent observation, callers arriving together share a single
+ * call to the API.
+ *
  * @author Elif Bozkurt and Mert Uzun
- * @version 2.0
+ * @version 2.2
  * @since 2025-05-09
- */ 
+ */
 @Service
 public class WeatherService {
+    private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
+    private static final String OPENWEATHERMAP_URL = "https://api.openweathermap.org/data/2.5/weather";
+    private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private WeatherRepository weatherRepository;
 
     @Value("${openweathermap.api.key:1234567890abcdef}")
     private String apiKey;
-    
-    private static final String LOCATION = "Bilkent,Ankara,tr";
-    private static final String UNITS = "metric";
+
+    // Can point to a local stub of OpenWeatherMap
+    @Value("${openweathermap.api.url:" + OPENWEATHERMAP_URL + "}")
+    private String apiUrl = OPENWEATHERMAP_URL;
+
+    @Value("${openweathermap.api.location:Bilkent,Ankara,tr}")
+    private String location = "Bilkent,Ankara,tr";
+
+    @Value("${openweathermap.api.units:metric}")
+    private String units = "metric";
+
+    @Value("${bilkom.weather.refresh-ms:600000}")
+    private long refreshMs = 600000;
+
+    @Value("${bilkom.weather.timeout-ms:10000}")
+    private int timeoutMs = 10000;
+
+    @Value("${bilkom.weather.retention-days:30}")
+    private int retentionDays = 30;
+
+    private RestTemplate restTemplate;
+    private volatile Observation latest;
+    private final AtomicReference<CompletableFuture<Observation>> inFlight = new AtomicReference<>();
+
+    /**
+     * Creates the HTTP client and loads the latest stored observation, if there is one.
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @PostConstruct
+    public void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        restTemplate = new RestTemplate(requestFactory);
+
+        try {
+            weatherRepository.findTopByOrderByRetrievedAtDesc().ifPresent(stored -> latest = new Observation(toDto(stored),
+                    stored.getRetrievedAt().atZone(ZONE).toInstant().toEpochMilli()));
+        } catch (DataAccessException e) {
+            log.warn("Could not load the latest stored weather: {}", e.getMessage());
+        }
+    }
 
     /**
      * Fetches current weather data for Bilkent, Ankara.
-     * Results are cached for 30 minutes to avoid excessive API calls.
+     * The latest observation is returned without calling the API, unless it is older than
+     * twice the refresh interval. If the API then fails, the old observation is returned anyway.
      *
      * @return WeatherDto containing current weather information
-     * 
+     *
      * @author Elif Bozkurt
-     * @version 1.0
+     * @version 1.1
      */
-    @Cacheable(value = "weatherCache", key = "'currentWeather'")
     public WeatherDto getWeather() {
-        String url = String.format(
-            "https://api.openweathermap.org/data/2.5/weather?q=%s&units=%s&appid=%s",
-            LOCATION, UNITS, apiKey
-        );
-        
-        RestTemplate restTemplate = new RestTemplate();
+        Observation current = latest;
+        if (current != null && System.currentTimeMillis() - current.fetchedAt() <= 2 * refreshMs) {
+            return current.weather();
+        }
+        try {
+            return fetchShared().weather();
+        } catch (RuntimeException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.warn("Could not fetch the weather, returning the observation of {}: {}",
+                    current.weather().getTimestamp(), e.getMessage());
+            return current.weather();
+        }
+    }
+
+    /**
+     * Gets the observations of the last hours from the database, oldest first.
+     *
+     * @param hours How many hours back to go, at most the retention period
+     * @return List of WeatherDto objects, one per observation
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    public List<WeatherDto> getHistory(int hours) {
+        if (hours < 1 || hours > retentionDays * 24) {
+            throw new BadRequestException("Hours must be between 1 and " + retentionDays * 24);
+        }
+        LocalDateTime since = LocalDateTime.now(ZONE).minusHours(hours);
+        return weatherRepository.findByRetrievedAtAfterOrderByRetrievedAtAsc(since).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Fetches the current weather from OpenWeatherMap on a schedule.
+     * A failed fetch is logged and the latest observation is kept. Runs on the refresh
+     * scheduler, so a slow API never delays the other scheduled jobs.
+     *
+     * @author Mert Uzun
+     * @version 1.1
+     */
+    @Scheduled(fixedDelayString = "${bilkom.weather.refresh-ms:600000}", initialDelayString = "${bilkom.weather.initial-delay-ms:0}",
+            scheduler = "refreshScheduler")
+    public void refresh() {
+        try {
+            fetchShared();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the weather, keeping the latest observation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes observations older than the retention period.
+     *
+     * @author Mert Uzun
+     * @version 1.0
+     */
+    @Scheduled(cron = "0 45 3 * * ?") // Run at 03:45 every day
+    public void purgeOldObservations() {
+        int removed = weatherRepository.deleteRetrievedBefore(LocalDateTime.now(ZONE).minusDays(retentionDays));
+        log.info("Purged {} weather observations", removed);
+    }
+
+    /**
+     * Fetches the weather, or waits for the fetch already in progress and returns its result.
+     */
+    private Observation fetchShared() {
+        CompletableFuture<Observation> fetch = new CompletableFuture<>();
+        CompletableFuture<Observation> running = inFlight.compareAndExchange(null, fetch);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Observation observation = fetch();
+            fetch.complete(observation);
+            return observation;
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private Observation fetch() {
+        String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .queryParam("q", location)
+                .queryParam("units", units)
+                .queryParam("appid", apiKey)
+                .toUriString();
         String response = restTemplate.getForObject(url, String.class);
 
         JSONObject jsonResponse = new JSONObject(response);
-        
+        Weather weather = new Weather();
+
         // Extract basic weather information
         JSONObject weatherObj = jsonResponse.getJSONArray("weather").getJSONObject(0);
-        String description = weatherObj.getString("description");
-        String iconCode = weatherObj.getString("icon");
-        
+        weather.setDescription(weatherObj.getString("description"));
+        weather.setIcon(weatherObj.getString("icon"));
+
         // Extract main weather data
         JSONObject mainObj = jsonResponse.getJSONObject("main");
-        double temperature = mainObj.getDouble("temp");
-        double feelsLike = mainObj.getDouble("feels_like");
-        int humidity = mainObj.getInt("humidity");
-        
+        weather.setTemperature(mainObj.getDouble("temp"));
+        weather.setFeelsLike(mainObj.getDouble("feels_like"));
+        weather.setHumidity(mainObj.getInt("humidity"));
+
         // Extract wind data
         JSONObject windObj = jsonResponse.getJSONObject("wind");
-        double windSpeed = windObj.getDouble("speed");
-        String windDirection = getWindDirection(windObj.optDouble("deg", 0));
-        
+        weather.setWindSpeed(windObj.getDouble("speed"));
+        weather.setWindDirection(getWindDirection(windObj.optDouble("deg", 0)));
+
         // Extract location
-        String location = jsonResponse.getString("name") + ", Ankara";
-        
-        // Format current timestamp
-        long timestamp = jsonResponse.getLong("dt") * 1000; // Convert to milliseconds
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-        sdf.setTimeZone(TimeZone.getTimeZone("Europe/Istanbul"));
-        String formattedTime = sdf.format(new Date(timestamp));
-        
+        weather.setLocation(jsonResponse.getString("name") + ", Ankara");
+
+        // Observation time as reported by the API, in seconds
+        weather.setObservedAt(LocalDateTime.ofInstant(Instant.ofEpochSecond(jsonResponse.getLong("dt")), ZONE));
+        long now = System.currentTimeMillis();
+        weather.setRetrievedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZONE));
+
+        try {
+            weatherRepository.save(weather);
+        } catch (DataAccessException e) {
+            log.warn("Could not store the weather observation: {}", e.getMessage());
+        }
+        Observation observation = new Observation(toDto(weather), now);
+        latest = observation;
+        return observation;
+    }
+
+    private WeatherDto toDto(Weather weather) {
+        LocalDateTime observedAt = weather.getObservedAt() != null ? weather.getObservedAt() : weather.getRetrievedAt();
         return new WeatherDto(
-            description,
-            temperature,
-            feelsLike,
-            humidity,
-            windSpeed,
-            windDirection,
-            iconCode,
-            location,
-            formattedTime
+            weather.getDescription(),
+            weather.getTemperature(),
+            weather.getFeelsLike(),
+            weather.getHumidity(),
+            weather.getWindSpeed(),
+            weather.getWindDirection(),
+            weather.getIcon(),
+            weather.getLocation(),
+            observedAt.format(TIMESTAMP_FORMAT)
         );
     }
-    
+
     /**
      * Converts wind degrees to cardinal direction
-     * 
+     *
      * @param degrees Wind direction in degrees
      * @return Cardinal direction as string (N, NE, E, etc.)
-     * 
+     *
      * @author Mert Uzun
      * @version 1.0
      * @since 2025-05-09
@@ -102,4 +274,9 @@ public class WeatherService {
         String[] directions = {"N", "NE", "E", "SE", "S", "SW", "W", "NW", "N"};
         return directions[(int) Math.round((degrees % 360) / 45)];
     }
+
+    /**
+     * An observation and the time it was fetched, in milliseconds.
+     */
+    private record Observation(WeatherDto weather, long fetchedAt) {}
 }
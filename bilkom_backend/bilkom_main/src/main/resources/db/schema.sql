@@ -20,6 +20,13 @@ CREATE TABLE users (
     verification_token VARCHAR(255)
 );
 
+-- Table for revoked JWT tokens, stored by SHA-256 hash until they would have expired
+CREATE TABLE token_blacklist (
+    token_hash CHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    INDEX idx_token_blacklist_expires_at (expires_at)
+);
+
 -- Table for clubs
 CREATE TABLE clubs (
     club_id INT PRIMARY KEY DEFAULT 1 AUTO_INCREMENT,
@@ -32,6 +39,14 @@ CREATE TABLE clubs (
     FOREIGN KEY (club_head) REFERENCES users(user_id)
 );
 
+-- Table for club registration approval link tokens, swept once they expire
+CREATE TABLE club_verification_tokens (
+    token VARCHAR(64) PRIMARY KEY,
+    club_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    INDEX idx_club_verification_tokens_expires_at (expires_at)
+);
+
 -- Table for club_executives
 CREATE TABLE club_executives (
     executive_id BIGINT PRIMARY KEY,
@@ -85,6 +100,15 @@ CREATE TABLE tags (
     FOREIGN KEY (user_id) REFERENCES users(user_id)
 );
 
+-- Table for the tag dictionary, one row per distinct tag with the number of events using it
+CREATE TABLE tag_dictionary (
+    tag_definition_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    tag_name VARCHAR(255) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_tag_dictionary_name (tag_name),
+    INDEX idx_tag_dictionary_event_count (event_count)
+);
+
 -- Table for event participants
 CREATE TABLE event_participants (
     event_id BIGINT,
@@ -94,6 +118,18 @@ CREATE TABLE event_participants (
     FOREIGN KEY (user_id) REFERENCES users(user_id)
 );
 
+-- Table for event waitlists, served in waitlist_id order
+CREATE TABLE event_waitlist (
+    waitlist_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    event_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    joined_at DATETIME NOT NULL,
+    UNIQUE KEY uk_event_waitlist_event_user (event_id, user_id),
+    INDEX idx_event_waitlist_event_id (event_id, waitlist_id),
+    FOREIGN KEY (event_id) REFERENCES events(event_id),
+    FOREIGN KEY (user_id) REFERENCES users(user_id)
+);
+
 -- Tablo for emergency alerts
 CREATE TABLE emergency_alerts  (
     alert_id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -102,9 +138,54 @@ CREATE TABLE emergency_alerts  (
     phone_number VARCHAR(15) NOT NULL,
     alert_description TEXT NOT NULL,
     alert_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    is_active BOOLEAN DEFAULT TRUE 
+    is_active BOOLEAN DEFAULT TRUE,
+    message_id VARCHAR(255),
+    UNIQUE KEY uk_emergency_alerts_message_id (message_id)
+);
+
+-- Table for the last mailbox UID read per folder, valid while the folder keeps its UIDVALIDITY
+CREATE TABLE mail_sync_checkpoints (
+    folder_name VARCHAR(255) PRIMARY KEY,
+    uid_validity BIGINT NOT NULL,
+    last_uid BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+-- Table for emails and push notifications waiting to be sent, written with the change that caused them
+CREATE TABLE outbox_messages (
+    message_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    message_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    sent_at DATETIME,
+    last_error VARCHAR(1000),
+    INDEX idx_outbox_messages_status_next_attempt (status, next_attempt_at)
+);
+
+-- Table for the weather observations fetched from OpenWeatherMap
+CREATE TABLE weather (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    description VARCHAR(255),
+    temperature DOUBLE NOT NULL,
+    feels_like DOUBLE NOT NULL,
+    humidity INT NOT NULL,
+    wind_speed DOUBLE NOT NULL,
+    wind_direction VARCHAR(3),
+    icon VARCHAR(255),
+    location VARCHAR(255),
+    observed_at DATETIME,
+    retrieved_at DATETIME NOT NULL,
+    INDEX idx_weather_retrieved_at (retrieved_at)
 );
 
 -- Add index to event_participants for faster user and event lookups
 ALTER TABLE event_participants ADD INDEX idx_event_participants_user (user_id);
-ALTER TABLE event_participants ADD INDEX idx_event_participants_event (event_id);
\ No newline at end of file
+ALTER TABLE event_participants ADD INDEX idx_event_participants_event (event_id);
+
+-- Add indexes to events for active/past listings and creator lookups
+ALTER TABLE events ADD INDEX idx_events_active_date (is_active, event_date);
+ALTER TABLE events ADD INDEX idx_events_date (event_date);
+ALTER TABLE events ADD INDEX idx_events_creator (creator_id);
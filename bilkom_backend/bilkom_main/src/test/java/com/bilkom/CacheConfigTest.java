@@ -0,0 +1,101 @@
+package com.bilkom;
+
+import com.bilkom.config.CacheConfig;
+import com.bilkom.dto.CacheStats;
+import com.bilkom.service.CacheStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the limits, expiry and statistics of the application caches, without the application context.
+ */
+public class CacheConfigTest {
+
+    private javax.cache.CacheManager jCacheManager;
+    private JCacheCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bilkom.cache.events.ttl-seconds", "1")
+                .withProperty("bilkom.cache.club.max-entries", "3")
+                .withProperty("bilkom.cache.hibernate.tags.offheap-mb", "1");
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "environment", environment);
+        jCacheManager = config.jCacheManager();
+        cacheManager = (JCacheCacheManager) config.cacheManager(jCacheManager);
+        cacheManager.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jCacheManager.close();
+    }
+
+    @Test
+    public void testEntriesExpireAfterTimeToLive() throws InterruptedException {
+        Cache events = cacheManager.getCache("eventsCache");
+        events.put("active", "concert");
+        assertEquals("concert", events.get("active", String.class));
+
+        Thread.sleep(1500);
+
+        assertNull(events.get("active"), "The listing should be gone after its time to live");
+    }
+
+    @Test
+    public void testCacheIsBoundedAndCountsEvictions() {
+        Cache clubs = cacheManager.getCache("clubCache");
+        for (long id = 1; id <= 10; id++) {
+            clubs.put(id, "club-" + id);
+        }
+        long present = 0;
+        for (long id = 1; id <= 10; id++) {
+            if (clubs.get(id) != null) {
+                present++;
+            }
+        }
+
+        assertTrue(present <= 3, "At most 3 clubs should be kept, found " + present);
+        CacheStats stats = statsOf("clubCache");
+        assertTrue(stats.getEvictions() >= 7);
+        assertEquals(present, stats.getHits());
+        assertEquals(10 - present, stats.getMisses());
+        assertEquals(10, stats.getPuts());
+    }
+
+    @Test
+    public void testOffHeapCacheStoresSerializableValues() {
+        Cache tags = cacheManager.getCache("tags");
+        tags.put(1L, "conference");
+
+        assertEquals("conference", tags.get(1L, String.class));
+    }
+
+    @Test
+    public void testHibernateRegionsAreDefinedWithStatistics() {
+        for (String region : List.of("users", "clubs", "clubs.executives", "club_members",
+                "club_executives", "tags", "default-query-results-region", "default-update-timestamps-region")) {
+            assertNotNull(jCacheManager.getCache(region), "Missing region " + region);
+            assertEquals(0, statsOf(region).getPuts());
+        }
+    }
+
+    private CacheStats statsOf(String cacheName) {
+        CacheStatisticsService statisticsService = new CacheStatisticsService();
+        ReflectionTestUtils.setField(statisticsService, "jCacheManager", jCacheManager);
+        return statisticsService.getCacheStats().stream()
+                .filter(stats -> stats.getCacheName().equals(cacheName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,152 @@
+package com.bilkom;
+
+import com.bilkom.entity.Club;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.User;
+import com.bilkom.enums.ClubRegistrationStatus;
+import com.bilkom.repository.EventRepository;
+import com.bilkom.repository.EventTagQueryRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements run by the batched club event queries of the executive dashboards,
+ * against an in-memory database in MySQL mode and without the second-level cache.
+ */
+public class ClubEventQueryCountTest {
+
+    private static final int CLUBS = 3;
+    private static final int EVENTS_PER_CLUB = 4;
+
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private final List<Long> clubIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:clubevents;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.bilkom.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        clubIds.clear();
+        for (int i = 0; i < CLUBS; i++) {
+            saveClubWithEvents(i);
+        }
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testDashboardQueriesRunOneStatement() {
+        Date today = Date.valueOf(LocalDate.now());
+        inTransaction(em -> {
+            EventRepository repository = eventRepository(em);
+
+            List<Event> all = repository.findByClubIds(clubIds);
+            assertEquals(CLUBS * EVENTS_PER_CLUB, all.size());
+            for (Event event : all) {
+                assertTrue(clubIds.contains(event.getClub().getClubId()));
+                assertNotNull(event.getCreator().getEmail());
+            }
+            assertEquals(1, statistics.getPrepareStatementCount(), "Clubs and club heads should not be loaded");
+
+            statistics.clear();
+            assertEquals(CLUBS * EVENTS_PER_CLUB / 2, repository.findCurrentByClubIds(clubIds, today).size());
+            assertEquals(CLUBS * EVENTS_PER_CLUB / 2, repository.findPastByClubIds(clubIds, today).size());
+            assertEquals(2, statistics.getPrepareStatementCount());
+        });
+    }
+
+    private EventRepository eventRepository(EntityManager em) {
+        EventTagQueryRepositoryImpl tagQueries = new EventTagQueryRepositoryImpl();
+        ReflectionTestUtils.setField(tagQueries, "entityManager", em);
+        return new JpaRepositoryFactory(em).getRepository(EventRepository.class, RepositoryFragments.just(tagQueries));
+    }
+
+    // Every club has its own head, and every event its own creator, so nothing is shared between rows
+    private void saveClubWithEvents(int index) {
+        inTransaction(em -> {
+            Club club = new Club();
+            club.setClubName("Club " + index);
+            club.setClubDescription("Club description");
+            club.setClubHead(saveUser(em, "head" + index));
+            club.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            club.setStatus(ClubRegistrationStatus.APPROVED);
+            em.persist(club);
+
+            for (int i = 0; i < EVENTS_PER_CLUB; i++) {
+                Event event = new Event();
+                event.setEventName("Event " + index + "-" + i);
+                event.setEventDescription("Event description");
+                event.setEventLocation("Main Campus");
+                event.setEventDate(Date.valueOf(LocalDate.now().plusDays(i % 2 == 0 ? 7 : -7)));
+                event.setMaxParticipants(10);
+                event.setIsClubEvent(true);
+                event.setActive(true);
+                event.setClub(club);
+                event.setCreator(saveUser(em, "creator" + index + "-" + i));
+                em.persist(event);
+            }
+            clubIds.add(club.getClubId());
+        });
+    }
+
+    private User saveUser(EntityManager em, String name) {
+        User user = new User();
+        user.setEmail(name + "@bilkent.edu.tr");
+        user.setPasswordHash("hash");
+        user.setFirstName(name);
+        user.setLastName("User");
+        user.setBilkentId(name);
+        user.setPhoneNumber("555" + name);
+        user.setBloodType("A+");
+        em.persist(user);
+        return user;
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
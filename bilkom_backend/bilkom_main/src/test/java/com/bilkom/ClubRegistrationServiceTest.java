@@ -12,6 +12,7 @@ import com.bilkom.repository.UserRepository;
 import com.bilkom.service.ClubRegistrationService;
 import com.bilkom.service.EmailService;
 import com.bilkom.service.NotificationService;
+import com.bilkom.service.VerificationTokenStore;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.AfterEach;
@@ -53,6 +54,9 @@ public class ClubRegistrationServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerificationTokenStore verificationTokenStore;
+
     @MockBean
     private EmailService emailService;
 
@@ -255,6 +259,26 @@ public class ClubRegistrationServiceTest {
         // In a real world scenario, we might have a test email service that captures tokens
     }
 
+    @Test
+    public void testStoredTokenLifecycle() {
+        String token = "stored_token_" + System.currentTimeMillis();
+        clubRegistrationService.setTestToken(token, pendingClub.getClubId());
+        assertEquals(pendingClub.getClubId(), clubRegistrationService.getClubIdByToken(token));
+
+        clubRegistrationService.removeToken(token);
+        assertNull(clubRegistrationService.getClubIdByToken(token));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejectedAndSwept() {
+        String token = "expired_token_" + System.currentTimeMillis();
+        verificationTokenStore.save(token, pendingClub.getClubId(), System.currentTimeMillis() - 1000);
+
+        assertNull(clubRegistrationService.getClubIdByToken(token));
+        clubRegistrationService.sweepExpiredTokens();
+        assertEquals(0, verificationTokenStore.removeExpired(), "The sweep should have removed every expired token");
+    }
+
     private User createUser(String email, UserRole role) {
         User user = new User();
         user.setEmail(email);
@@ -24,9 +24,6 @@ import jakarta.mail.MessagingException;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.Map;
-import java.util.HashMap;
-import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -83,18 +80,6 @@ public class ClubRegistrationTest {
         // Ensure unique club name for each test
         testClubName = "Test Club " + UUID.randomUUID().toString().substring(0, 8);
         
-        // Initialize the verificationTokens map in ClubRegistrationService
-        Field tokensField = ClubRegistrationService.class.getDeclaredField("verificationTokens");
-        tokensField.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        Map<String, Long> tokensMap = (Map<String, Long>) tokensField.get(clubRegistrationService);
-        
-        // If the tokens map is null, create a new one
-        if (tokensMap == null) {
-            tokensMap = new HashMap<>();
-            tokensField.set(clubRegistrationService, tokensMap);
-        }
-        
         // Configure mail sender mock to not throw exceptions
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
     }
@@ -4,6 +4,7 @@ import com.bilkom.dto.AuthResponse;
 import com.bilkom.dto.ClubDTO;
 import com.bilkom.dto.ClubRegistrationRequestDTO;
 import com.bilkom.dto.EventDto;
+import com.bilkom.dto.EventSummary;
 import com.bilkom.dto.RegistrationRequest;
 import com.bilkom.entity.Club;
 import com.bilkom.entity.ClubMember;
@@ -277,7 +278,7 @@ public class CompleteFlowTest {
         assertFalse(member2Joined, "Member 2 should have withdrawn from the event");
         
         // Step 9: Test getting events by user
-        List<Event> eventsJoinedByMember1 = eventService.getEventsUserJoined(member1.getEmail());
+        List<EventSummary> eventsJoinedByMember1 = eventService.getEventSummariesUserJoined(member1.getEmail());
         assertEquals(1, eventsJoinedByMember1.size(), "Member 1 should have joined 1 event");
         assertEquals(eventId, eventsJoinedByMember1.get(0).getEventId(), "Event ID should match");
         
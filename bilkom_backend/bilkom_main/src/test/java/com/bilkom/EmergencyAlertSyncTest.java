@@ -0,0 +1,215 @@
+package com.bilkom;
+
+import com.bilkom.entity.EmergencyAlert;
+import com.bilkom.entity.MailSyncCheckpoint;
+import com.bilkom.repository.EmergencyAlertRepository;
+import com.bilkom.repository.MailSyncCheckpointRepository;
+import com.bilkom.service.EmergencyAlertIdleListener;
+import com.bilkom.service.EmergencyAlertService;
+import com.bilkom.service.OutboxService;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the incremental mailbox sync of EmergencyAlertService and the IMAP IDLE listener against
+ * a GreenMail IMAP server, without the application context.
+ */
+public class EmergencyAlertSyncTest {
+
+    private static final String MAILBOX = "alerts@bilkent.edu.tr";
+    private static final String ALERT_SUBJECT = "ACİL KAN İHTİYACI";
+
+    private GreenMail greenMail;
+    private GreenMailUser mailUser;
+    private EmergencyAlertService alertService;
+    private OutboxService outboxService;
+    private MailSyncCheckpointRepository checkpointRepository;
+    private EmergencyAlertIdleListener idleListener;
+    private final List<EmergencyAlert> savedAlerts = new CopyOnWriteArrayList<>();
+    private final Map<String, MailSyncCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        startServer(0);
+
+        AtomicLong ids = new AtomicLong();
+        EmergencyAlertRepository alertRepository = mock(EmergencyAlertRepository.class);
+        when(alertRepository.save(any(EmergencyAlert.class))).thenAnswer(invocation -> {
+            EmergencyAlert alert = invocation.getArgument(0);
+            alert.setAlertId(ids.incrementAndGet());
+            savedAlerts.add(alert);
+            return alert;
+        });
+        when(alertRepository.existsByMessageId(anyString())).thenAnswer(invocation ->
+                savedAlerts.stream().anyMatch(a -> invocation.getArgument(0).equals(a.getMessageId())));
+
+        checkpointRepository = mock(MailSyncCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        when(checkpointRepository.save(any(MailSyncCheckpoint.class))).thenAnswer(invocation -> {
+            MailSyncCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getFolderName(), checkpoint);
+            return checkpoint;
+        });
+
+        outboxService = mock(OutboxService.class);
+        alertService = new EmergencyAlertService();
+        ReflectionTestUtils.setField(alertService, "emergencyAlertRepository", alertRepository);
+        ReflectionTestUtils.setField(alertService, "mailSyncCheckpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(alertService, "outboxService", outboxService);
+        ReflectionTestUtils.setField(alertService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(alertService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(alertService, "email", MAILBOX);
+        ReflectionTestUtils.setField(alertService, "appPassword", "app-password");
+        ReflectionTestUtils.setField(alertService, "imapProtocol", "imap");
+        ReflectionTestUtils.setField(alertService, "imapHost", "localhost");
+        ReflectionTestUtils.setField(alertService, "imapPort", greenMail.getImap().getPort());
+        ReflectionTestUtils.setField(alertService, "folderName", "INBOX");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (idleListener != null) {
+            idleListener.stop();
+        }
+        alertService.closeStore();
+        greenMail.stop();
+    }
+
+    private void startServer(int port) {
+        greenMail = new GreenMail(new ServerSetup(port, "localhost", ServerSetup.PROTOCOL_IMAP));
+        greenMail.start();
+        mailUser = greenMail.setUser(MAILBOX, MAILBOX, "app-password");
+    }
+
+    private void startIdleListener() {
+        idleListener = new EmergencyAlertIdleListener();
+        ReflectionTestUtils.setField(idleListener, "emergencyAlertService", alertService);
+        ReflectionTestUtils.setField(idleListener, "initialReconnectDelayMs", 50L);
+        ReflectionTestUtils.setField(idleListener, "maxReconnectDelayMs", 200L);
+        idleListener.start();
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(message);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private void deliver(String messageId, String subject, String body) throws Exception {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties())) {
+            @Override
+            protected void updateMessageID() throws jakarta.mail.MessagingException {
+                setHeader("Message-ID", messageId);
+            }
+        };
+        message.setFrom(new InternetAddress("kizilay@bilkent.edu.tr"));
+        message.setRecipient(jakarta.mail.Message.RecipientType.TO, new InternetAddress(MAILBOX));
+        message.setSubject(subject, "UTF-8");
+        message.setSentDate(new Date());
+        message.setText(body, "UTF-8");
+        message.saveChanges();
+        mailUser.deliver(message);
+    }
+
+    @Test
+    public void testOnlyNewMessagesAreRead() throws Exception {
+        deliver("<alert-1@bilkent.edu.tr>", ALERT_SUBJECT + " - Bilkent", "A Rh (+) kan aranıyor. 0532 123 45 67");
+        deliver("<news-1@bilkent.edu.tr>", "Weekly news", "Nothing urgent");
+
+        List<EmergencyAlert> first = alertService.fetchEmergencyAlerts();
+        List<EmergencyAlert> second = alertService.fetchEmergencyAlerts();
+
+        assertEquals(1, first.size());
+        assertEquals("<alert-1@bilkent.edu.tr>", first.get(0).getMessageId());
+        assertEquals("A Rh (+)", first.get(0).getBloodType());
+        assertTrue(second.isEmpty());
+        assertEquals(2, checkpoints.get("INBOX").getLastUid());
+
+        deliver("<alert-2@bilkent.edu.tr>", ALERT_SUBJECT, "0 Rh (-) kan aranıyor.");
+        List<EmergencyAlert> third = alertService.fetchEmergencyAlerts();
+
+        assertEquals(1, third.size());
+        assertEquals("<alert-2@bilkent.edu.tr>", third.get(0).getMessageId());
+        assertEquals(2, savedAlerts.size());
+        verify(outboxService, times(2)).enqueueEmergencyAlert(anyLong());
+    }
+
+    @Test
+    public void testRescanAfterUidValidityChangeDoesNotDuplicate() throws Exception {
+        deliver("<alert-1@bilkent.edu.tr>", ALERT_SUBJECT, "B Rh (+) kan aranıyor.");
+        alertService.fetchEmergencyAlerts();
+
+        // The server renumbered the folder, so the stored checkpoint no longer applies
+        checkpoints.get("INBOX").setUidValidity(-1);
+        List<EmergencyAlert> rescanned = alertService.fetchEmergencyAlerts();
+
+        assertTrue(rescanned.isEmpty());
+        assertEquals(1, savedAlerts.size());
+        verify(outboxService, times(1)).enqueueEmergencyAlert(anyLong());
+    }
+
+    @Test
+    public void testConnectionIsReopenedAfterFailure() throws Exception {
+        alertService.fetchEmergencyAlerts();
+        alertService.closeStore();
+        deliver("<alert-1@bilkent.edu.tr>", ALERT_SUBJECT, "AB Rh (-) kan aranıyor.");
+
+        assertEquals(1, alertService.fetchEmergencyAlerts().size());
+    }
+
+    @Test
+    public void testIdleListenerReadsNewAlertWithoutPolling() throws Exception {
+        startIdleListener();
+        await(alertService::isPushIngestionActive, "The listener should connect");
+
+        deliver("<alert-1@bilkent.edu.tr>", ALERT_SUBJECT, "A Rh (-) kan aranıyor.");
+
+        await(() -> savedAlerts.size() == 1, "The new alert should be read through IDLE");
+        assertEquals("<alert-1@bilkent.edu.tr>", savedAlerts.get(0).getMessageId());
+    }
+
+    @Test
+    public void testIdleListenerReconnectsAndPollingCoversTheGap() throws Exception {
+        startIdleListener();
+        await(alertService::isPushIngestionActive, "The listener should connect");
+        int port = greenMail.getImap().getPort();
+
+        greenMail.stop();
+        await(() -> !alertService.isPushIngestionActive(), "Polling should take over when the connection drops");
+
+        startServer(port);
+        await(alertService::isPushIngestionActive, "The listener should reconnect");
+        deliver("<alert-2@bilkent.edu.tr>", ALERT_SUBJECT, "B Rh (+) kan aranıyor.");
+
+        await(() -> savedAlerts.size() == 1, "Alerts should be read again after reconnecting");
+    }
+}
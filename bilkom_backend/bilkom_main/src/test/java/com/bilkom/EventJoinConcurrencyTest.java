@@ -0,0 +1,206 @@
+package com.bilkom;
+
+import com.bilkom.dto.EventDto;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.User;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.EventParticipantRepository;
+import com.bilkom.repository.EventRepository;
+import com.bilkom.repository.UserRepository;
+import com.bilkom.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for seat reservation.
+ * Many users join the same small event at once; the event must never be overbooked
+ * and its counter must match the participant rows.
+ *
+ * @author Elif Bozkurt
+ * @version 1.0
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventJoinConcurrencyTest {
+
+    private static final int SEATS = 10;
+    private static final int JOINERS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventParticipantRepository participantRepository;
+
+    private User createUniqueUser() {
+        String email = "test_" + UUID.randomUUID().toString().substring(0, 8) + "@bilkent.edu.tr";
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("testPassword123");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setBilkentId(UUID.randomUUID().toString().substring(0, 11));
+        user.setPhoneNumber("555" + (int)(Math.random()*10000000));
+        user.setBloodType("A+");
+        user.setActive(true);
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+
+    private Event createSmallEvent(User creator) {
+        EventDto eventDto = new EventDto();
+        eventDto.setName("Crowded Event " + UUID.randomUUID().toString().substring(0, 8));
+        eventDto.setDescription("Concurrency test event");
+        eventDto.setLocation("Test Location");
+        eventDto.setEventDate(new Date(System.currentTimeMillis() + 86400000)); // Tomorrow
+        eventDto.setMaxParticipants(SEATS);
+        eventDto.setIsClubEvent(false);
+        eventDto.setTags(new ArrayList<>());
+        return eventService.createEvent(eventDto, creator.getEmail());
+    }
+
+    private int joinConcurrently(Long eventId, List<String> emails) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(emails.size());
+        AtomicInteger joined = new AtomicInteger();
+
+        for (String email : emails) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    eventService.joinEvent(eventId, email);
+                    joined.incrementAndGet();
+                } catch (Exception e) {
+                    // "Event is full" and duplicate joins are expected here
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(2, TimeUnit.MINUTES), "Joins did not finish in time");
+        executor.shutdown();
+        return joined.get();
+    }
+
+    @Test
+    public void testConcurrentJoinsNeverOverbook() throws InterruptedException {
+        Event event = createSmallEvent(createUniqueUser());
+
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            emails.add(createUniqueUser().getEmail());
+        }
+
+        int joined = joinConcurrently(event.getEventId(), emails);
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        long rows = participantRepository.countByEventEventId(event.getEventId());
+
+        assertEquals(SEATS, joined, "Exactly as many joins as seats should succeed");
+        assertEquals(SEATS, reloaded.getCurrentParticipantsNumber());
+        assertEquals(SEATS, rows, "Participant rows should match the seat counter");
+    }
+
+    @Test
+    public void testSameUserJoiningTwiceConcurrentlyTakesOneSeat() throws InterruptedException {
+        Event event = createSmallEvent(createUniqueUser());
+        User joiner = createUniqueUser();
+
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            emails.add(joiner.getEmail());
+        }
+
+        int joined = joinConcurrently(event.getEventId(), emails);
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(1, joined);
+        assertEquals(1, reloaded.getCurrentParticipantsNumber());
+        assertEquals(1, participantRepository.countByEventEventId(event.getEventId()));
+    }
+
+    @Test
+    public void testWithdrawAndRejoinKeepCounterConsistent() throws InterruptedException {
+        Event event = createSmallEvent(createUniqueUser());
+
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            emails.add(createUniqueUser().getEmail());
+        }
+        assertEquals(SEATS, joinConcurrently(event.getEventId(), emails));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(emails.size() * 2);
+        for (String email : emails) {
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> {
+                    try {
+                        eventService.withdrawFromEvent(event.getEventId(), email);
+                    } catch (Exception e) {
+                        // The second withdrawal of the same user is expected to fail
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES), "Withdrawals did not finish in time");
+        executor.shutdown();
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(0, reloaded.getCurrentParticipantsNumber());
+        assertEquals(0, participantRepository.countByEventEventId(event.getEventId()));
+    }
+
+    @Test
+    public void testUpdateKeepsCounterAndCapacityAboveParticipants() throws InterruptedException {
+        Event event = createSmallEvent(createUniqueUser());
+
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            emails.add(createUniqueUser().getEmail());
+        }
+        assertEquals(3, joinConcurrently(event.getEventId(), emails));
+
+        EventDto dto = new EventDto();
+        dto.setName("Renamed Event");
+        dto.setDescription(event.getEventDescription());
+        dto.setLocation(event.getEventLocation());
+        dto.setEventDate(event.getEventDate());
+        dto.setMaxParticipants(SEATS);
+        eventService.updateEvent(event.getEventId(), dto);
+
+        dto.setMaxParticipants(2);
+        assertThrows(BadRequestException.class, () -> eventService.updateEvent(event.getEventId(), dto));
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals("Renamed Event", reloaded.getEventName());
+        assertEquals(SEATS, reloaded.getMaxParticipants());
+        assertEquals(3, reloaded.getCurrentParticipantsNumber(), "Editing an event should not reset its seats");
+        assertEquals(3, participantRepository.countByEventEventId(event.getEventId()));
+    }
+}
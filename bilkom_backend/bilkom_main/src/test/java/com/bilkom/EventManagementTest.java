@@ -1,6 +1,7 @@
 package com.bilkom;
 
 import com.bilkom.dto.EventDto;
+import com.bilkom.dto.EventSummary;
 import com.bilkom.entity.Club;
 import com.bilkom.entity.Event;
 import com.bilkom.entity.User;
@@ -142,7 +143,7 @@ public class EventManagementTest {
         Event event = createUniqueEvent(user, club);
         eventService.joinEvent(event.getEventId(), user.getEmail());
         eventService.withdrawFromEvent(event.getEventId(), user.getEmail());
-        Event updatedEvent = eventRepository.findById(event.getEventId()).orElseThrow();
+        Event updatedEvent = eventRepository.findWithParticipantsByEventId(event.getEventId()).orElseThrow();
         assertFalse(updatedEvent.getParticipants().stream()
                 .anyMatch(p -> p.getUser().getEmail().equals(user.getEmail())));
     }
@@ -152,7 +153,7 @@ public class EventManagementTest {
         User user = createUniqueUser();
         Club club = createUniqueClub(user);
         Event event = createUniqueEvent(user, club);
-        List<Event> events = eventService.listAllEvents();
+        List<EventSummary> events = eventService.listActiveEventSummaries();
         assertFalse(events.isEmpty());
         assertTrue(events.stream().anyMatch(e -> e.getEventId().equals(event.getEventId())));
     }
@@ -235,9 +236,9 @@ public class EventManagementTest {
         final Long eventId = updatedEvent.getEventId();
         
         // Verify participants via joined events query
-        List<Event> participantEvents1 = eventService.getEventsUserJoined(participant1.getEmail());
-        List<Event> participantEvents2 = eventService.getEventsUserJoined(participant2.getEmail());
-        List<Event> participantEvents3 = eventService.getEventsUserJoined(participant3.getEmail());
+        List<EventSummary> participantEvents1 = eventService.getEventSummariesUserJoined(participant1.getEmail());
+        List<EventSummary> participantEvents2 = eventService.getEventSummariesUserJoined(participant2.getEmail());
+        List<EventSummary> participantEvents3 = eventService.getEventSummariesUserJoined(participant3.getEmail());
         
         assertTrue(participantEvents1.stream().anyMatch(e -> e.getEventId().equals(eventId)), 
                    "Participant 1 should have the event in their joined events");
@@ -368,13 +369,13 @@ public class EventManagementTest {
         Event pastEvent = eventService.createEvent(eventDto, creator.getEmail());
         
         // Verify it's in the past events list
-        List<Event> pastEvents = eventService.listPastEvents();
+        List<EventSummary> pastEvents = eventService.listPastEventSummaries();
         assertTrue(pastEvents.stream()
             .anyMatch(e -> e.getEventId().equals(pastEvent.getEventId())),
             "Event with past date should be identified as a past event");
             
         // Verify it's in the creator's past events
-        List<Event> creatorPastEvents = eventService.getPastEventsCreatedByUser(creator.getEmail());
+        List<EventSummary> creatorPastEvents = eventService.getPastEventSummariesCreatedByUser(creator.getEmail());
         assertTrue(creatorPastEvents.stream()
             .anyMatch(e -> e.getEventId().equals(pastEvent.getEventId())),
             "Event with past date should be in creator's past events");
@@ -407,7 +408,7 @@ public class EventManagementTest {
         Event futureEvent = eventService.createEvent(eventDto, creator.getEmail());
         
         // Verify it's NOT in past events initially
-        List<Event> initialPastEvents = eventService.listPastEvents();
+        List<EventSummary> initialPastEvents = eventService.listPastEventSummaries();
         assertFalse(initialPastEvents.stream()
             .anyMatch(e -> e.getEventId().equals(futureEvent.getEventId())),
             "Future event should not be in past events initially");
@@ -416,7 +417,7 @@ public class EventManagementTest {
         eventService.markEventAsDone(futureEvent.getEventId(), creator.getEmail());
         
         // Verify it's now in past events
-        List<Event> updatedPastEvents = eventService.listPastEvents();
+        List<EventSummary> updatedPastEvents = eventService.listPastEventSummaries();
         assertTrue(updatedPastEvents.stream()
             .anyMatch(e -> e.getEventId().equals(futureEvent.getEventId())),
             "Event marked as done should be identified as a past event");
@@ -452,7 +453,7 @@ public class EventManagementTest {
         eventService.reportEvent(pastEvent.getEventId(), reporter.getEmail(), reasonForReport);
         
         // Verify the event is in past events
-        List<Event> pastEvents = eventService.listPastEvents();
+        List<EventSummary> pastEvents = eventService.listPastEventSummaries();
         assertTrue(pastEvents.stream()
             .anyMatch(e -> e.getEventId().equals(pastEvent.getEventId())),
             "Reported event should be a past event");
@@ -110,7 +110,13 @@ public class EventSchedulerTest {
         Event futureEvent = createEvent(user, club, tomorrow, true);
         
         // Run the scheduler
-        eventSchedulerService.markPastEvents();
+        List<Long> markedIds = eventSchedulerService.markPastEvents();
+        
+        // Verify that only the active past events are reported as marked
+        assertTrue(markedIds.contains(pastEvent1.getEventId()), "Past event 1 should be reported as marked");
+        assertTrue(markedIds.contains(pastEvent2.getEventId()), "Past event 2 should be reported as marked");
+        assertFalse(markedIds.contains(alreadyInactivePastEvent.getEventId()), "Already inactive event should not be reported");
+        assertFalse(markedIds.contains(futureEvent.getEventId()), "Future event should not be reported");
         
         // Verify that past active events are now marked as inactive
         Event updatedPastEvent1 = eventRepository.findById(pastEvent1.getEventId()).orElseThrow();
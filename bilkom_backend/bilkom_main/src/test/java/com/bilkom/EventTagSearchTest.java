@@ -0,0 +1,135 @@
+package com.bilkom;
+
+import com.bilkom.dto.EventDto;
+import com.bilkom.dto.EventSummary;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.TagDefinition;
+import com.bilkom.entity.User;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.TagDefinitionRepository;
+import com.bilkom.repository.UserRepository;
+import com.bilkom.service.EventService;
+import com.bilkom.service.TagService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventTagSearchTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagDefinitionRepository tagDefinitionRepository;
+
+    private User createUniqueUser() {
+        String email = "test_" + UUID.randomUUID().toString().substring(0, 8) + "@bilkent.edu.tr";
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("testPassword123");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setBilkentId(UUID.randomUUID().toString().substring(0, 11));
+        user.setPhoneNumber("555" + (int)(Math.random()*10000000));
+        user.setBloodType("A+");
+        user.setActive(true);
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+
+    private Event createTaggedEvent(User creator, String... tags) {
+        EventDto eventDto = new EventDto();
+        eventDto.setName("Tagged Event " + UUID.randomUUID().toString().substring(0, 8));
+        eventDto.setDescription("Tag search test event");
+        eventDto.setLocation("Test Location");
+        eventDto.setEventDate(new Date(System.currentTimeMillis() + 86400000)); // Tomorrow
+        eventDto.setMaxParticipants(10);
+        eventDto.setIsClubEvent(false);
+        eventDto.setTags(Arrays.asList(tags));
+        return eventService.createEvent(eventDto, creator.getEmail());
+    }
+
+    private Set<Long> ids(List<EventSummary> summaries) {
+        return summaries.stream().map(EventSummary::getEventId).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testAndOrNotTagQueries() {
+        String sport = "sport_" + UUID.randomUUID().toString().substring(0, 8);
+        String outdoor = "outdoor_" + UUID.randomUUID().toString().substring(0, 8);
+        String night = "night_" + UUID.randomUUID().toString().substring(0, 8);
+        User creator = createUniqueUser();
+
+        Event both = createTaggedEvent(creator, sport, outdoor);
+        Event sportOnly = createTaggedEvent(creator, sport);
+        Event outdoorAtNight = createTaggedEvent(creator, outdoor, night);
+
+        Set<Long> and = ids(eventService.searchEventSummariesByTags(List.of(sport, outdoor), null, null));
+        assertEquals(Set.of(both.getEventId()), and);
+
+        Set<Long> or = ids(eventService.searchEventSummariesByTags(null, List.of(sport, night), null));
+        assertEquals(Set.of(both.getEventId(), sportOnly.getEventId(), outdoorAtNight.getEventId()), or);
+
+        Set<Long> not = ids(eventService.searchEventSummariesByTags(null, List.of(outdoor), List.of(night)));
+        assertEquals(Set.of(both.getEventId()), not);
+
+        assertThrows(BadRequestException.class, () -> eventService.searchEventSummariesByTags(null, null, List.of(night)));
+    }
+
+    @Test
+    public void testTagCountersFollowEvents() {
+        String tag = "popular_" + UUID.randomUUID().toString().substring(0, 8);
+        User creator = createUniqueUser();
+
+        createTaggedEvent(creator, tag, " " + tag.toUpperCase() + " ");
+        Event second = createTaggedEvent(creator, tag);
+        Event third = createTaggedEvent(creator, tag.toUpperCase());
+
+        assertTrue(tagService.getAllTagNames().contains(tag));
+        assertEquals(3, countOf(tag), "Every spelling should count towards the same tag");
+
+        eventService.deleteEvent(second.getEventId());
+        assertEquals(2, countOf(tag));
+
+        eventService.markEventAsDone(third.getEventId(), creator.getEmail());
+        assertEquals(1, countOf(tag), "Inactive events should not be counted");
+
+        eventService.deleteEvent(third.getEventId());
+        assertEquals(1, countOf(tag), "Deleting an inactive event should not count it out twice");
+    }
+
+    @Test
+    public void testRebuildCountsActiveEventsOnly() {
+        String tag = "rebuilt_" + UUID.randomUUID().toString().substring(0, 8);
+        User creator = createUniqueUser();
+
+        createTaggedEvent(creator, tag);
+        Event done = createTaggedEvent(creator, tag);
+        eventService.markEventAsDone(done.getEventId(), creator.getEmail());
+
+        tagService.rebuildCounters();
+        assertEquals(1, countOf(tag));
+    }
+
+    private long countOf(String tag) {
+        return tagDefinitionRepository.findByTagName(tag).map(TagDefinition::getEventCount).orElse(0L);
+    }
+}
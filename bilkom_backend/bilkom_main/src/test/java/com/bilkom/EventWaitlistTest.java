@@ -0,0 +1,191 @@
+package com.bilkom;
+
+import com.bilkom.dto.EventDto;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.EventParticipantPK;
+import com.bilkom.entity.EventWaitlistEntry;
+import com.bilkom.entity.User;
+import com.bilkom.enums.OutboxMessageType;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.EventParticipantRepository;
+import com.bilkom.repository.EventRepository;
+import com.bilkom.repository.EventWaitlistRepository;
+import com.bilkom.repository.OutboxMessageRepository;
+import com.bilkom.repository.UserRepository;
+import com.bilkom.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventWaitlistTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventParticipantRepository participantRepository;
+
+    @Autowired
+    private EventWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    private User createUniqueUser() {
+        String email = "test_" + UUID.randomUUID().toString().substring(0, 8) + "@bilkent.edu.tr";
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("testPassword123");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setBilkentId(UUID.randomUUID().toString().substring(0, 11));
+        user.setPhoneNumber("555" + (int)(Math.random()*10000000));
+        user.setBloodType("A+");
+        user.setActive(true);
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+
+    private Event createEvent(User creator, int seats) {
+        EventDto eventDto = new EventDto();
+        eventDto.setName("Waitlist Event " + UUID.randomUUID().toString().substring(0, 8));
+        eventDto.setDescription("Waitlist test event");
+        eventDto.setLocation("Test Location");
+        eventDto.setEventDate(new Date(System.currentTimeMillis() + 86400000)); // Tomorrow
+        eventDto.setMaxParticipants(seats);
+        eventDto.setIsClubEvent(false);
+        eventDto.setTags(new ArrayList<>());
+        return eventService.createEvent(eventDto, creator.getEmail());
+    }
+
+    private long notificationsQueuedFor(User user) {
+        String recipients = "\"userIds\":[" + user.getUserId() + "]";
+        return outboxMessageRepository.findAll().stream()
+                .filter(message -> message.getType() == OutboxMessageType.USER_NOTIFICATION)
+                .filter(message -> message.getPayload().contains(recipients))
+                .count();
+    }
+
+    @Test
+    public void testWaitlistOnlyForFullEvents() {
+        Event event = createEvent(createUniqueUser(), 1);
+        User user = createUniqueUser();
+
+        assertThrows(BadRequestException.class, () -> eventService.joinWaitlist(event.getEventId(), user.getEmail()));
+    }
+
+    @Test
+    public void testWaitlistIsFifo() {
+        Event event = createEvent(createUniqueUser(), 1);
+        eventService.joinEvent(event.getEventId(), createUniqueUser().getEmail());
+
+        User first = createUniqueUser();
+        User second = createUniqueUser();
+        assertEquals(1, eventService.joinWaitlist(event.getEventId(), first.getEmail()));
+        assertEquals(2, eventService.joinWaitlist(event.getEventId(), second.getEmail()));
+        assertThrows(BadRequestException.class, () -> eventService.joinWaitlist(event.getEventId(), first.getEmail()));
+
+        eventService.leaveWaitlist(event.getEventId(), first.getEmail());
+        assertEquals(1, eventService.getWaitlistPosition(event.getEventId(), second.getEmail()));
+    }
+
+    @Test
+    public void testWithdrawalPromotesHeadOfWaitlist() {
+        Event event = createEvent(createUniqueUser(), 1);
+        User participant = createUniqueUser();
+        User waiting = createUniqueUser();
+        User alsoWaiting = createUniqueUser();
+
+        eventService.joinEvent(event.getEventId(), participant.getEmail());
+        eventService.joinWaitlist(event.getEventId(), waiting.getEmail());
+        eventService.joinWaitlist(event.getEventId(), alsoWaiting.getEmail());
+
+        eventService.withdrawFromEvent(event.getEventId(), participant.getEmail());
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(1, reloaded.getCurrentParticipantsNumber(), "The seat should change hands, not be released");
+        assertTrue(participantRepository.existsById(EventParticipantPK.fromEntities(reloaded, waiting)));
+        assertFalse(participantRepository.existsById(EventParticipantPK.fromEntities(reloaded, participant)));
+        assertFalse(waitlistRepository.existsByEventEventIdAndUserUserId(event.getEventId(), waiting.getUserId()));
+        assertEquals(1, eventService.getWaitlistPosition(event.getEventId(), alsoWaiting.getEmail()));
+
+        assertEquals(1, notificationsQueuedFor(waiting), "The promoted user should be notified through the outbox");
+        assertEquals(0, notificationsQueuedFor(alsoWaiting));
+    }
+
+    @Test
+    public void testWithdrawalWithEmptyWaitlistReleasesSeat() {
+        Event event = createEvent(createUniqueUser(), 1);
+        User participant = createUniqueUser();
+
+        eventService.joinEvent(event.getEventId(), participant.getEmail());
+        eventService.withdrawFromEvent(event.getEventId(), participant.getEmail());
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(0, reloaded.getCurrentParticipantsNumber());
+        assertEquals(0, notificationsQueuedFor(participant));
+    }
+
+    @Test
+    public void testCapacityIncreasePromotesWaitlistInOrder() {
+        Event event = createEvent(createUniqueUser(), 1);
+        eventService.joinEvent(event.getEventId(), createUniqueUser().getEmail());
+        User first = createUniqueUser();
+        User second = createUniqueUser();
+        User third = createUniqueUser();
+        eventService.joinWaitlist(event.getEventId(), first.getEmail());
+        eventService.joinWaitlist(event.getEventId(), second.getEmail());
+        eventService.joinWaitlist(event.getEventId(), third.getEmail());
+
+        EventDto dto = new EventDto();
+        dto.setName(event.getEventName());
+        dto.setDescription(event.getEventDescription());
+        dto.setLocation(event.getEventLocation());
+        dto.setEventDate(event.getEventDate());
+        dto.setMaxParticipants(3);
+        Event updated = eventService.updateEvent(event.getEventId(), dto);
+
+        assertEquals(3, updated.getCurrentParticipantsNumber());
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(3, reloaded.getCurrentParticipantsNumber());
+        assertEquals(3, participantRepository.countByEventEventId(event.getEventId()));
+        assertTrue(participantRepository.existsById(EventParticipantPK.fromEntities(reloaded, first)));
+        assertTrue(participantRepository.existsById(EventParticipantPK.fromEntities(reloaded, second)));
+        assertEquals(1, eventService.getWaitlistPosition(event.getEventId(), third.getEmail()));
+        assertEquals(1, notificationsQueuedFor(first));
+        assertEquals(1, notificationsQueuedFor(second));
+    }
+
+    @Test
+    public void testDirectJoinRefusedWhileWaitlistIsNotEmpty() {
+        Event event = createEvent(createUniqueUser(), 2);
+        EventWaitlistEntry entry = new EventWaitlistEntry();
+        entry.setEvent(event);
+        entry.setUser(createUniqueUser());
+        entry.setJoinedAt(LocalDateTime.now());
+        waitlistRepository.save(entry);
+
+        User newcomer = createUniqueUser();
+        assertThrows(BadRequestException.class, () -> eventService.joinEvent(event.getEventId(), newcomer.getEmail()));
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(0, reloaded.getCurrentParticipantsNumber(), "The refused join should give its seat back");
+        assertFalse(participantRepository.existsById(EventParticipantPK.fromEntities(reloaded, newcomer)));
+    }
+}
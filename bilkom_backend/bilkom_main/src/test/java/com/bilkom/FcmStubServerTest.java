@@ -0,0 +1,144 @@
+package com.bilkom;
+
+import com.bilkom.dto.NotificationReport;
+import com.bilkom.entity.User;
+import com.bilkom.service.NotificationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests NotificationService against a local stub of the FCM endpoint, without the application context.
+ */
+public class FcmStubServerTest {
+
+    private HttpServer server;
+    private NotificationService notificationService;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger throttled = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/messages:send", exchange -> {
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            bodies.add(body);
+            int status = 200;
+            if (body.contains("stale-token")) {
+                status = 404;
+            } else if (body.contains("broken-token")) {
+                status = 503;
+            } else if (body.contains("throttled-token") && throttled.incrementAndGet() == 1) {
+                status = 429;
+            }
+            byte[] response = (status == 200 ? "{\"name\":\"projects/test/messages/1\"}" : "{\"error\":{}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        notificationService = new NotificationService();
+        ReflectionTestUtils.setField(notificationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(notificationService, "fcmEndpoint",
+                "http://localhost:" + server.getAddress().getPort() + "/messages:send");
+        ReflectionTestUtils.setField(notificationService, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(notificationService, "fanOutThreads", 4);
+        // Small enough that a fan-out overflows it and the calling thread sends some messages itself
+        ReflectionTestUtils.setField(notificationService, "fanOutQueueCapacity", 2);
+        ReflectionTestUtils.setField(notificationService, "rateLimitPerSecond", 0);
+        ReflectionTestUtils.setField(notificationService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(notificationService, "retryBaseDelayMs", 10L);
+        // The file does not exist, so any attempt to read it again would fail the send
+        ReflectionTestUtils.setField(notificationService, "serviceAccountPath", "missing-service-account.json");
+        ReflectionTestUtils.setField(notificationService, "credentials",
+                GoogleCredentials.create(new AccessToken("stub-access-token", new Date(System.currentTimeMillis() + 3600000))));
+        notificationService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        notificationService.shutdown();
+        server.stop(0);
+    }
+
+    private User userWithToken(String fcmToken) {
+        User user = new User();
+        user.setEmail(fcmToken + "@bilkent.edu.tr");
+        user.setFcmToken(fcmToken);
+        return user;
+    }
+
+    @Test
+    public void testMessagesReuseCachedCredentials() {
+        for (int i = 0; i < 3; i++) {
+            notificationService.sendFcm("device-token-" + i, "Title " + i, "Body " + i);
+        }
+
+        assertEquals(3, bodies.size());
+        assertTrue(authorizations.stream().allMatch("Bearer stub-access-token"::equals));
+    }
+
+    @Test
+    public void testMessageIsValidJsonWithSpecialCharacters() throws IOException {
+        notificationService.sendFcm("device-token", "Blood \"urgent\" alert", "Line one\nLine two \\ 😀");
+
+        assertEquals(1, bodies.size());
+        JsonNode message = new ObjectMapper().readTree(bodies.get(0)).get("message");
+        assertEquals("device-token", message.get("token").asText());
+        assertEquals("Blood \"urgent\" alert", message.get("notification").get("title").asText());
+        assertEquals("Line one\nLine two \\ 😀", message.get("notification").get("body").asText());
+    }
+
+    @Test
+    public void testFanOutReportsEveryOutcome() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(userWithToken("device-token-" + i));
+        }
+        users.add(userWithToken("throttled-token"));
+        users.add(userWithToken("stale-token"));
+        users.add(userWithToken("broken-token"));
+        users.add(userWithToken(null));
+
+        NotificationReport report = notificationService.fanOut(users, "Title", "Body").join();
+
+        assertEquals(24, report.getRequested());
+        assertEquals(21, report.getSent(), "The throttled message should succeed on retry");
+        assertEquals(1, report.getInvalidTokens());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getSkipped());
+        assertEquals(2, throttled.get());
+        assertEquals(3, bodies.stream().filter(b -> b.contains("broken-token")).count(), "5xx should be retried up to the attempt limit");
+        assertEquals(1, bodies.stream().filter(b -> b.contains("stale-token")).count(), "Invalid tokens should not be retried");
+
+        assertEquals(21, meterRegistry.get("bilkom.notifications.send").tag("outcome", "sent").timer().count());
+        assertEquals(1, meterRegistry.get("bilkom.notifications.send").tag("outcome", "invalid_token").timer().count());
+        assertEquals(1, meterRegistry.get("bilkom.notifications.send").tag("outcome", "failed").timer().count());
+        assertEquals(3, meterRegistry.get("bilkom.notifications.retries").counter().count());
+    }
+}
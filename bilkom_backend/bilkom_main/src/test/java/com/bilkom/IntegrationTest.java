@@ -3,6 +3,7 @@ package com.bilkom;
 import com.bilkom.dto.AuthResponse;
 import com.bilkom.dto.ClubDTO;
 import com.bilkom.dto.EventDto;
+import com.bilkom.dto.EventSummary;
 import com.bilkom.dto.LoginRequest;
 import com.bilkom.dto.RegistrationRequest;
 import com.bilkom.entity.Club;
@@ -179,7 +180,7 @@ public class IntegrationTest {
         eventService.joinEvent(savedEvent.getEventId(), email2);
         
         // Step 8: List events and verify participation
-        List<Event> events = eventService.getEventsUserJoined(email2);
+        List<EventSummary> events = eventService.getEventSummariesUserJoined(email2);
         
         assertNotNull(events);
         assertFalse(events.isEmpty());
@@ -203,7 +204,7 @@ public class IntegrationTest {
         assertFalse(isStillParticipant, "User should no longer be a participant after withdrawal");
         
         // Also verify through the service
-        events = eventService.getEventsUserJoined(email2);
+        events = eventService.getEventSummariesUserJoined(email2);
         assertTrue(events.isEmpty() || events.stream().noneMatch(e -> e.getEventId().equals(savedEvent.getEventId())));
         
         // Step 10: Remove user2 as executive
@@ -0,0 +1,140 @@
+package com.bilkom;
+
+import com.bilkom.repository.BlacklistedTokenRepository;
+import com.bilkom.security.JwtUtils;
+import com.bilkom.service.TokenBlacklistService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for JwtUtils token parsing and the verified-claims cache, without the application context.
+ */
+public class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "unit-test-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxSize", 2);
+        TokenBlacklistService tokenBlacklistService = new TokenBlacklistService();
+        ReflectionTestUtils.setField(tokenBlacklistService, "blacklistedTokenRepository", mock(BlacklistedTokenRepository.class));
+        ReflectionTestUtils.setField(jwtUtils, "tokenBlacklistService", tokenBlacklistService);
+        jwtUtils.init();
+        userDetails = new User("test@bilkent.edu.tr", "password", Collections.emptyList());
+    }
+
+    private Map<?, ?> claimsCache() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(jwtUtils, "claimsCache");
+    }
+
+    @Test
+    public void testValidateAndParseReturnsClaimsOnce() {
+        String token = jwtUtils.generateToken(userDetails);
+
+        Optional<Claims> first = jwtUtils.validateAndParse(token);
+        Optional<Claims> second = jwtUtils.validateAndParse(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("test@bilkent.edu.tr", first.get().getSubject());
+        assertSame(first.get(), second.get(), "The second call should be served from the cache");
+        assertEquals("test@bilkent.edu.tr", jwtUtils.getUsernameFromToken(token));
+        assertTrue(jwtUtils.validateToken(token));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        String token = jwtUtils.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtUtils.validateAndParse(tampered).isPresent());
+        assertFalse(jwtUtils.validateToken(""));
+    }
+
+    @Test
+    public void testBlacklistedTokenIsRejectedEvenWhenCached() {
+        String token = jwtUtils.generateToken(userDetails);
+        assertTrue(jwtUtils.validateAndParse(token).isPresent());
+
+        jwtUtils.blacklistToken(token);
+
+        assertFalse(jwtUtils.validateAndParse(token).isPresent());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int i = 0; i < 4; i++) {
+            UserDetails other = new User("user" + i + "@bilkent.edu.tr", "password", Collections.emptyList());
+            assertTrue(jwtUtils.validateAndParse(jwtUtils.generateToken(other)).isPresent());
+        }
+
+        assertEquals(2, claimsCache().size());
+    }
+
+    @Test
+    public void testEvictedTokensAreVerifiedAgain() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tokens.add(jwtUtils.generateToken(new User("user" + i + "@bilkent.edu.tr", "password", Collections.emptyList())));
+        }
+        tokens.forEach(token -> assertTrue(jwtUtils.validateAndParse(token).isPresent()));
+
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals("user" + i + "@bilkent.edu.tr", jwtUtils.getUsernameFromToken(tokens.get(i)));
+        }
+        assertEquals(2, claimsCache().size());
+    }
+
+    @Test
+    public void testConcurrentValidationKeepsCacheBounded() throws InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add(jwtUtils.generateToken(new User("user" + i + "@bilkent.edu.tr", "password", Collections.emptyList())));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger valid = new AtomicInteger();
+        for (int round = 0; round < 20; round++) {
+            for (String token : tokens) {
+                executor.submit(() -> {
+                    if (jwtUtils.validateAndParse(token).isPresent()) {
+                        valid.incrementAndGet();
+                    }
+                });
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(20 * tokens.size(), valid.get());
+        assertTrue(claimsCache().size() <= 2 + 8, "The cache may only overshoot by one entry per thread");
+    }
+
+    @Test
+    public void testShortSecretFailsWithClearMessage() {
+        JwtUtils misconfigured = new JwtUtils();
+        ReflectionTestUtils.setField(misconfigured, "jwtSecret", "JWT_SECRET_KEY");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, misconfigured::init);
+        assertTrue(e.getMessage().contains("jwt.secret"));
+    }
+}
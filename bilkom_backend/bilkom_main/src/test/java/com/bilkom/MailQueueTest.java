@@ -0,0 +1,130 @@
+package com.bilkom;
+
+import com.bilkom.dto.MailQueueStats;
+import com.bilkom.service.MailQueue;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the background mail queue against a local GreenMail SMTP server, without the application context.
+ */
+public class MailQueueTest {
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private MailQueue mailQueue;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        greenMail = new GreenMail(new ServerSetup(0, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        meterRegistry = new SimpleMeterRegistry();
+        mailQueue = new MailQueue();
+        ReflectionTestUtils.setField(mailQueue, "mailSender", mailSender);
+        ReflectionTestUtils.setField(mailQueue, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(mailQueue, "workers", 1);
+        ReflectionTestUtils.setField(mailQueue, "batchSize", 5);
+        ReflectionTestUtils.setField(mailQueue, "retryDelayMs", 10L);
+        ReflectionTestUtils.setField(mailQueue, "sendTimeoutMs", 10000L);
+        mailQueue.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mailQueue.shutdown();
+        greenMail.stop();
+    }
+
+    private SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("bilkom@bilkent.edu.tr");
+        message.setTo("user" + i + "@bilkent.edu.tr");
+        message.setSubject("Message " + i);
+        message.setText("Body " + i);
+        return message;
+    }
+
+    @Test
+    public void testQueuedMessagesAreDelivered() throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            results.add(mailQueue.submit(message(i)));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(12, received.length);
+        assertTrue(List.of(received).stream().anyMatch(m -> {
+            try {
+                return "Message 11".equals(m.getSubject());
+            } catch (Exception e) {
+                return false;
+            }
+        }));
+        MailQueueStats stats = mailQueue.getStats();
+        assertEquals(12, stats.getSent());
+        assertEquals(0, stats.getFailed());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    public void testAwaitSentWaitsForDelivery() {
+        mailQueue.awaitSent(() -> {
+            mailQueue.submit(message(1));
+            mailQueue.submit(message(2));
+        });
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void testSendsAreMeasured() {
+        mailQueue.awaitSent(() -> {
+            for (int i = 0; i < 3; i++) {
+                mailQueue.submit(message(i));
+            }
+        });
+
+        assertEquals(3, meterRegistry.get("bilkom.mail.sent").functionCounter().count());
+        assertEquals(3, meterRegistry.get("bilkom.mail.latency").timer().count());
+        assertTrue(meterRegistry.get("bilkom.mail.smtp").tag("outcome", "sent").timer().count() >= 1);
+        assertEquals(0, meterRegistry.get("bilkom.mail.queue.size").gauge().value());
+    }
+
+    @Test
+    public void testUnreachableServerFailsAfterRetries() {
+        greenMail.stop();
+
+        MailSendException e = assertThrows(MailSendException.class,
+                () -> mailQueue.awaitSent(() -> mailQueue.submit(message(1))));
+
+        assertNotNull(e.getCause());
+        MailQueueStats stats = mailQueue.getStats();
+        assertEquals(1, stats.getFailed());
+        assertEquals(2, stats.getRetried());
+        assertEquals(0, stats.getSent());
+    }
+}
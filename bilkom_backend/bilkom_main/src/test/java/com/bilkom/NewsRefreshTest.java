@@ -0,0 +1,180 @@
+package com.bilkom;
+
+import com.bilkom.dto.NewsDto;
+import com.bilkom.service.NewsService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the news snapshot against a local fixture of Bilkent News, without the application context.
+ */
+public class NewsRefreshTest {
+
+    private static final String PAGE = "<html><body>"
+            + "<h3 class=\"entry-title\"><a href=\"/first\">First News</a></h3>"
+            + "<h3 class=\"entry-title\"><a href=\"/second\">Second News</a></h3>"
+            + "</body></html>";
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final List<String> conditionalRequests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile int failWith;
+    private volatile long delayMs;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null) {
+                conditionalRequests.add(ifNoneMatch);
+            }
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failWith != 0) {
+                exchange.sendResponseHeaders(failWith, -1);
+            } else if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                downloads.incrementAndGet();
+                byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private NewsService newsService(String snapshotPath) {
+        NewsService newsService = new NewsService();
+        ReflectionTestUtils.setField(newsService, "newsUrl", "http://localhost:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(newsService, "timeoutMs", 2000);
+        ReflectionTestUtils.setField(newsService, "snapshotPath", snapshotPath);
+        newsService.init();
+        return newsService;
+    }
+
+    @Test
+    public void testFirstRequestFetchesAndLaterOnesUseSnapshot() {
+        NewsService newsService = newsService("");
+
+        List<NewsDto> news = newsService.getNews();
+        assertEquals(2, news.size());
+        assertEquals("First News", news.get(0).getTitle());
+        assertTrue(news.get(0).getLink().endsWith("/first"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(2, newsService.getNews().size());
+        }
+        assertEquals(1, downloads.get(), "Only the first request should reach the site");
+        newsService.shutdown();
+    }
+
+    @Test
+    public void testUnchangedPageIsNotDownloadedAgain() {
+        NewsService newsService = newsService("");
+        newsService.refresh();
+        newsService.refresh();
+        newsService.refresh();
+
+        assertEquals(1, downloads.get());
+        assertEquals(List.of(ETAG, ETAG), conditionalRequests);
+        assertEquals(2, newsService.getNews().size());
+        newsService.shutdown();
+    }
+
+    @Test
+    public void testSnapshotIsServedWhileSiteIsDown() {
+        NewsService newsService = newsService("");
+        newsService.refresh();
+
+        failWith = 503;
+        newsService.refresh();
+        server.stop(0);
+        newsService.refresh();
+
+        assertEquals(2, newsService.getNews().size());
+        newsService.shutdown();
+    }
+
+    @Test
+    public void testRequestsWithoutSnapshotShareOneFetchWhileSiteIsDown() throws Exception {
+        NewsService newsService = newsService("");
+        failWith = 503;
+        delayMs = 500;
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<List<NewsDto>>> results = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(newsService::getNews));
+        }
+        for (Future<List<NewsDto>> result : results) {
+            assertTrue(result.get().isEmpty());
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        callers.shutdown();
+
+        assertTrue(requests.get() < 8, "Callers arriving together should share a fetch, but made " + requests.get());
+        assertTrue(elapsed < 4 * delayMs, "Callers should not queue behind each other, took " + elapsed + " ms");
+        newsService.shutdown();
+    }
+
+    @Test
+    public void testStoredSnapshotIsServedAfterRestart() {
+        Path snapshotFile = tempDir.resolve("news-snapshot.json");
+        NewsService first = newsService(snapshotFile.toString());
+        first.refresh();
+        first.shutdown();
+        assertTrue(Files.exists(snapshotFile));
+
+        server.stop(0);
+        NewsService restarted = newsService(snapshotFile.toString());
+
+        List<NewsDto> news = restarted.getNews();
+        assertEquals(2, news.size());
+        assertEquals("Second News", news.get(1).getTitle());
+        restarted.shutdown();
+    }
+}
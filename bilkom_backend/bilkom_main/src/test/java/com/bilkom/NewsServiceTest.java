@@ -10,38 +10,41 @@ import org.jsoup.select.Elements;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.ActiveProfiles;
 
 import java.io.IOException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
  * Tests for NewsService functionality which fetches news titles and links from Bilkent News.
+ * Each test starts without a snapshot, so the first getNews call fetches the page.
  * 
  * @author Mert Uzun
- * @version 1.1
+ * @version 1.2
  */
-@SpringBootTest
-@ActiveProfiles("test")
 public class NewsServiceTest {
 
-    @Autowired
     private NewsService newsService;
     
     private Document mockDocument;
     private Connection mockConnection;
+    private Connection.Response mockResponse;
     
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
+        newsService = new NewsService();
+        newsService.init();
+        
         // Setup mock document and elements
         mockDocument = mock(Document.class);
-        mockConnection = mock(Connection.class);
+        mockConnection = mock(Connection.class, RETURNS_SELF);
+        mockResponse = mock(Connection.Response.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.parse()).thenReturn(mockDocument);
         
         // We'll create mock Elements and Element for testing
         Element link1 = mock(Element.class);
@@ -72,13 +75,14 @@ public class NewsServiceTest {
         try (MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class)) {
             // Setup the static mock
             jsoupMock.when(() -> Jsoup.connect(anyString())).thenReturn(mockConnection);
-            when(mockConnection.get()).thenReturn(mockDocument);
+            when(mockConnection.execute()).thenReturn(mockResponse);
             
             // Call the service method
-            List<NewsDto> newsList = newsService.fetchFromBilkentNews();
+            List<NewsDto> newsList = newsService.getNews();
             
             // Verify the mock was used
             jsoupMock.verify(() -> Jsoup.connect("https://bilkentnews.bilkent.edu.tr/"));
+            verify(mockConnection).timeout(anyInt());
             
             // Verify results
             assertNotNull(newsList, "News list should not be null");
@@ -104,10 +108,10 @@ public class NewsServiceTest {
         try (MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class)) {
             // Setup the static mock
             jsoupMock.when(() -> Jsoup.connect(anyString())).thenReturn(mockConnection);
-            when(mockConnection.get()).thenReturn(mockDocument);
+            when(mockConnection.execute()).thenReturn(mockResponse);
             
             // Call the service method
-            List<NewsDto> newsList = newsService.fetchFromBilkentNews();
+            List<NewsDto> newsList = newsService.getNews();
             
             // Verify results
             assertNotNull(newsList, "News list should not be null even if empty");
@@ -120,10 +124,10 @@ public class NewsServiceTest {
         try (MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class)) {
             // Setup the static mock to throw exception
             jsoupMock.when(() -> Jsoup.connect(anyString())).thenReturn(mockConnection);
-            when(mockConnection.get()).thenThrow(new IOException("Connection error"));
+            when(mockConnection.execute()).thenThrow(new IOException("Connection error"));
             
             // Call the service method
-            List<NewsDto> newsList = newsService.fetchFromBilkentNews();
+            List<NewsDto> newsList = newsService.getNews();
             
             // Verify error handling
             assertNotNull(newsList, "News list should not be null on error");
@@ -154,10 +158,10 @@ public class NewsServiceTest {
         try (MockedStatic<Jsoup> jsoupMock = mockStatic(Jsoup.class)) {
             // Setup the static mock
             jsoupMock.when(() -> Jsoup.connect(anyString())).thenReturn(mockConnection);
-            when(mockConnection.get()).thenReturn(mockDocument);
+            when(mockConnection.execute()).thenReturn(mockResponse);
             
             // Call the service method
-            List<NewsDto> newsList = newsService.fetchFromBilkentNews();
+            List<NewsDto> newsList = newsService.getNews();
             
             // Verify results - it should only include the valid news
             assertNotNull(newsList, "News list should not be null");
@@ -0,0 +1,122 @@
+package com.bilkom;
+
+import com.bilkom.dto.NotificationReport;
+import com.bilkom.entity.OutboxMessage;
+import com.bilkom.enums.OutboxMessageType;
+import com.bilkom.enums.OutboxStatus;
+import com.bilkom.repository.OutboxMessageRepository;
+import com.bilkom.repository.UserRepository;
+import com.bilkom.service.EmailService;
+import com.bilkom.service.EmergencyAlertService;
+import com.bilkom.service.MailQueue;
+import com.bilkom.service.NotificationService;
+import com.bilkom.service.OutboxDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for sending, retrying and dead-lettering outbox messages, without the application context.
+ */
+public class OutboxDispatcherTest {
+
+    private OutboxDispatcher dispatcher;
+    private OutboxMessageRepository repository;
+    private EmailService emailService;
+    private EmergencyAlertService emergencyAlertService;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(OutboxMessageRepository.class);
+        emailService = mock(EmailService.class);
+        emergencyAlertService = mock(EmergencyAlertService.class);
+        dispatcher = new OutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxMessageRepository", repository);
+        ReflectionTestUtils.setField(dispatcher, "emailService", emailService);
+        MailQueue mailQueue = new MailQueue();
+        ReflectionTestUtils.setField(mailQueue, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "mailQueue", mailQueue);
+        ReflectionTestUtils.setField(dispatcher, "emergencyAlertService", emergencyAlertService);
+        ReflectionTestUtils.setField(dispatcher, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(dispatcher, "notificationService", mock(NotificationService.class));
+        ReflectionTestUtils.setField(dispatcher, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseDelayMs", 1000L);
+    }
+
+    private OutboxMessage due(OutboxMessage message) {
+        when(repository.findDueForUpdate(any(), any())).thenReturn(List.of(message)).thenReturn(List.of());
+        return message;
+    }
+
+    @Test
+    public void testSentMessageIsMarkedSent() {
+        OutboxMessage message = due(new OutboxMessage(OutboxMessageType.VERIFICATION_EMAIL,
+                "{\"to\":\"user@bilkent.edu.tr\",\"url\":\"http://localhost/verify?token=abc\"}"));
+
+        assertEquals(1, dispatcher.dispatchPending());
+
+        verify(emailService).sendVerificationEmail("user@bilkent.edu.tr", "http://localhost/verify?token=abc");
+        assertEquals(OutboxStatus.SENT, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getSentAt());
+        verify(repository).save(message);
+    }
+
+    @Test
+    public void testFailedMessageIsRetriedLater() {
+        OutboxMessage message = due(new OutboxMessage(OutboxMessageType.EMERGENCY_ALERT, "{\"alertId\":7}"));
+        when(emergencyAlertService.notifyDonors(7L)).thenThrow(new RuntimeException("FCM unavailable"));
+        long before = System.currentTimeMillis();
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getLastError().contains("FCM unavailable"));
+        long delay = message.getNextAttemptAt().getTime() - before;
+        assertTrue(delay >= 500 && delay <= 1000 + 100, "First retry waits between half and all of the base delay");
+    }
+
+    @Test
+    public void testMessageIsDeadLetteredAfterMaxAttempts() {
+        OutboxMessage message = due(new OutboxMessage(OutboxMessageType.EMERGENCY_ALERT, "{\"alertId\":7}"));
+        message.setAttempts(2);
+        when(emergencyAlertService.notifyDonors(7L)).thenThrow(new RuntimeException("Alert is gone"));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.DEAD, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        assertNull(message.getSentAt());
+    }
+
+    @Test
+    public void testPartialFailureIsRetriedForFailedUsersOnly() {
+        OutboxMessage message = due(new OutboxMessage(OutboxMessageType.EMERGENCY_ALERT, "{\"alertId\":7}"));
+        when(emergencyAlertService.notifyDonors(7L)).thenReturn(new NotificationReport(3, 1, 2, 0, 0, 10, List.of(4L, 9L)));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertTrue(message.getLastError().contains("2 of 3"));
+
+        when(repository.findDueForUpdate(any(), any())).thenReturn(List.of(message)).thenReturn(List.of());
+        when(emergencyAlertService.notifyDonors(7L, Set.of(4L, 9L))).thenReturn(new NotificationReport(2, 2, 0, 0, 0, 10));
+
+        dispatcher.dispatchPending();
+
+        verify(emergencyAlertService, times(1)).notifyDonors(7L);
+        assertEquals(OutboxStatus.SENT, message.getStatus());
+        assertEquals(2, message.getAttempts());
+    }
+}
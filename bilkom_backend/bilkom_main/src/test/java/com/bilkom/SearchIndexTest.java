@@ -0,0 +1,171 @@
+package com.bilkom;
+
+import com.bilkom.dto.SearchResult;
+import com.bilkom.entity.Club;
+import com.bilkom.entity.Event;
+import com.bilkom.entity.Tag;
+import com.bilkom.enums.ClubRegistrationStatus;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.service.LuceneSearchIndex;
+import com.bilkom.service.SearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Lucene search index, run against an in-memory index without the application context.
+ */
+public class SearchIndexTest {
+
+    private LuceneSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        searchIndex = new LuceneSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "indexPath", "");
+        searchIndex.open();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    private Event event(long id, String name, String description, String location, String... tags) {
+        Event event = new Event();
+        event.setEventId(id);
+        event.setEventName(name);
+        event.setEventDescription(description);
+        event.setEventLocation(location);
+        event.setEventDate(new Date(System.currentTimeMillis()));
+        event.setActive(true);
+        for (String tagName : tags) {
+            Tag tag = new Tag();
+            tag.setTagName(tagName);
+            event.getTags().add(tag);
+        }
+        return event;
+    }
+
+    private Club club(long id, String name, String description, boolean approved) {
+        Club club = new Club();
+        club.setClubId(id);
+        club.setClubName(name);
+        club.setClubDescription(description);
+        club.setActive(true);
+        club.setStatus(approved ? ClubRegistrationStatus.APPROVED : ClubRegistrationStatus.PENDING);
+        return club;
+    }
+
+    @Test
+    public void testNameMatchesRankAboveDescriptionMatches() {
+        searchIndex.indexEvent(event(1, "Evening walk", "We talk about chess openings", "Main campus"));
+        searchIndex.indexEvent(event(2, "Chess tournament", "Bring your own board", "Library"));
+
+        Page<SearchResult> results = searchIndex.search("chess", null, 0, 10);
+
+        assertEquals(2, results.getTotalElements());
+        assertEquals(2L, results.getContent().get(0).getId());
+        assertEquals("EVENT", results.getContent().get(0).getType());
+    }
+
+    @Test
+    public void testTagsAndLocationsAreSearchable() {
+        searchIndex.indexEvent(event(1, "Morning run", "Easy pace", "Stadium", "sports"));
+
+        assertEquals(1, searchIndex.search("sports", null, 0, 10).getTotalElements());
+        assertEquals(1, searchIndex.search("stadium", null, 0, 10).getTotalElements());
+    }
+
+    @Test
+    public void testUpdatesReplaceAndRemoveDocuments() {
+        searchIndex.indexEvent(event(1, "Movie night", "Classics", "Hall A"));
+        searchIndex.indexEvent(event(1, "Board game night", "Classics", "Hall A"));
+
+        assertEquals(0, searchIndex.search("movie", null, 0, 10).getTotalElements());
+        assertEquals(1, searchIndex.search("board", null, 0, 10).getTotalElements());
+
+        searchIndex.removeEvent(1L);
+        assertEquals(0, searchIndex.search("board", null, 0, 10).getTotalElements());
+    }
+
+    @Test
+    public void testOnlyActiveEventsAreIndexed() {
+        Event finished = event(1, "Chess tournament", "Bring your own board", "Library");
+        finished.setActive(false);
+        searchIndex.indexEvent(finished);
+        assertEquals(0, searchIndex.search("chess", null, 0, 10).getTotalElements());
+
+        Event current = event(2, "Chess club meeting", "Weekly games", "Library");
+        searchIndex.indexEvent(current);
+        assertEquals(1, searchIndex.search("chess", null, 0, 10).getTotalElements());
+
+        current.setActive(false);
+        searchIndex.indexEvent(current);
+        assertEquals(0, searchIndex.search("chess", null, 0, 10).getTotalElements());
+    }
+
+    @Test
+    public void testOnlyApprovedClubsAreIndexed() {
+        searchIndex.indexClub(club(1, "Robotics Club", "We build robots", true));
+        searchIndex.indexClub(club(2, "Robotics Society", "Also robots", false));
+
+        Page<SearchResult> results = searchIndex.search("robotics", SearchIndex.DocumentType.CLUB, 0, 10);
+        assertEquals(1, results.getTotalElements());
+        assertEquals(1L, results.getContent().get(0).getId());
+
+        searchIndex.indexClub(club(1, "Robotics Club", "We build robots", false));
+        assertEquals(0, searchIndex.search("robotics", null, 0, 10).getTotalElements());
+    }
+
+    @Test
+    public void testTypeFilterAndPagination() {
+        for (long i = 1; i <= 5; i++) {
+            searchIndex.indexEvent(event(i, "Music event " + i, "Live music", "Odeon"));
+        }
+        searchIndex.indexClub(club(1, "Music Club", "Music for everyone", true));
+
+        Page<SearchResult> secondPage = searchIndex.search("music", SearchIndex.DocumentType.EVENT, 1, 2);
+        assertEquals(5, secondPage.getTotalElements());
+        assertEquals(2, secondPage.getContent().size());
+        assertEquals(3, secondPage.getTotalPages());
+
+        assertEquals(6, searchIndex.search("music", null, 0, 10).getTotalElements());
+
+        Page<SearchResult> pastTheEnd = searchIndex.search("music", null, Integer.MAX_VALUE, 100);
+        assertTrue(pastTheEnd.getContent().isEmpty());
+        assertEquals(6, pastTheEnd.getTotalElements());
+    }
+
+    @Test
+    public void testWritesInsideTransactionWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchIndex.indexEvent(event(1, "Chess tournament", "Bring your own board", "Library"));
+            assertEquals(0, searchIndex.search("chess", null, 0, 10).getTotalElements());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, searchIndex.search("chess", null, 0, 10).getTotalElements());
+    }
+
+    @Test
+    public void testSpecialCharactersDoNotBreakTheQuery() {
+        searchIndex.indexEvent(event(1, "C++ workshop", "Templates (advanced)", "B Building"));
+
+        assertEquals(1, searchIndex.search("workshop (advanced", null, 0, 10).getTotalElements());
+        assertEquals(0, searchIndex.search("!!!", null, 0, 10).getTotalElements());
+        assertThrows(BadRequestException.class, () -> searchIndex.search("  ", null, 0, 10));
+    }
+}
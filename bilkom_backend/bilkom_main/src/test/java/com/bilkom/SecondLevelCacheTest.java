@@ -0,0 +1,117 @@
+package com.bilkom;
+
+import com.bilkom.config.CacheConfig;
+import com.bilkom.entity.User;
+import com.bilkom.repository.TagDefinitionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that entities are served from the Hibernate second-level cache, against an in-memory
+ * database in MySQL mode and without the application context.
+ */
+public class SecondLevelCacheTest {
+
+    private javax.cache.CacheManager jCacheManager;
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "environment", new MockEnvironment());
+        jCacheManager = config.jCacheManager();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:l2cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.bilkom.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.use_query_cache", "true",
+                "hibernate.cache.region.factory_class", "org.hibernate.cache.jcache.JCacheRegionFactory",
+                "hibernate.javax.cache.cache_manager", jCacheManager,
+                "hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        entityManagerFactory.close();
+        jCacheManager.close();
+    }
+
+    @Test
+    public void testRepeatedFindIsServedFromCache() {
+        Long userId = saveUser();
+
+        inTransaction(em -> assertNotNull(em.find(User.class, userId)));
+        inTransaction(em -> assertNotNull(em.find(User.class, userId)));
+
+        assertEquals(0, statistics.getEntityLoadCount(), "The user should never be read from the database");
+        assertEquals(2, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    }
+
+    @Test
+    public void testTagCountUpdateKeepsOtherRegions() {
+        Long userId = saveUser();
+        inTransaction(em -> new JpaRepositoryFactory(em).getRepository(TagDefinitionRepository.class)
+                .incrementEventCount("concert"));
+        statistics.clear();
+
+        inTransaction(em -> assertNotNull(em.find(User.class, userId)));
+
+        assertEquals(0, statistics.getEntityLoadCount(), "Updating tag counts should not evict cached users");
+        assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+        inTransaction(em -> assertEquals(1L, em.createQuery(
+                "SELECT d.eventCount FROM TagDefinition d WHERE d.tagName = 'concert'").getSingleResult()));
+    }
+
+    // Saves a user and loads it once, which puts it in the cache
+    private Long saveUser() {
+        User user = new User();
+        user.setEmail("user@bilkent.edu.tr");
+        user.setPasswordHash("hash");
+        user.setFirstName("Ali");
+        user.setLastName("Veli");
+        user.setBilkentId("22001234");
+        user.setPhoneNumber("5551234567");
+        user.setBloodType("A+");
+        inTransaction(em -> em.persist(user));
+        inTransaction(em -> em.find(User.class, user.getUserId()));
+        statistics.clear();
+        return user.getUserId();
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
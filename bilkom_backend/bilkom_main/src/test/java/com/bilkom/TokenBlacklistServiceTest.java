@@ -0,0 +1,78 @@
+package com.bilkom;
+
+import com.bilkom.entity.BlacklistedToken;
+import com.bilkom.repository.BlacklistedTokenRepository;
+import com.bilkom.service.TokenBlacklistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the token blacklist and its in-memory front, without the application context.
+ */
+public class TokenBlacklistServiceTest {
+
+    private TokenBlacklistService blacklistService;
+    private BlacklistedTokenRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(BlacklistedTokenRepository.class);
+        blacklistService = new TokenBlacklistService();
+        ReflectionTestUtils.setField(blacklistService, "blacklistedTokenRepository", repository);
+    }
+
+    @Test
+    public void testUnknownTokenIsCheckedWithoutDatabase() {
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(blacklistService.isBlacklisted("token-" + i));
+        }
+
+        // An empty filter never matches, so no lookup is needed
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    public void testBlacklistedTokenIsStoredByHash() {
+        String token = "header.payload.signature";
+        blacklistService.blacklistToken(token, System.currentTimeMillis() + 60000);
+
+        assertTrue(blacklistService.isBlacklisted(token));
+        verify(repository).save(argThat(saved -> saved.getTokenHash().equals(TokenBlacklistService.hashToken(token))));
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    public void testTokenBlacklistedElsewhereIsSeenAfterRefresh() {
+        String token = "revoked.on.another.node";
+        String hash = TokenBlacklistService.hashToken(token);
+        Timestamp expiresAt = new Timestamp(System.currentTimeMillis() + 60000);
+        when(repository.findActiveTokenHashes(any())).thenReturn(List.of(hash));
+        when(repository.findById(hash)).thenReturn(Optional.of(new BlacklistedToken(hash, expiresAt)));
+
+        assertFalse(blacklistService.isBlacklisted(token), "Not visible before the filter is refreshed");
+
+        blacklistService.refresh();
+
+        assertTrue(blacklistService.isBlacklisted(token));
+        assertTrue(blacklistService.isBlacklisted(token));
+        verify(repository, times(1)).findById(hash);
+        verify(repository).deleteExpired(any());
+    }
+
+    @Test
+    public void testExpiredEntryIsNoLongerBlacklisted() {
+        String token = "already.expired.token";
+        blacklistService.blacklistToken(token, System.currentTimeMillis() - 1000);
+
+        assertFalse(blacklistService.isBlacklisted(token));
+    }
+}
@@ -0,0 +1,105 @@
+package com.bilkom;
+
+import com.bilkom.entity.User;
+import com.bilkom.enums.UserRole;
+import com.bilkom.repository.UserRepository;
+import com.bilkom.security.AuthenticatedUser;
+import com.bilkom.security.UserAuthorityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the request principal cache, without the application context.
+ */
+public class UserAuthorityCacheTest {
+
+    private static final String EMAIL = "test@bilkent.edu.tr";
+
+    private UserAuthorityCache cache;
+    private UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserAuthorityCache();
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 10);
+
+        user = new User();
+        user.setUserId(1L);
+        user.setEmail(EMAIL);
+        user.setRole(UserRole.USER);
+        user.setActive(true);
+        user.setVerified(true);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    public void testRepeatedLookupsHitTheDatabaseOnce() {
+        AuthenticatedUser first = cache.getPrincipal(EMAIL);
+        AuthenticatedUser second = cache.getPrincipal(EMAIL);
+
+        assertSame(first, second);
+        assertEquals(1L, first.getUserId());
+        assertTrue(first.isEnabled());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testInvalidateReloadsChangedRole() {
+        cache.getPrincipal(EMAIL);
+        user.setRole(UserRole.CLUB_HEAD);
+        cache.invalidate(EMAIL);
+
+        AuthenticatedUser reloaded = cache.getPrincipal(EMAIL);
+
+        assertEquals(UserRole.CLUB_HEAD, reloaded.getRole());
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testInvalidateInsideTransactionWaitsForCommit() {
+        cache.getPrincipal(EMAIL);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(EMAIL);
+            cache.getPrincipal(EMAIL);
+            verify(userRepository, times(1)).findByEmail(EMAIL);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.getPrincipal(EMAIL);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() {
+        ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+        cache.getPrincipal(EMAIL);
+        cache.getPrincipal(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testUnknownUserIsRejected() {
+        when(userRepository.findByEmail("missing@bilkent.edu.tr")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.getPrincipal("missing@bilkent.edu.tr"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.bilkom;
+
+import com.bilkom.dto.WeatherDto;
+import com.bilkom.entity.Weather;
+import com.bilkom.exception.BadRequestException;
+import com.bilkom.repository.WeatherRepository;
+import com.bilkom.service.WeatherService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the weather refresh against a local stub of OpenWeatherMap, without the application context.
+ */
+public class WeatherRefreshTest {
+
+    private static final String RESPONSE = "{\"weather\":[{\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"main\":{\"temp\":21.5,\"feels_like\":20.9,\"humidity\":40},\"wind\":{\"speed\":3.6,\"deg\":90},"
+            + "\"dt\":1747000000,\"name\":\"Bilkent\"}";
+
+    private HttpServer server;
+    private WeatherService weatherService;
+    private WeatherRepository weatherRepository;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/data/2.5/weather", exchange -> {
+            requests.incrementAndGet();
+            queries.add(exchange.getRequestURI().getRawQuery());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = (status == 200 ? RESPONSE : "{\"cod\":429}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        weatherRepository = mock(WeatherRepository.class);
+        weatherService = new WeatherService();
+        ReflectionTestUtils.setField(weatherService, "weatherRepository", weatherRepository);
+        ReflectionTestUtils.setField(weatherService, "apiKey", "stub-key");
+        ReflectionTestUtils.setField(weatherService, "apiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/data/2.5/weather");
+        ReflectionTestUtils.setField(weatherService, "timeoutMs", 5000);
+        weatherService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testObservationIsParsedAndStored() {
+        WeatherDto weather = weatherService.getWeather();
+
+        assertEquals("clear sky", weather.getDescription());
+        assertEquals(21.5, weather.getTemperature());
+        assertEquals(40, weather.getHumidity());
+        assertEquals("E", weather.getWindDirection());
+        assertEquals("Bilkent, Ankara", weather.getLocation());
+        assertEquals("2025-05-12 00:46:40", weather.getTimestamp());
+        assertEquals("q=Bilkent,Ankara,tr&units=metric&appid=stub-key", queries.get(0));
+
+        ArgumentCaptor<Weather> stored = ArgumentCaptor.forClass(Weather.class);
+        verify(weatherRepository).save(stored.capture());
+        assertEquals(20.9, stored.getValue().getFeelsLike());
+        assertNotNull(stored.getValue().getRetrievedAt());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneCall() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<WeatherDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(weatherService::getWeather));
+            }
+            Thread.sleep(300);
+            release.countDown();
+            for (Future<WeatherDto> result : results) {
+                assertEquals("clear sky", result.get().getDescription());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, requests.get());
+        verify(weatherRepository, times(1)).save(any(Weather.class));
+    }
+
+    @Test
+    public void testRequestsAreServedFromLatestObservation() {
+        weatherService.refresh();
+        for (int i = 0; i < 5; i++) {
+            weatherService.getWeather();
+        }
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testStaleObservationIsServedWhenApiFails() throws InterruptedException {
+        weatherService.refresh();
+        ReflectionTestUtils.setField(weatherService, "refreshMs", 0L);
+        Thread.sleep(10);
+        status = 429;
+
+        WeatherDto weather = weatherService.getWeather();
+
+        assertEquals("clear sky", weather.getDescription());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testLatestObservationIsLoadedFromDatabase() {
+        Weather stored = new Weather("light rain", 12.0, "10d", LocalDateTime.now(ZoneId.of("Europe/Istanbul")));
+        when(weatherRepository.findTopByOrderByRetrievedAtDesc()).thenReturn(Optional.of(stored));
+        weatherService.init();
+
+        assertEquals("light rain", weatherService.getWeather().getDescription());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void testHistoryIsServedFromDatabase() {
+        when(weatherRepository.findByRetrievedAtAfterOrderByRetrievedAtAsc(any(LocalDateTime.class)))
+                .thenReturn(List.of(new Weather("light rain", 12.0, "10d", LocalDateTime.of(2025, 5, 12, 9, 0)),
+                        new Weather("clear sky", 18.0, "01d", LocalDateTime.of(2025, 5, 12, 9, 10))));
+
+        List<WeatherDto> history = weatherService.getHistory(24);
+
+        assertEquals(2, history.size());
+        assertEquals("2025-05-12 09:10:00", history.get(1).getTimestamp());
+        assertEquals(0, requests.get());
+        assertThrows(BadRequestException.class, () -> weatherService.getHistory(0));
+    }
+}
@@ -5,8 +5,8 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Mock implementation of NotificationService for testing purposes.
@@ -17,7 +17,8 @@ import java.util.List;
 @Primary
 public class MockNotificationService extends NotificationService {
     
-    private List<NotificationRecord> sentNotifications = new ArrayList<>();
+    // Fan-outs record from several threads at once
+    private List<NotificationRecord> sentNotifications = new CopyOnWriteArrayList<>();
     
     // Record class to store information about sent notifications
     public static class NotificationRecord {
@@ -60,6 +61,13 @@ public class MockNotificationService extends NotificationService {
         System.out.println("[MOCK] Body: " + body);
     }
     
+    @Override
+    protected DeliveryStatus deliver(String token, String title, String body) {
+        sentNotifications.add(new NotificationRecord(token, title, body));
+        System.out.println("[MOCK] FCM notification delivered to token: " + token);
+        return DeliveryStatus.SENT;
+    }
+    
     @Override
     public void sendNotificationToUser(User user, String title, String body) {
         if (user == null) {